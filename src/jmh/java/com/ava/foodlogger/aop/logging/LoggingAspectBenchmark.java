@@ -0,0 +1,76 @@
+package com.ava.foodlogger.aop.logging;
+
+import ch.qos.logback.classic.Logger;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.service.dto.UserDTO;
+import com.ava.foodlogger.service.mapper.UserMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+import tech.jhipster.config.JHipsterConstants;
+
+/**
+ * Benchmark of the overhead of {@link LoggingAspect#logAround} on a cheap service call, {@link UserMapper#userToUserDTO},
+ * compared with the same call without the aspect.
+ * <p>
+ * The logger of the advised class has no appender during the benchmark, so that the numbers measure the aspect and not
+ * the console.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    /** {@code INFO} is the level of the application loggers in production, {@code DEBUG} in development. */
+    @Param({ "INFO", "DEBUG" })
+    public String level;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private UserMapper advisedUserMapper;
+
+    private User user;
+
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void createProxy() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(userMapper);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new LoggingAspect(environment));
+        advisedUserMapper = proxyFactory.getProxy();
+
+        logger = (Logger) LoggerFactory.getLogger(UserMapper.class);
+        logger.setLevel(ch.qos.logback.classic.Level.toLevel(level));
+        logger.setAdditive(false);
+
+        user = new User();
+        user.setId(1L);
+        user.setLogin("user");
+        user.setEmail("user@localhost");
+        user.setActivated(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void resetLogger() {
+        logger.setLevel(null);
+        logger.setAdditive(true);
+    }
+
+    @Benchmark
+    public UserDTO baseline() {
+        return userMapper.userToUserDTO(user);
+    }
+
+    @Benchmark
+    public UserDTO advised() {
+        return advisedUserMapper.userToUserDTO(user);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ava.foodlogger.aop.tracing;
+
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.service.dto.UserDTO;
+import com.ava.foodlogger.service.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Benchmark of the overhead of {@link TracingInterceptor} on a cheap service call, compared with a pass-through
+ * interceptor, to be run with {@code -prof gc} to check that unsampled invocations allocate nothing more.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TracingInterceptorBenchmark {
+
+    @Param({ "0", "0.01" })
+    public double sampleRate;
+
+    private UserMapper passThroughUserMapper;
+
+    private UserMapper tracedUserMapper;
+
+    private User user;
+
+    @Setup(Level.Trial)
+    public void createProxies() {
+        passThroughUserMapper = proxy(invocation -> invocation.proceed());
+        tracedUserMapper = proxy(new TracingInterceptor(new SimpleMeterRegistry(), sampleRate, 20, 1000, 100));
+
+        user = new User();
+        user.setId(1L);
+        user.setLogin("user");
+        user.setEmail("user@localhost");
+        user.setActivated(true);
+    }
+
+    private static UserMapper proxy(MethodInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory(new UserMapper());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return (UserMapper) proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public UserDTO passThrough() {
+        return passThroughUserMapper.userToUserDTO(user);
+    }
+
+    @Benchmark
+    public UserDTO traced() {
+        return tracedUserMapper.userToUserDTO(user);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ava.foodlogger.config;
+
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.domain.enumeration.MealType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmark of the JSON serialization of {@link FoodDay} graphs, with the modules registered by
+ * {@link JacksonConfiguration} and the date settings Spring Boot applies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonConfigurationBenchmark {
+
+    /** A month of days, as returned by {@code GET /api/food-days}. */
+    private static final int DAYS = 31;
+
+    @Param({ "5", "20" })
+    public int entriesPerDay;
+
+    private ObjectWriter foodDayWriter;
+
+    private ObjectWriter foodDaysWriter;
+
+    private FoodDay foodDay;
+
+    private List<FoodDay> foodDays;
+
+    @Setup(Level.Trial)
+    public void createGraph() {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(
+                configuration.javaTimeModule(),
+                configuration.jdk8TimeModule(),
+                configuration.hibernate5Module(),
+                configuration.problemModule(),
+                configuration.constraintViolationProblemModule()
+            )
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        foodDayWriter = objectMapper.writerFor(FoodDay.class);
+        foodDaysWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, FoodDay.class));
+
+        Random random = new Random(42);
+        List<Food> foods = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            foods.add(
+                new Food()
+                    .id(id)
+                    .name("Food " + id)
+                    .calories(random.nextFloat() * 500)
+                    .carbohydrates(random.nextFloat() * 50)
+                    .proteins(random.nextFloat() * 40)
+                    .fat(random.nextFloat() * 30)
+                    .sodium(random.nextFloat() * 2)
+            );
+        }
+        MealType[] mealTypes = MealType.values();
+        foodDays = new ArrayList<>(DAYS);
+        long entryId = 1;
+        for (long dayId = 1; dayId <= DAYS; dayId++) {
+            FoodDay day = new FoodDay().id(dayId).createdDate(LocalDate.ofEpochDay(18_000 + dayId));
+            for (int i = 0; i < entriesPerDay; i++) {
+                day.addFoodEntry(
+                    new FoodEntry()
+                        .id(entryId++)
+                        .mealtype(mealTypes[random.nextInt(mealTypes.length)])
+                        .createdDate(day.getCreatedDate())
+                        .food(foods.get(random.nextInt(foods.size())))
+                );
+            }
+            foodDays.add(day);
+        }
+        foodDay = foodDays.get(0);
+    }
+
+    @Benchmark
+    public byte[] writeFoodDay() throws JsonProcessingException {
+        return foodDayWriter.writeValueAsBytes(foodDay);
+    }
+
+    @Benchmark
+    public byte[] writeMonthOfFoodDays() throws JsonProcessingException {
+        return foodDaysWriter.writeValueAsBytes(foodDays);
+    }
+}
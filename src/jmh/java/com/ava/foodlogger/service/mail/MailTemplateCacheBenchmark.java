@@ -0,0 +1,81 @@
+package com.ava.foodlogger.service.mail;
+
+import com.ava.foodlogger.domain.User;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of the rendering of one email, with the {@link SpringTemplateEngine} as {@code MailService} used to, and
+ * with the {@link MailTemplateCache}, to be run with {@code -prof gc} for the allocations per email.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MailTemplateCacheBenchmark {
+
+    @Param({ "mail/activationEmail", "mail/passwordResetEmail" })
+    public String templateName;
+
+    private final Locale locale = Locale.ENGLISH;
+
+    private SpringTemplateEngine templateEngine;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private MailTemplateCache mailTemplateCache;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private User user;
+
+    @Setup(Level.Trial)
+    public void createTemplateEngine() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("https://foodlogger.example.com");
+        mailTemplateCache = new MailTemplateCache(templateEngine, messageSource, jHipsterProperties, new ThymeleafProperties());
+
+        user = new User();
+        user.setLogin("jane.doe");
+        user.setEmail("jane.doe@example.com");
+        user.setLangKey("en");
+        user.setActivationKey("71092837465019283746");
+        user.setResetKey("50192837461029384756");
+    }
+
+    @Benchmark
+    public String templateEngine() {
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+        String content = templateEngine.process(templateName, context);
+        return messageSource.getMessage("email.activation.title", null, locale) + content;
+    }
+
+    @Benchmark
+    public String mailTemplateCache() {
+        String content = mailTemplateCache.getContent(templateName, user, locale);
+        return mailTemplateCache.getSubject("email.activation.title", locale) + content;
+    }
+}
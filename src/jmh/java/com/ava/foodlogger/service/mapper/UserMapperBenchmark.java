@@ -0,0 +1,56 @@
+package com.ava.foodlogger.service.mapper;
+
+import com.ava.foodlogger.domain.Authority;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.security.AuthoritiesConstants;
+import com.ava.foodlogger.service.dto.UserDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of {@link UserMapper#usersToUserDTOs(List)}, for pages of the user management screens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    @Param({ "20", "2000" })
+    public int users;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> userList;
+
+    @Setup(Level.Trial)
+    public void createUsers() {
+        Authority user = new Authority();
+        user.setName(AuthoritiesConstants.USER);
+        Authority admin = new Authority();
+        admin.setName(AuthoritiesConstants.ADMIN);
+        userList = new ArrayList<>(users);
+        for (long id = 1; id <= users; id++) {
+            User entity = new User();
+            entity.setId(id);
+            entity.setLogin("user" + id);
+            entity.setFirstName("First" + id);
+            entity.setLastName("Last" + id);
+            entity.setEmail("user" + id + "@localhost");
+            entity.setActivated(true);
+            entity.setLangKey("en");
+            entity.setAuthorities(id % 10 == 0 ? Set.of(user, admin) : Set.of(user));
+            userList.add(entity);
+        }
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(userList);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ava.foodlogger.service.search;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of {@link FoodSearchIndex} over a synthetic catalog.
+ * <p>
+ * Sample time mode reports the latency percentiles of single queries, the p99 of which must stay under a millisecond.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class FoodSearchIndexBenchmark {
+
+    private static final String[] PREPARATIONS = {
+        "grilled",
+        "fried",
+        "baked",
+        "roasted",
+        "steamed",
+        "raw",
+        "smoked",
+        "boiled",
+        "braised",
+        "sauteed",
+    };
+
+    private static final String[] INGREDIENTS = {
+        "chicken",
+        "beef",
+        "pork",
+        "salmon",
+        "tuna",
+        "tofu",
+        "rice",
+        "pasta",
+        "potato",
+        "broccoli",
+        "spinach",
+        "carrot",
+        "lentils",
+        "chickpeas",
+        "quinoa",
+        "oats",
+        "yogurt",
+        "cheese",
+        "egg",
+        "avocado",
+        "banana",
+        "apple",
+        "almonds",
+        "bread",
+        "mushroom",
+    };
+
+    private static final String[] CUTS = { "breast", "thigh", "fillet", "salad", "soup", "bowl", "wrap", "sandwich", "curry", "stew" };
+
+    private static final String[] BRANDS = { "Homemade", "Organic", "Classic", "Light", "Premium", "Farmhouse", "Garden", "Ocean" };
+
+    @Param({ "300000" })
+    public int foods;
+
+    @Param({ "ch", "chick bre", "grilled salmon fillet", "chikcen brest", "xyzzy" })
+    public String query;
+
+    private FoodSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        index = new FoodSearchIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= foods; id++) {
+            index.put(id, randomName(random));
+        }
+    }
+
+    private static String randomName(Random random) {
+        return (
+            BRANDS[random.nextInt(BRANDS.length)] +
+            " " +
+            PREPARATIONS[random.nextInt(PREPARATIONS.length)] +
+            " " +
+            INGREDIENTS[random.nextInt(INGREDIENTS.length)] +
+            " " +
+            CUTS[random.nextInt(CUTS.length)] +
+            " " +
+            random.nextInt(1000)
+        );
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ava.foodlogger.aop.tracing;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Management endpoint exposing the slowest recent invocations sampled by {@link TracingInterceptor}, at
+ * {@code /management/tracing}.
+ */
+@Endpoint(id = "tracing")
+public class TracingEndpoint {
+
+    private final TracingInterceptor tracingInterceptor;
+
+    public TracingEndpoint(TracingInterceptor tracingInterceptor) {
+        this.tracingInterceptor = tracingInterceptor;
+    }
+
+    @ReadOperation
+    public List<TracingInterceptor.TracedInvocation> slowestInvocations() {
+        return tracingInterceptor.getSlowestInvocations();
+    }
+}
@@ -0,0 +1,208 @@
+package com.ava.foodlogger.aop.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Times a sample of the invocations of the advised methods, as a low overhead alternative to
+ * {@link com.ava.foodlogger.aop.logging.LoggingAspect}.
+ * <p>
+ * The durations are recorded in a {@code method.invocations} timer per {@code Class#method}, with a histogram for
+ * percentiles, and the last sampled invocations are kept with their truncated arguments to report the slowest ones.
+ * The class is the one of the advised bean rather than the one declaring the method, so that the inherited
+ * {@code findById} of two repositories are told apart: the repository interface for the Spring Data proxies, the
+ * user class otherwise.
+ * Unsampled invocations only draw a random number, they allocate nothing.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+
+    private static final String METRIC_NAME = "method.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final int slowestSize;
+
+    private final int maxArgumentLength;
+
+    private final Map<Class<?>, String> classNames = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final AtomicReferenceArray<TracedInvocation> recent;
+
+    private final AtomicLong recentCount = new AtomicLong();
+
+    public TracingInterceptor(MeterRegistry meterRegistry, double sampleRate, int slowestSize, int recentSize, int maxArgumentLength) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.slowestSize = slowestSize;
+        this.maxArgumentLength = maxArgumentLength;
+        this.recent = new AtomicReferenceArray<>(recentSize);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            record(invocation, System.nanoTime() - start);
+        }
+    }
+
+    private void record(MethodInvocation invocation, long nanos) {
+        String className = classNameOf(invocation);
+        Method method = invocation.getMethod();
+        String joinPoint = className + "#" + method.getName();
+        timers.computeIfAbsent(joinPoint, key -> createTimer(className, method)).record(nanos, TimeUnit.NANOSECONDS);
+        TracedInvocation tracedInvocation = new TracedInvocation(
+            joinPoint,
+            Instant.now(),
+            nanos,
+            argumentsOf(invocation.getArguments())
+        );
+        recent.set((int) (recentCount.getAndIncrement() % recent.length()), tracedInvocation);
+    }
+
+    private String classNameOf(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        if (target == null) {
+            return invocation.getMethod().getDeclaringClass().getSimpleName();
+        }
+        return classNames.computeIfAbsent(target.getClass(), type -> tracedClassOf(target).getSimpleName());
+    }
+
+    /**
+     * @return the repository interface of a Spring Data proxy, the user class of any other bean.
+     */
+    private static Class<?> tracedClassOf(Object target) {
+        if (AopUtils.isJdkDynamicProxy(target)) {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+            if (interfaces.length > 0) {
+                return interfaces[0];
+            }
+        }
+        return ClassUtils.getUserClass(AopUtils.getTargetClass(target));
+    }
+
+    private Timer createTimer(String className, Method method) {
+        return Timer
+            .builder(METRIC_NAME)
+            .description("Sampled invocations of the repository, service and REST methods")
+            .tag("class", className)
+            .tag("method", method.getName())
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(meterRegistry);
+    }
+
+    private List<String> argumentsOf(Object[] arguments) {
+        List<String> result = new ArrayList<>(arguments.length);
+        for (Object argument : arguments) {
+            result.add(truncate(describe(argument)));
+        }
+        return result;
+    }
+
+    /**
+     * Describes an argument without walking collections, which can hold thousands of entities.
+     */
+    private static String describe(Object argument) {
+        if (argument instanceof Collection) {
+            return argument.getClass().getSimpleName() + "[" + ((Collection<?>) argument).size() + " elements]";
+        }
+        if (argument instanceof Map) {
+            return argument.getClass().getSimpleName() + "[" + ((Map<?, ?>) argument).size() + " entries]";
+        }
+        if (argument != null && argument.getClass().isArray()) {
+            return argument.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(argument) + "]";
+        }
+        return String.valueOf(argument);
+    }
+
+    private String truncate(String value) {
+        return value.length() > maxArgumentLength ? value.substring(0, maxArgumentLength) + "..." : value;
+    }
+
+    /**
+     * @return the slowest of the recent sampled invocations, slowest first.
+     */
+    public List<TracedInvocation> getSlowestInvocations() {
+        return IntStream
+            .range(0, recent.length())
+            .mapToObj(recent::get)
+            .filter(Objects::nonNull)
+            .sorted(Comparator.comparingLong(TracedInvocation::getDurationNanos).reversed())
+            .limit(slowestSize)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * A sampled invocation.
+     */
+    public static class TracedInvocation {
+
+        private final String joinPoint;
+
+        private final Instant timestamp;
+
+        private final long durationNanos;
+
+        private final List<String> arguments;
+
+        public TracedInvocation(String joinPoint, Instant timestamp, long durationNanos, List<String> arguments) {
+            this.joinPoint = joinPoint;
+            this.timestamp = timestamp;
+            this.durationNanos = durationNanos;
+            this.arguments = arguments;
+        }
+
+        public String getJoinPoint() {
+            return joinPoint;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public double getDurationMillis() {
+            return durationNanos / 1_000_000d;
+        }
+
+        public List<String> getArguments() {
+            return arguments;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Sampled timing of the application methods.
+ */
+package com.ava.foodlogger.aop.tracing;
@@ -1,6 +1,11 @@
 package com.ava.foodlogger.config;
 
+import java.time.Duration;
+import java.time.Period;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Food Logger.
@@ -9,4 +14,444 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Tracing tracing = new Tracing();
+
+    private final Cache cache = new Cache();
+
+    private final Mail mail = new Mail();
+
+    private final Maintenance maintenance = new Maintenance();
+
+    private final Replica replica = new Replica();
+
+    private final Archive archive = new Archive();
+
+    private final Dashboard dashboard = new Dashboard();
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Maintenance getMaintenance() {
+        return maintenance;
+    }
+
+    public Replica getReplica() {
+        return replica;
+    }
+
+    public Archive getArchive() {
+        return archive;
+    }
+
+    public Dashboard getDashboard() {
+        return dashboard;
+    }
+
+    /**
+     * Sampled timing of the repository, service and REST methods, see {@link TracingConfiguration}.
+     */
+    public static class Tracing {
+
+        private boolean enabled = false;
+
+        /** Fraction of the invocations which are timed, between 0 and 1. */
+        private double sampleRate = 0.01;
+
+        /** Number of slowest recent invocations exposed by the {@code tracing} management endpoint. */
+        private int slowestSize = 20;
+
+        /** Number of recent sampled invocations the slowest ones are picked from. */
+        private int recentSize = 1000;
+
+        /** Maximum length of each argument of the exposed invocations. */
+        private int maxArgumentLength = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getSlowestSize() {
+            return slowestSize;
+        }
+
+        public void setSlowestSize(int slowestSize) {
+            this.slowestSize = slowestSize;
+        }
+
+        public int getRecentSize() {
+            return recentSize;
+        }
+
+        public void setRecentSize(int recentSize) {
+            this.recentSize = recentSize;
+        }
+
+        public int getMaxArgumentLength() {
+            return maxArgumentLength;
+        }
+
+        public void setMaxArgumentLength(int maxArgumentLength) {
+            this.maxArgumentLength = maxArgumentLength;
+        }
+    }
+
+    /**
+     * Sizing and expiry of the cache regions, see {@link CacheConfiguration}.
+     */
+    public static class Cache {
+
+        /** Settings of the regions which differ from {@code jhipster.cache.ehcache}, by region name. */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        /**
+         * Settings of one cache region, the unset ones default to {@code jhipster.cache.ehcache}.
+         */
+        public static class Region {
+
+            /** Number of entries kept on heap, exclusive with {@code heap-size}. */
+            private Long maxEntries;
+
+            /** Size of the heap tier, exclusive with {@code max-entries}. */
+            private DataSize heapSize;
+
+            /** Time an entry stays in the region after it is written, exclusive with {@code time-to-idle}. */
+            private Duration timeToLive;
+
+            /** Time an entry stays in the region after it is last read or written, exclusive with {@code time-to-live}. */
+            private Duration timeToIdle;
+
+            /** Size of an off-heap tier below the heap tier, none if unset. */
+            private DataSize offHeapSize;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public DataSize getHeapSize() {
+                return heapSize;
+            }
+
+            public void setHeapSize(DataSize heapSize) {
+                this.heapSize = heapSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+        }
+    }
+
+    /**
+     * Queue and delivery of the emails, see {@link com.ava.foodlogger.service.mail.MailDispatcher}.
+     */
+    public static class Mail {
+
+        /** Number of emails waiting to be sent, beyond which senders wait for room. */
+        private int queueCapacity = 1000;
+
+        /** Time a sender waits for room in a full queue before its email is dropped. */
+        private Duration enqueueTimeout = Duration.ofSeconds(1);
+
+        /** Number of threads sending the emails, each with its own SMTP connection. */
+        private int workers = 1;
+
+        /** Maximum number of queued emails sent over one SMTP connection. */
+        private int batchSize = 50;
+
+        /** Number of times an email is sent before it is dropped, the first one included. */
+        private int maxAttempts = 4;
+
+        /** Backoff before the first retry, doubled before each following one. */
+        private Duration initialBackoff = Duration.ofSeconds(2);
+
+        /** Maximum backoff between two retries. */
+        private Duration maxBackoff = Duration.ofMinutes(1);
+
+        /** Time given on shutdown to send the queued emails. */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getEnqueueTimeout() {
+            return enqueueTimeout;
+        }
+
+        public void setEnqueueTimeout(Duration enqueueTimeout) {
+            this.enqueueTimeout = enqueueTimeout;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+
+    /**
+     * Chunking of the scheduled maintenance jobs, see {@link com.ava.foodlogger.service.maintenance.MaintenanceJobRunner}.
+     */
+    public static class Maintenance {
+
+        /** Maximum number of rows processed per transaction. */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Read replica of the database, see {@link ReplicaDataSourceConfiguration}. Enabled by {@code application.replica.url}.
+     */
+    public static class Replica {
+
+        /** JDBC URL of the replica. */
+        private String url;
+
+        /** Login of the replica, defaults to {@code spring.datasource.username}. */
+        private String username;
+
+        /** Password of the replica, defaults to {@code spring.datasource.password}. */
+        private String password;
+
+        /** Maximum number of connections to the replica. */
+        private int maximumPoolSize = 10;
+
+        /** Maximum time to wait for a connection to the replica before reading from the primary instead. */
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+
+        /** Time after a write of a user during which the reads of that user go to the primary. */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        /** Maximum replication lag of the replica, the reads go to the primary while it lags more. */
+        private Duration maxLag = Duration.ofSeconds(10);
+
+        /** Interval between the checks of the replication lag. */
+        private Duration checkInterval = Duration.ofSeconds(5);
+
+        /** Query of the replication lag on the replica, in seconds. */
+        private String lagQuery =
+            "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0" +
+            " else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+
+        public Duration getCheckInterval() {
+            return checkInterval;
+        }
+
+        public void setCheckInterval(Duration checkInterval) {
+            this.checkInterval = checkInterval;
+        }
+
+        public String getLagQuery() {
+            return lagQuery;
+        }
+
+        public void setLagQuery(String lagQuery) {
+            this.lagQuery = lagQuery;
+        }
+    }
+
+    /**
+     * Archival of the old food days, see {@link com.ava.foodlogger.service.FoodDayArchiveService}.
+     */
+    public static class Archive {
+
+        /** Age of the food days which are moved to the archive, such as {@code 90d}. */
+        private Period horizon = Period.ofDays(90);
+
+        public Period getHorizon() {
+            return horizon;
+        }
+
+        public void setHorizon(Period horizon) {
+            this.horizon = horizon;
+        }
+    }
+
+    /**
+     * Executor of the sub-queries of the dashboard, see {@link com.ava.foodlogger.service.DashboardService}.
+     */
+    public static class Dashboard {
+
+        /** Number of threads running the sub-queries, which bounds the connections they hold at once. */
+        private int poolSize = 8;
+
+        /** Number of sub-queries waiting for a thread, beyond which they run on the thread of their request. */
+        private int queueCapacity = 100;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.ava.foodlogger.config;
 
+import com.ava.foodlogger.config.metrics.EhcacheCacheMeterBinderProvider;
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,18 +27,12 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.regions = applicationProperties.getCache().getRegions();
     }
 
     @Bean
@@ -40,11 +40,17 @@ public class CacheConfiguration {
         return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
+    @Bean
+    public EhcacheCacheMeterBinderProvider ehcacheCacheMeterBinderProvider() {
+        return new EhcacheCacheMeterBinderProvider();
+    }
+
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
             createCache(cm, com.ava.foodlogger.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.ava.foodlogger.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, com.ava.foodlogger.service.EnergyTargetService.ENERGY_TARGETS_BY_USER_ID_CACHE);
             createCache(cm, com.ava.foodlogger.domain.User.class.getName());
             createCache(cm, com.ava.foodlogger.domain.Authority.class.getName());
             createCache(cm, com.ava.foodlogger.domain.User.class.getName() + ".authorities");
@@ -57,6 +63,11 @@ public class CacheConfiguration {
             createCache(cm, com.ava.foodlogger.domain.FoodDay.class.getName() + ".foodEntries");
             createCache(cm, com.ava.foodlogger.domain.AppUser.class.getName());
             // jhipster-needle-ehcache-add-entry
+            Set<String> unknownRegions = new HashSet<>(regions.keySet());
+            cm.getCacheNames().forEach(unknownRegions::remove);
+            if (!unknownRegions.isEmpty()) {
+                throw new IllegalStateException("application.cache.regions configures unknown cache regions " + unknownRegions);
+            }
         };
     }
 
@@ -65,8 +76,36 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName));
+        }
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = regions.getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        if (region.getMaxEntries() != null && region.getHeapSize() != null) {
+            throw new IllegalStateException("Cache region " + cacheName + " sets both max-entries and heap-size");
+        }
+        if (region.getTimeToLive() != null && region.getTimeToIdle() != null) {
+            throw new IllegalStateException("Cache region " + cacheName + " sets both time-to-live and time-to-idle");
+        }
+
+        ResourcePoolsBuilder resourcePools = region.getHeapSize() != null
+            ? ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeapSize().toBytes(), MemoryUnit.B)
+            : ResourcePoolsBuilder.heap(region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries());
+        if (region.getOffHeapSize() != null) {
+            // Entries moved off heap are serialized, which the Hibernate cache entries support
+            resourcePools = resourcePools.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
         }
+
+        ExpiryPolicy<Object, Object> expiry = region.getTimeToIdle() != null
+            ? ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle())
+            : ExpiryPolicyBuilder.timeToLiveExpiration(
+                region.getTimeToLive() != null ? region.getTimeToLive() : Duration.ofSeconds(ehcache.getTimeToLiveSeconds())
+            );
+
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools).withExpiry(expiry).build()
+        );
     }
 
     @Autowired(required = false)
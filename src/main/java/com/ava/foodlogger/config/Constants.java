@@ -11,5 +11,8 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // Profile running the application as a command line food importer, see FoodImportRunner
+    public static final String SPRING_PROFILE_IMPORT = "import";
+
     private Constants() {}
 }
@@ -0,0 +1,79 @@
+package com.ava.foodlogger.config;
+
+import com.ava.foodlogger.service.FoodImportService;
+import com.ava.foodlogger.service.InvalidFoodImportException;
+import com.ava.foodlogger.service.dto.FoodImportReportDTO;
+import com.ava.foodlogger.service.importer.FoodImportFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the application as a command line food importer, with the {@link Constants#SPRING_PROFILE_IMPORT} profile:
+ * <pre>
+ * java -jar foodlogger.jar --spring.profiles.active=prod,import [--format=csv|json] file...
+ * </pre>
+ * Each file is imported in turn, with its format guessed from its extension unless {@code --format} is given, then
+ * the application exits: with status {@code 1} if a file could not be imported, {@code 0} otherwise.
+ */
+@Component
+@Profile(Constants.SPRING_PROFILE_IMPORT)
+public class FoodImportRunner implements ApplicationRunner {
+
+    private final Logger log = LoggerFactory.getLogger(FoodImportRunner.class);
+
+    private final FoodImportService foodImportService;
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    public FoodImportRunner(FoodImportService foodImportService, ConfigurableApplicationContext applicationContext) {
+        this.foodImportService = foodImportService;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> formats = args.getOptionValues("format");
+        Optional<FoodImportFormat> format = formats == null || formats.isEmpty()
+            ? Optional.empty()
+            : Optional.of(FoodImportFormat.valueOf(formats.get(0).toUpperCase(Locale.ROOT)));
+        int exitCode = args.getNonOptionArgs().isEmpty() ? 1 : 0;
+        if (exitCode != 0) {
+            log.error("No file to import, usage: --spring.profiles.active=prod,import [--format=csv|json] file...");
+        }
+        for (String file : args.getNonOptionArgs()) {
+            if (!importFile(file, format.or(() -> FoodImportFormat.fromFileName(file)))) {
+                exitCode = 1;
+            }
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> status));
+    }
+
+    private boolean importFile(String file, Optional<FoodImportFormat> format) {
+        if (format.isEmpty()) {
+            log.error("Cannot guess the format of {}, use --format=csv or --format=json", file);
+            return false;
+        }
+        try (InputStream input = Files.newInputStream(Paths.get(file))) {
+            FoodImportReportDTO report = foodImportService.importFoods(input, format.get());
+            log.info("Imported {}: {}", file, report);
+            return true;
+        } catch (IOException | InvalidFoodImportException e) {
+            log.error("Could not import {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+}
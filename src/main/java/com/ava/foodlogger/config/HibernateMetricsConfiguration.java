@@ -0,0 +1,48 @@
+package com.ava.foodlogger.config;
+
+import com.ava.foodlogger.config.metrics.HibernateActivityIntegrator;
+import com.ava.foodlogger.config.metrics.HibernateActivityInterceptor;
+import com.ava.foodlogger.config.metrics.HibernateActivityListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration of the per-endpoint Hibernate metrics: the JDBC statements, loaded entities, second-level cache hits
+ * and misses, and flushes caused by each API request.
+ * <p>
+ * The counting is done by session listeners into thread-bound counters, it does not need
+ * {@code hibernate.generate_statistics} and is cheap enough to stay on in production.
+ */
+@Configuration
+public class HibernateMetricsConfiguration implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public HibernateMetricsConfiguration(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public static HibernatePropertiesCustomizer hibernateActivityPropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, HibernateActivityListener.class.getName());
+            hibernateProperties.put(
+                EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new HibernateActivityIntegrator())
+            );
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HibernateActivityInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,92 @@
+package com.ava.foodlogger.config;
+
+import com.ava.foodlogger.config.datasource.ReplicaHealthIndicator;
+import com.ava.foodlogger.config.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Routes the read-only transactions to a read replica of the database, see {@link ReplicaRoutingDataSource}. Enabled by
+ * {@code application.replica.url}.
+ * <p>
+ * The primary pool is configured by {@code spring.datasource} as without a replica, and the replica pool by
+ * {@code application.replica}. The pools are not beans of their own: Spring Boot expects a single {@code DataSource}
+ * when initializing them, so the routing data source creates them, and closes them.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.replica", name = "url")
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties applicationProperties,
+        Environment environment,
+        MeterRegistry meterRegistry
+    ) {
+        return new ReplicaRoutingDataSource(
+            primaryDataSource(dataSourceProperties, environment, meterRegistry),
+            replicaDataSource(dataSourceProperties, applicationProperties.getReplica(), meterRegistry),
+            applicationProperties.getReplica().getReadYourWritesWindow(),
+            meterRegistry
+        );
+    }
+
+    private static HikariDataSource primaryDataSource(
+        DataSourceProperties dataSourceProperties,
+        Environment environment,
+        MeterRegistry meterRegistry
+    ) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    private static HikariDataSource replicaDataSource(
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties.Replica replica,
+        MeterRegistry meterRegistry
+    ) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("Replica");
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        // Like spring.datasource.hikari.auto-commit, as Hibernate is configured with provider_disables_autocommit
+        dataSource.setAutoCommit(false);
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthIndicator replicaHealthIndicator(
+        ReplicaRoutingDataSource dataSource,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        TaskScheduler taskScheduler
+    ) {
+        ApplicationProperties.Replica replica = applicationProperties.getReplica();
+        ReplicaHealthIndicator healthIndicator = new ReplicaHealthIndicator(
+            dataSource,
+            replica.getLagQuery(),
+            replica.getMaxLag(),
+            meterRegistry
+        );
+        taskScheduler.scheduleWithFixedDelay(healthIndicator::check, replica.getCheckInterval());
+        return healthIndicator;
+    }
+}
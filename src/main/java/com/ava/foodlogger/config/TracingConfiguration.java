@@ -0,0 +1,55 @@
+package com.ava.foodlogger.config;
+
+import com.ava.foodlogger.aop.tracing.TracingEndpoint;
+import com.ava.foodlogger.aop.tracing.TracingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sampled timing of the repository, service and REST methods, matched like by the
+ * {@link com.ava.foodlogger.aop.logging.LoggingAspect}. Enabled by {@code application.tracing.enabled}.
+ * <p>
+ * The interceptor is a plain advisor rather than an {@code @Aspect}, so that unsampled invocations do not need a
+ * {@link org.aspectj.lang.JoinPoint} either.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.tracing", name = "enabled", havingValue = "true")
+public class TracingConfiguration {
+
+    private static final String POINTCUT =
+        "(within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *))" +
+        " && (within(com.ava.foodlogger.repository..*)" +
+        " || within(com.ava.foodlogger.service..*)" +
+        " || within(com.ava.foodlogger.web.rest..*))";
+
+    @Bean
+    public TracingInterceptor tracingInterceptor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Tracing tracing = applicationProperties.getTracing();
+        return new TracingInterceptor(
+            meterRegistry,
+            tracing.getSampleRate(),
+            tracing.getSlowestSize(),
+            tracing.getRecentSize(),
+            tracing.getMaxArgumentLength()
+        );
+    }
+
+    @Bean
+    public Advisor tracingAdvisor(TracingInterceptor tracingInterceptor) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(POINTCUT);
+        return new DefaultPointcutAdvisor(pointcut, tracingInterceptor);
+    }
+
+    @Bean
+    public TracingEndpoint tracingEndpoint(TracingInterceptor tracingInterceptor) {
+        return new TracingEndpoint(tracingInterceptor);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ava.foodlogger.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks the replication lag of the replica, and routes the reads of the {@link ReplicaRoutingDataSource} to the
+ * primary while the replica lags more than {@code maxLag} or cannot be queried.
+ * <p>
+ * The health of the last {@link #check()} is reported as {@code UP} while the replica is used, and as {@code UNKNOWN}
+ * otherwise, with the reason in its details: the primary still serves the reads, so a lagging replica does not make the
+ * application unhealthy. The lag is exposed in the {@code datasource.replica.lag} gauge, in seconds.
+ */
+public class ReplicaHealthIndicator implements HealthIndicator {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaHealthIndicator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String lagQuery;
+
+    private final Duration maxLag;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    private volatile double lag = Double.NaN;
+
+    private volatile Health health = Health.unknown().withDetail("routing", "unchecked").build();
+
+    public ReplicaHealthIndicator(
+        ReplicaRoutingDataSource routingDataSource,
+        String lagQuery,
+        Duration maxLag,
+        MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(routingDataSource.getReplica());
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, maxLag.getSeconds()));
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.routingDataSource = routingDataSource;
+        Gauge
+            .builder("datasource.replica.lag", this, indicator -> indicator.lag)
+            .description("Replication lag of the replica")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Measures the replication lag, and updates the routing of the reads.
+     */
+    public void check() {
+        boolean wasUsable = routingDataSource.isReplicaUsable();
+        try {
+            Double measured = jdbcTemplate.queryForObject(lagQuery, Double.class);
+            lag = measured != null ? measured : Double.NaN;
+            boolean usable = lag <= maxLag.toMillis() / 1000.0;
+            routingDataSource.setReplicaUsable(usable);
+            Health.Builder builder = usable ? Health.up() : Health.unknown();
+            health =
+                builder
+                    .withDetail("routing", usable ? "replica" : "primary")
+                    .withDetail("lag", lag)
+                    .withDetail("maxLag", maxLag.toMillis() / 1000.0)
+                    .build();
+            if (usable && !wasUsable) {
+                log.info("Replica lags {}s, reading from the replica again", lag);
+            } else if (!usable && wasUsable) {
+                log.warn("Replica lags {}s, more than {}s, reading from the primary", lag, maxLag.toMillis() / 1000.0);
+            }
+        } catch (DataAccessException e) {
+            lag = Double.NaN;
+            routingDataSource.setReplicaUsable(false);
+            health = Health.unknown().withDetail("routing", "primary").withException(e).build();
+            if (wasUsable) {
+                log.warn("Could not check the replica, reading from the primary: {}", e.toString());
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+}
@@ -0,0 +1,225 @@
+package com.ava.foodlogger.config.datasource;
+
+import com.ava.foodlogger.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes the connections of the read-only transactions, such as the {@code @Transactional(readOnly = true)} methods,
+ * to a replica of the database, and all the other connections to the primary.
+ * <p>
+ * A transaction is only flagged as read-only once it began, after its connection was requested: like its
+ * {@link LazyConnectionDataSourceProxy} parent, this data source only picks and gets the connection on the first
+ * statement.
+ * <p>
+ * The reads of a user go to the primary for {@code readYourWritesWindow} after each read-write transaction of that user
+ * is committed, so that they see their own writes despite the replication lag. The writes of anonymous requests, such
+ * as the registration or the activation of an account, are recorded for their user with
+ * {@link #recordWriteOf(String)}. The reads go to the primary as well
+ * while the replica is not usable, as decided by the {@link ReplicaHealthIndicator}, and when the replica does not
+ * give a connection, until it is checked again. The connections are counted in the {@code datasource.routing} counter,
+ * per target and reason.
+ * <p>
+ * Closing this data source closes the primary and the replica.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    /** Number of users with a recorded write above which the expired writes are removed. */
+    private static final int MAX_RECORDED_WRITES = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final long readYourWritesWindow;
+
+    /** Time of the last committed write of each user, from {@link System#nanoTime()}. */
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private volatile boolean replicaUsable = true;
+
+    private final Counter writes;
+
+    private final Counter reads;
+
+    private final Counter readYourWrites;
+
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesWindow = readYourWritesWindow.toNanos();
+        this.writes = routingCounter(meterRegistry, "primary", "write");
+        this.reads = routingCounter(meterRegistry, "replica", "read");
+        this.readYourWrites = routingCounter(meterRegistry, "primary", "read-your-writes");
+        this.fallbacks = routingCounter(meterRegistry, "primary", "fallback");
+        setTargetDataSource(new RoutingTarget());
+        afterPropertiesSet();
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter
+            .builder("datasource.routing")
+            .description("Connections routed to the primary or the replica")
+            .tag("target", target)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public void setReplicaUsable(boolean replicaUsable) {
+        this.replicaUsable = replicaUsable;
+    }
+
+    /**
+     * Closes the primary and replica pools.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : new DataSource[] { primary, replica }) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+    }
+
+    private Connection route(ConnectionFactory connectionFactory) throws SQLException {
+        Optional<String> login = SecurityUtils.isAuthenticated() ? SecurityUtils.getCurrentUserLogin() : Optional.empty();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            login.ifPresent(this::recordWriteOnCommit);
+            writes.increment();
+            return connectionFactory.getConnection(primary);
+        }
+        if (!replicaUsable) {
+            fallbacks.increment();
+            return connectionFactory.getConnection(primary);
+        }
+        if (login.filter(this::wroteRecently).isPresent()) {
+            readYourWrites.increment();
+            return connectionFactory.getConnection(primary);
+        }
+        try {
+            Connection connection = connectionFactory.getConnection(replica);
+            reads.increment();
+            return connection;
+        } catch (SQLException e) {
+            log.warn("Could not get a connection to the replica, reading from the primary until it is checked again: {}", e.toString());
+            replicaUsable = false;
+            fallbacks.increment();
+            return connectionFactory.getConnection(primary);
+        }
+    }
+
+    private boolean wroteRecently(String login) {
+        Long lastWrite = lastWrites.get(login);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < readYourWritesWindow) {
+            return true;
+        }
+        lastWrites.remove(login, lastWrite);
+        return false;
+    }
+
+    /**
+     * Records a write concerning a user once the current transaction is committed, so that the following reads of that
+     * user go to the primary, whoever made the write.
+     *
+     * @param login the login of the user.
+     */
+    public void recordWriteOf(String login) {
+        recordWriteOnCommit(login);
+    }
+
+    /**
+     * Records the write of the user once the current transaction is committed, if it was not already.
+     */
+    private void recordWriteOnCommit(String login) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || isRecordingWriteOf(login)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new WriteSynchronization(login));
+    }
+
+    private static boolean isRecordingWriteOf(String login) {
+        return TransactionSynchronizationManager
+            .getSynchronizations()
+            .stream()
+            .anyMatch(
+                synchronization -> synchronization instanceof WriteSynchronization && ((WriteSynchronization) synchronization).isOf(login)
+            );
+    }
+
+    private void recordWrite(String login) {
+        long now = System.nanoTime();
+        lastWrites.put(login, now);
+        if (lastWrites.size() > MAX_RECORDED_WRITES) {
+            lastWrites.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesWindow);
+        }
+    }
+
+    /**
+     * Gets the connections of the proxy from the primary or the replica.
+     */
+    private final class RoutingTarget extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route(DataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route(dataSource -> dataSource.getConnection(username, password));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection getConnection(DataSource dataSource) throws SQLException;
+    }
+
+    private final class WriteSynchronization implements TransactionSynchronization {
+
+        private final String login;
+
+        private WriteSynchronization(String login) {
+            this.login = login;
+        }
+
+        private boolean isOf(String login) {
+            return this.login.equals(login);
+        }
+
+        @Override
+        public void afterCommit() {
+            recordWrite(login);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Routing of the read-only transactions to a replica of the database.
+ */
+package com.ava.foodlogger.config.datasource;
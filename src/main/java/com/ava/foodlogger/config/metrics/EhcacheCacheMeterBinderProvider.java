@@ -0,0 +1,44 @@
+package com.ava.foodlogger.config.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.Field;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.core.Ordered;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Binds {@link EhcacheMetrics} to the caches of an Ehcache backed JCache manager.
+ * <p>
+ * It takes precedence over Spring Boot's JCache provider, whose statistics are only collected once enabled per cache
+ * and lack the size of the caches. Caches of another JCache implementation are left to that provider.
+ */
+public class EhcacheCacheMeterBinderProvider implements CacheMeterBinderProvider<JCacheCache>, Ordered {
+
+    private static final String EH107_CACHE_MANAGER = "org.ehcache.jsr107.Eh107CacheManager";
+
+    @Override
+    public MeterBinder getMeterBinder(JCacheCache cache, Iterable<Tag> tags) {
+        javax.cache.CacheManager cacheManager = cache.getNativeCache().getCacheManager();
+        if (!EH107_CACHE_MANAGER.equals(cacheManager.getClass().getName())) {
+            return null;
+        }
+        // The statistics service of the manager is not exposed through the JCache API
+        Field field = ReflectionUtils.findField(cacheManager.getClass(), "statisticsService", StatisticsService.class);
+        if (field == null) {
+            return null;
+        }
+        ReflectionUtils.makeAccessible(field);
+        StatisticsService statisticsService = (StatisticsService) ReflectionUtils.getField(field, cacheManager);
+        CacheStatistics statistics = statisticsService.getCacheStatistics(cache.getName());
+        return new EhcacheMetrics(statistics, cache.getName(), tags);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
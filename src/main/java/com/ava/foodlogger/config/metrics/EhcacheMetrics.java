@@ -0,0 +1,85 @@
+package com.ava.foodlogger.config.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+
+/**
+ * Cache metrics read from the statistics Ehcache always collects, whatever the JCache statistics setting.
+ * <p>
+ * Besides the common {@code cache.*} meters, the expirations of the cache and the entries and bytes of each of its
+ * tiers (on heap, off heap) are exported.
+ */
+public class EhcacheMetrics extends CacheMeterBinder {
+
+    private final CacheStatistics statistics;
+
+    public EhcacheMetrics(CacheStatistics statistics, String cacheName, Iterable<Tag> tags) {
+        super(statistics, cacheName, tags);
+        this.statistics = statistics;
+    }
+
+    @Override
+    protected Long size() {
+        // The lowest tier holds every entry, the tiers above only hold copies of the most used ones
+        return statistics.getTierStatistics().values().stream().mapToLong(TierStatistics::getMappings).max().orElse(0L);
+    }
+
+    @Override
+    protected long hitCount() {
+        return statistics.getCacheHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return statistics.getCacheMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return statistics.getCacheEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return statistics.getCachePuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter
+            .builder("cache.expirations", statistics, CacheStatistics::getCacheExpirations)
+            .tags(getTagsWithCacheName())
+            .description("The number of entries which expired from the cache")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.removals", statistics, CacheStatistics::getCacheRemovals)
+            .tags(getTagsWithCacheName())
+            .description("The number of entries removed from the cache")
+            .register(registry);
+
+        statistics
+            .getTierStatistics()
+            .forEach(
+                (tier, tierStatistics) -> {
+                    Tags tags = Tags.of(getTagsWithCacheName()).and("tier", tier);
+                    Gauge
+                        .builder("cache.tier.size", tierStatistics, TierStatistics::getMappings)
+                        .tags(tags)
+                        .description("The number of entries in the tier")
+                        .register(registry);
+                    Gauge
+                        .builder("cache.tier.occupied", tierStatistics, TierStatistics::getOccupiedByteSize)
+                        .tags(tags)
+                        .baseUnit("bytes")
+                        .description("The memory occupied by the entries of the tier, unknown (-1) when it is sized in entries")
+                        .register(registry);
+                }
+            );
+    }
+}
@@ -0,0 +1,129 @@
+package com.ava.foodlogger.config.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the Hibernate activity caused by the current HTTP request.
+ * <p>
+ * An instance is bound to the request thread by {@link HibernateActivityInterceptor}, and incremented by
+ * {@link HibernateActivityListener} from the sessions opened on that thread. Outside of a request, there is no current
+ * instance and nothing is counted. The tasks a request hands over to an executor count into its instance when wrapped
+ * by {@link #propagate(Runnable)}, so the counters are thread-safe.
+ */
+public final class HibernateActivity {
+
+    private static final ThreadLocal<HibernateActivity> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+
+    private final LongAdder entitiesLoaded = new LongAdder();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private final LongAdder flushes = new LongAdder();
+
+    private HibernateActivity() {}
+
+    /**
+     * Starts counting the activity of the current thread.
+     */
+    public static void start() {
+        CURRENT.set(new HibernateActivity());
+    }
+
+    /**
+     * Resumes counting into an activity stopped on another thread, as for the asynchronous dispatch of a request.
+     *
+     * @param activity the activity returned by {@link #stop()}.
+     */
+    public static void resume(HibernateActivity activity) {
+        CURRENT.set(activity);
+    }
+
+    /**
+     * Stops counting the activity of the current thread.
+     *
+     * @return the activity since {@link #start()}, or {@code null} if it was not started.
+     */
+    public static HibernateActivity stop() {
+        HibernateActivity activity = CURRENT.get();
+        CURRENT.remove();
+        return activity;
+    }
+
+    /**
+     * Wraps a task to count its activity into the activity of the current thread, if any, on the thread running it, as
+     * {@code DelegatingSecurityContextRunnable} does for the security context.
+     *
+     * @param task the task handed over to an executor.
+     * @return the wrapped task.
+     */
+    public static Runnable propagate(Runnable task) {
+        HibernateActivity activity = CURRENT.get();
+        if (activity == null) {
+            return task;
+        }
+        return () -> {
+            HibernateActivity previous = CURRENT.get();
+            CURRENT.set(activity);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    static HibernateActivity current() {
+        return CURRENT.get();
+    }
+
+    void statement() {
+        statements.increment();
+    }
+
+    void entityLoaded() {
+        entitiesLoaded.increment();
+    }
+
+    void cacheGet(boolean hit) {
+        if (hit) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+        }
+    }
+
+    void flush() {
+        flushes.increment();
+    }
+
+    /**
+     * @return the number of JDBC statements prepared, a batch counting as one statement.
+     */
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ava.foodlogger.config.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Records the {@link HibernateActivity} of each request as distributions named after the {@code http.server.requests}
+ * timer, with the same {@code method}, {@code uri} and {@code status} tags.
+ * <p>
+ * When a handler starts an asynchronous processing, the activity is detached from the pooled request thread and kept
+ * in a request attribute until the asynchronous dispatch, which resumes it and records the activity of the request.
+ */
+public class HibernateActivityInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String METRIC_PREFIX = "http.server.requests.";
+
+    private static final String ACTIVITY_ATTRIBUTE = HibernateActivityInterceptor.class.getName() + ".activity";
+
+    private final MeterRegistry meterRegistry;
+
+    public HibernateActivityInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HibernateActivity activity = (HibernateActivity) request.getAttribute(ACTIVITY_ATTRIBUTE);
+        if (activity != null) {
+            request.removeAttribute(ACTIVITY_ATTRIBUTE);
+            HibernateActivity.resume(activity);
+        } else {
+            HibernateActivity.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HibernateActivity activity = HibernateActivity.stop();
+        if (activity != null) {
+            request.setAttribute(ACTIVITY_ATTRIBUTE, activity);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        HibernateActivity activity = HibernateActivity.stop();
+        if (activity == null) {
+            return;
+        }
+        Tags tags = Tags.of(WebMvcTags.method(request), WebMvcTags.uri(request, response), WebMvcTags.status(response));
+        record("jdbc.statements", "statements", tags, activity.getStatements());
+        record("hibernate.entities.loaded", "entities", tags, activity.getEntitiesLoaded());
+        record("hibernate.cache.hits", "hits", tags, activity.getCacheHits());
+        record("hibernate.cache.misses", "misses", tags, activity.getCacheMisses());
+        record("hibernate.flushes", "flushes", tags, activity.getFlushes());
+    }
+
+    private void record(String name, String baseUnit, Tags tags, long amount) {
+        DistributionSummary.builder(METRIC_PREFIX + name).baseUnit(baseUnit).tags(tags).register(meterRegistry).record(amount);
+    }
+}
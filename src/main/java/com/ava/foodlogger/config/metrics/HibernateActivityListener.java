@@ -0,0 +1,49 @@
+package com.ava.foodlogger.config.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts the Hibernate activity into the {@link HibernateActivity} of the current thread, if any.
+ * <p>
+ * Hibernate creates one instance per session, as configured by {@code hibernate.session.events.auto}, to receive the
+ * JDBC, cache and flush events. A single instance is also registered as post-load listener by
+ * {@link HibernateActivityIntegrator} to count the loaded entities.
+ */
+public class HibernateActivityListener extends BaseSessionEventListener implements PostLoadEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        HibernateActivity activity = HibernateActivity.current();
+        if (activity != null) {
+            activity.statement();
+        }
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        HibernateActivity activity = HibernateActivity.current();
+        if (activity != null) {
+            activity.cacheGet(hit);
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        HibernateActivity activity = HibernateActivity.current();
+        if (activity != null) {
+            activity.flush();
+        }
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        HibernateActivity activity = HibernateActivity.current();
+        if (activity != null) {
+            activity.entityLoaded();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Application specific Micrometer metrics.
+ */
+package com.ava.foodlogger.config.metrics;
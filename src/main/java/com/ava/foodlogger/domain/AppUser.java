@@ -24,6 +24,10 @@ public class AppUser implements Serializable {
     @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Lob
     @Type(type = "org.hibernate.type.TextType")
     @Column(name = "bio")
@@ -67,6 +71,19 @@ public class AppUser implements Serializable {
         return this;
     }
 
+    public Integer getVersion() {
+        return this.version;
+    }
+
+    public AppUser version(Integer version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public String getBio() {
         return this.bio;
     }
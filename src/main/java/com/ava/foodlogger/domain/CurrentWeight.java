@@ -22,6 +22,10 @@ public class CurrentWeight implements Serializable {
     @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @NotNull
     @Column(name = "weight", nullable = false)
     private Float weight;
@@ -46,6 +50,19 @@ public class CurrentWeight implements Serializable {
         return this;
     }
 
+    public Integer getVersion() {
+        return this.version;
+    }
+
+    public CurrentWeight version(Integer version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public Float getWeight() {
         return this.weight;
     }
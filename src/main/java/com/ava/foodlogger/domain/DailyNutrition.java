@@ -0,0 +1,246 @@
+package com.ava.foodlogger.domain;
+
+import com.ava.foodlogger.domain.enumeration.MealType;
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A DailyNutrition, the precomputed nutrition totals of one user for one day and one meal type.
+ * <p>
+ * This is a read model maintained by {@link com.ava.foodlogger.service.DailyNutritionService}, it is not cached
+ * because it is updated with bulk statements.
+ */
+@Entity
+@Table(name = "daily_nutrition")
+public class DailyNutrition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The meal key of the rows holding the entries without meal type. */
+    public static final String NO_MEALTYPE = "None";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(name = "nutrition_date", nullable = false)
+    private LocalDate nutritionDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mealtype")
+    private MealType mealtype;
+
+    /**
+     * The meal type, or {@link #NO_MEALTYPE}: the non null column of the unique key, in which a {@code null} meal type
+     * would not be equal to another.
+     */
+    @Column(name = "meal_key", nullable = false)
+    private String mealKey = NO_MEALTYPE;
+
+    @NotNull
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    @NotNull
+    @Column(name = "calories", nullable = false)
+    private Double calories;
+
+    @NotNull
+    @Column(name = "carbohydrates", nullable = false)
+    private Double carbohydrates;
+
+    @NotNull
+    @Column(name = "proteins", nullable = false)
+    private Double proteins;
+
+    @NotNull
+    @Column(name = "fat", nullable = false)
+    private Double fat;
+
+    @NotNull
+    @Column(name = "sodium", nullable = false)
+    private Double sodium;
+
+    @ManyToOne(optional = false)
+    @NotNull
+    private User user;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public DailyNutrition id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public LocalDate getNutritionDate() {
+        return this.nutritionDate;
+    }
+
+    public DailyNutrition nutritionDate(LocalDate nutritionDate) {
+        this.nutritionDate = nutritionDate;
+        return this;
+    }
+
+    public void setNutritionDate(LocalDate nutritionDate) {
+        this.nutritionDate = nutritionDate;
+    }
+
+    public MealType getMealtype() {
+        return this.mealtype;
+    }
+
+    public DailyNutrition mealtype(MealType mealtype) {
+        setMealtype(mealtype);
+        return this;
+    }
+
+    public void setMealtype(MealType mealtype) {
+        this.mealtype = mealtype;
+        this.mealKey = mealKeyOf(mealtype);
+    }
+
+    public String getMealKey() {
+        return this.mealKey;
+    }
+
+    /**
+     * @return the meal key of the rows of a meal type, which may be {@code null}.
+     */
+    public static String mealKeyOf(MealType mealtype) {
+        return mealtype == null ? NO_MEALTYPE : mealtype.name();
+    }
+
+    public Long getEntryCount() {
+        return this.entryCount;
+    }
+
+    public DailyNutrition entryCount(Long entryCount) {
+        this.entryCount = entryCount;
+        return this;
+    }
+
+    public void setEntryCount(Long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public Double getCalories() {
+        return this.calories;
+    }
+
+    public DailyNutrition calories(Double calories) {
+        this.calories = calories;
+        return this;
+    }
+
+    public void setCalories(Double calories) {
+        this.calories = calories;
+    }
+
+    public Double getCarbohydrates() {
+        return this.carbohydrates;
+    }
+
+    public DailyNutrition carbohydrates(Double carbohydrates) {
+        this.carbohydrates = carbohydrates;
+        return this;
+    }
+
+    public void setCarbohydrates(Double carbohydrates) {
+        this.carbohydrates = carbohydrates;
+    }
+
+    public Double getProteins() {
+        return this.proteins;
+    }
+
+    public DailyNutrition proteins(Double proteins) {
+        this.proteins = proteins;
+        return this;
+    }
+
+    public void setProteins(Double proteins) {
+        this.proteins = proteins;
+    }
+
+    public Double getFat() {
+        return this.fat;
+    }
+
+    public DailyNutrition fat(Double fat) {
+        this.fat = fat;
+        return this;
+    }
+
+    public void setFat(Double fat) {
+        this.fat = fat;
+    }
+
+    public Double getSodium() {
+        return this.sodium;
+    }
+
+    public DailyNutrition sodium(Double sodium) {
+        this.sodium = sodium;
+        return this;
+    }
+
+    public void setSodium(Double sodium) {
+        this.sodium = sodium;
+    }
+
+    public User getUser() {
+        return this.user;
+    }
+
+    public DailyNutrition user(User user) {
+        this.setUser(user);
+        return this;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DailyNutrition)) {
+            return false;
+        }
+        return id != null && id.equals(((DailyNutrition) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DailyNutrition{" +
+            "id=" + getId() +
+            ", nutritionDate='" + getNutritionDate() + "'" +
+            ", mealtype='" + getMealtype() + "'" +
+            ", entryCount=" + getEntryCount() +
+            ", calories=" + getCalories() +
+            ", carbohydrates=" + getCarbohydrates() +
+            ", proteins=" + getProteins() +
+            ", fat=" + getFat() +
+            ", sodium=" + getSodium() +
+            "}";
+    }
+}
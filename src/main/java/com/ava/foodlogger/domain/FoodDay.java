@@ -24,6 +24,10 @@ public class FoodDay implements Serializable {
     @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Column(name = "created_date")
     private LocalDate createdDate;
 
@@ -49,6 +53,19 @@ public class FoodDay implements Serializable {
         return this;
     }
 
+    public Integer getVersion() {
+        return this.version;
+    }
+
+    public FoodDay version(Integer version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public LocalDate getCreatedDate() {
         return this.createdDate;
     }
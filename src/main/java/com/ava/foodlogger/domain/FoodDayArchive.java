@@ -0,0 +1,172 @@
+package com.ava.foodlogger.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.Type;
+
+/**
+ * A FoodDayArchive, an archived {@link FoodDay}: the cold tier of the food days, written and read by
+ * {@link com.ava.foodlogger.service.FoodDayArchiveService}.
+ * <p>
+ * It keeps the id, version, date and user of the day, and its entries with the name and macros their foods had when the
+ * day was archived, as the JSON of a list of {@link com.ava.foodlogger.service.dto.FoodDayViewEntryDTO}. It is not
+ * cached, as the archived days are seldom read.
+ */
+@Entity
+@Table(name = "food_day_archive")
+public class FoodDayArchive implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The id of the archived food day. */
+    @Id
+    private Long id;
+
+    @NotNull
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private LocalDate createdDate;
+
+    @NotNull
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount;
+
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @NotNull
+    @Column(name = "entries", nullable = false)
+    private String entries;
+
+    @NotNull
+    @Column(name = "archived_date", nullable = false)
+    private Instant archivedDate;
+
+    @ManyToOne
+    private User user;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public FoodDayArchive id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public Integer getVersion() {
+        return this.version;
+    }
+
+    public FoodDayArchive version(Integer version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public LocalDate getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public FoodDayArchive createdDate(LocalDate createdDate) {
+        this.createdDate = createdDate;
+        return this;
+    }
+
+    public void setCreatedDate(LocalDate createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Integer getEntryCount() {
+        return this.entryCount;
+    }
+
+    public FoodDayArchive entryCount(Integer entryCount) {
+        this.entryCount = entryCount;
+        return this;
+    }
+
+    public void setEntryCount(Integer entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public String getEntries() {
+        return this.entries;
+    }
+
+    public FoodDayArchive entries(String entries) {
+        this.entries = entries;
+        return this;
+    }
+
+    public void setEntries(String entries) {
+        this.entries = entries;
+    }
+
+    public Instant getArchivedDate() {
+        return this.archivedDate;
+    }
+
+    public FoodDayArchive archivedDate(Instant archivedDate) {
+        this.archivedDate = archivedDate;
+        return this;
+    }
+
+    public void setArchivedDate(Instant archivedDate) {
+        this.archivedDate = archivedDate;
+    }
+
+    public User getUser() {
+        return this.user;
+    }
+
+    public FoodDayArchive user(User user) {
+        this.setUser(user);
+        return this;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FoodDayArchive)) {
+            return false;
+        }
+        return id != null && id.equals(((FoodDayArchive) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodDayArchive{" +
+            "id=" + getId() +
+            ", version=" + getVersion() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", entryCount=" + getEntryCount() +
+            ", archivedDate='" + getArchivedDate() + "'" +
+            "}";
+    }
+}
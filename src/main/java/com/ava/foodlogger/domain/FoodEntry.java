@@ -23,6 +23,10 @@ public class FoodEntry implements Serializable {
     @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "mealtype")
     private MealType mealtype;
@@ -52,6 +56,19 @@ public class FoodEntry implements Serializable {
         return this;
     }
 
+    public Integer getVersion() {
+        return this.version;
+    }
+
+    public FoodEntry version(Integer version) {
+        this.version = version;
+        return this;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public MealType getMealtype() {
         return this.mealtype;
     }
@@ -1,7 +1,10 @@
 package com.ava.foodlogger.repository;
 
 import com.ava.foodlogger.domain.AppUser;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,20 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AppUserRepository extends JpaRepository<AppUser, Long> {}
+public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+    /**
+     * Served by the {@code ux_app_user__user_id} unique constraint.
+     */
+    @Query("select appUser from AppUser appUser where appUser.user.login = ?#{principal.username}")
+    List<AppUser> findByUserIsCurrentUser();
+
+    @Query("select appUser from AppUser appUser join appUser.user user where user.login = :login")
+    Optional<AppUser> findOneByUserLogin(@Param("login") String login);
+
+    /**
+     * Served by the {@code ux_app_user__user_id} unique constraint, as {@code user.id} is read from the foreign key
+     * where a derived query would join the user.
+     */
+    @Query("select appUser from AppUser appUser where appUser.user.id = :userId")
+    Optional<AppUser> findOneByUserId(@Param("userId") Long userId);
+}
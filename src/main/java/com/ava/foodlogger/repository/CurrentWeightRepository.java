@@ -1,8 +1,17 @@
 package com.ava.foodlogger.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.ava.foodlogger.domain.CurrentWeight;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,6 +20,38 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface CurrentWeightRepository extends JpaRepository<CurrentWeight, Long> {
+    /**
+     * Served by the {@code idx_current_weight__user_id_created_date} index.
+     */
     @Query("select currentWeight from CurrentWeight currentWeight where currentWeight.user.login = ?#{principal.username}")
     List<CurrentWeight> findByUserIsCurrentUser();
+
+    /**
+     * Served by the {@code idx_current_weight__user_id_created_date} index, as {@code user.id} is read from the
+     * foreign key where a derived query would join the user.
+     *
+     * @return the latest currentWeights of a user, by date then by id.
+     */
+    @Query(
+        "select currentWeight from CurrentWeight currentWeight where currentWeight.user.id = :userId" +
+        " order by currentWeight.createdDate desc, currentWeight.id desc"
+    )
+    List<CurrentWeight> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * @return the latest currentWeight of a user, by date then by id.
+     */
+    default Optional<CurrentWeight> findLatestByUserId(Long userId) {
+        return findLatestByUserId(userId, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * Streams the current weights of a user, read-only and fetched in chunks, to be consumed in a transaction.
+     */
+    @Query(
+        "select currentWeight from CurrentWeight currentWeight join fetch currentWeight.user user where user.login = :login" +
+        " order by currentWeight.createdDate, currentWeight.id"
+    )
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<CurrentWeight> streamByUserLogin(@Param("login") String login);
 }
@@ -0,0 +1,72 @@
+package com.ava.foodlogger.repository;
+
+import com.ava.foodlogger.domain.DailyNutrition;
+import com.ava.foodlogger.service.dto.DailyNutritionDTO;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the DailyNutrition entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface DailyNutritionRepository extends JpaRepository<DailyNutrition, Long>, DailyNutritionRepositoryCustom {
+    String SELECT_DTO =
+        "select new com.ava.foodlogger.service.dto.DailyNutritionDTO(dailyNutrition.user.id, dailyNutrition.nutritionDate," +
+        " dailyNutrition.mealtype, dailyNutrition.entryCount, dailyNutrition.calories, dailyNutrition.carbohydrates," +
+        " dailyNutrition.proteins, dailyNutrition.fat, dailyNutrition.sodium) from DailyNutrition dailyNutrition";
+
+    String INCREMENT =
+        "update DailyNutrition dailyNutrition set dailyNutrition.entryCount = dailyNutrition.entryCount + :#{#delta.entryCount}," +
+        " dailyNutrition.calories = dailyNutrition.calories + :#{#delta.calories}," +
+        " dailyNutrition.carbohydrates = dailyNutrition.carbohydrates + :#{#delta.carbohydrates}," +
+        " dailyNutrition.proteins = dailyNutrition.proteins + :#{#delta.proteins}," +
+        " dailyNutrition.fat = dailyNutrition.fat + :#{#delta.fat}," +
+        " dailyNutrition.sodium = dailyNutrition.sodium + :#{#delta.sodium}" +
+        " where dailyNutrition.user.id = :userId and dailyNutrition.nutritionDate = :nutritionDate";
+
+    @Query(
+        SELECT_DTO +
+        " where dailyNutrition.user.login = :#{principal.username} and dailyNutrition.nutritionDate between :from and :to" +
+        " order by dailyNutrition.nutritionDate, dailyNutrition.mealtype"
+    )
+    List<DailyNutritionDTO> findAllForCurrentUser(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(SELECT_DTO + " where dailyNutrition.user.id in :userIds")
+    List<DailyNutritionDTO> findAllByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Adds {@code delta} to the row of the given user, date and meal key.
+     *
+     * @return the number of updated rows, {@code 0} if the row does not exist yet.
+     * @see DailyNutrition#mealKeyOf
+     */
+    @Modifying
+    @Query(INCREMENT + " and dailyNutrition.mealKey = :mealKey")
+    int increment(
+        @Param("userId") Long userId,
+        @Param("nutritionDate") LocalDate nutritionDate,
+        @Param("mealKey") String mealKey,
+        @Param("delta") NutritionTotalsDTO delta
+    );
+
+    @Modifying
+    @Query("delete from DailyNutrition dailyNutrition where dailyNutrition.user.id = :userId and dailyNutrition.nutritionDate = :nutritionDate")
+    int deleteByUserIdAndNutritionDate(@Param("userId") Long userId, @Param("nutritionDate") LocalDate nutritionDate);
+
+    @Modifying
+    @Query(
+        "delete from DailyNutrition dailyNutrition where dailyNutrition.user.id = :userId and dailyNutrition.nutritionDate = :nutritionDate" +
+        " and dailyNutrition.entryCount <= 0"
+    )
+    int deleteEmptyByUserIdAndNutritionDate(@Param("userId") Long userId, @Param("nutritionDate") LocalDate nutritionDate);
+
+    @Modifying
+    @Query("delete from DailyNutrition dailyNutrition where dailyNutrition.user.id in :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
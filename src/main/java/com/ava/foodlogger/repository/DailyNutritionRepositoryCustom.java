@@ -0,0 +1,19 @@
+package com.ava.foodlogger.repository;
+
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import java.time.LocalDate;
+
+/**
+ * Statements of the {@link DailyNutritionRepository} which depend on the database.
+ */
+public interface DailyNutritionRepositoryCustom {
+    /**
+     * Adds {@code delta} to the row of the given user, date and {@code delta.mealtype}, or inserts it as the row if
+     * there is none yet, atomically even against a concurrent insert of the same row.
+     *
+     * @param userId the id of the user.
+     * @param nutritionDate the day.
+     * @param delta the totals to add, of a meal type which may be {@code null}.
+     */
+    void upsert(Long userId, LocalDate nutritionDate, NutritionTotalsDTO delta);
+}
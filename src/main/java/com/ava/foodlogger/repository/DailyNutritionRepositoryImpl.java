@@ -0,0 +1,85 @@
+package com.ava.foodlogger.repository;
+
+import com.ava.foodlogger.domain.DailyNutrition;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import java.time.LocalDate;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Implementation of the {@link DailyNutritionRepositoryCustom} statements, as an {@code insert ... on conflict} on
+ * PostgreSQL and as a {@code merge} on the other databases.
+ * <p>
+ * The id of an inserted row is a value of the sequence of Hibernate, which the pooled optimizer of Hibernate treats as
+ * the last id of a block of its own, so that it never collides with the ids Hibernate assigns.
+ */
+public class DailyNutritionRepositoryImpl implements DailyNutritionRepositoryCustom {
+
+    private static final String ID_SEQUENCE = "sequence_generator";
+
+    private static final String COLUMNS =
+        "id, user_id, nutrition_date, mealtype, meal_key, entry_count, calories, carbohydrates, proteins, fat, sodium";
+
+    private static final String ON_CONFLICT =
+        "insert into daily_nutrition (" +
+        COLUMNS +
+        ") values (%s, :userId, :nutritionDate, nullif(:mealKey, 'None'), :mealKey, :entryCount, :calories, :carbohydrates," +
+        " :proteins, :fat, :sodium)" +
+        " on conflict (user_id, nutrition_date, meal_key) do update set" +
+        " entry_count = daily_nutrition.entry_count + excluded.entry_count," +
+        " calories = daily_nutrition.calories + excluded.calories," +
+        " carbohydrates = daily_nutrition.carbohydrates + excluded.carbohydrates," +
+        " proteins = daily_nutrition.proteins + excluded.proteins," +
+        " fat = daily_nutrition.fat + excluded.fat," +
+        " sodium = daily_nutrition.sodium + excluded.sodium";
+
+    private static final String MERGE =
+        "merge into daily_nutrition target using (select cast(:userId as bigint) user_id, cast(:nutritionDate as date) nutrition_date," +
+        " cast(:mealKey as varchar(255)) meal_key, cast(:entryCount as bigint) entry_count, cast(:calories as double) calories," +
+        " cast(:carbohydrates as double) carbohydrates, cast(:proteins as double) proteins, cast(:fat as double) fat," +
+        " cast(:sodium as double) sodium) source" +
+        " on (target.user_id = source.user_id and target.nutrition_date = source.nutrition_date and target.meal_key = source.meal_key)" +
+        " when matched then update set" +
+        " entry_count = target.entry_count + source.entry_count," +
+        " calories = target.calories + source.calories," +
+        " carbohydrates = target.carbohydrates + source.carbohydrates," +
+        " proteins = target.proteins + source.proteins," +
+        " fat = target.fat + source.fat," +
+        " sodium = target.sodium + source.sodium" +
+        " when not matched then insert (" +
+        COLUMNS +
+        ") values (%s, source.user_id, source.nutrition_date, nullif(source.meal_key, 'None'), source.meal_key, source.entry_count," +
+        " source.calories, source.carbohydrates, source.proteins, source.fat, source.sodium)";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final String upsert;
+
+    public DailyNutritionRepositoryImpl(EntityManagerFactory entityManagerFactory) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        String nextId = dialect.getSelectSequenceNextValString(ID_SEQUENCE);
+        this.upsert = String.format(dialect instanceof PostgreSQL81Dialect ? ON_CONFLICT : MERGE, nextId);
+    }
+
+    @Override
+    public void upsert(Long userId, LocalDate nutritionDate, NutritionTotalsDTO delta) {
+        // A native statement flushes the persistence context first, as for the rows saved by a refresh
+        em
+            .createNativeQuery(upsert)
+            .setParameter("userId", userId)
+            .setParameter("nutritionDate", nutritionDate)
+            .setParameter("mealKey", DailyNutrition.mealKeyOf(delta.getMealtype()))
+            .setParameter("entryCount", delta.getEntryCount())
+            .setParameter("calories", delta.getCalories())
+            .setParameter("carbohydrates", delta.getCarbohydrates())
+            .setParameter("proteins", delta.getProteins())
+            .setParameter("fat", delta.getFat())
+            .setParameter("sodium", delta.getSodium())
+            .executeUpdate();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ava.foodlogger.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import com.ava.foodlogger.domain.FoodDayArchive;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the FoodDayArchive entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface FoodDayArchiveRepository extends JpaRepository<FoodDayArchive, Long> {
+    /**
+     * Served by the {@code idx_food_day_archive__user_id_created_date} index.
+     */
+    @Query(
+        "select archive from FoodDayArchive archive where archive.user.login = :#{principal.username}" +
+        " and archive.createdDate between :from and :to order by archive.createdDate desc, archive.id desc"
+    )
+    List<FoodDayArchive> findByUserIsCurrentUserAndCreatedDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Served by the {@code idx_food_day_archive__user_id_created_date} index, as {@code user.id} is read from the
+     * foreign key where a derived query would join the user.
+     */
+    @Query("select archive from FoodDayArchive archive where archive.user.id in :userIds")
+    List<FoodDayArchive> findAllByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("select archive from FoodDayArchive archive where archive.user.id = :userId and archive.createdDate = :createdDate")
+    List<FoodDayArchive> findAllByUserIdAndCreatedDate(@Param("userId") Long userId, @Param("createdDate") LocalDate createdDate);
+
+    /**
+     * Streams the archived days of a user, read-only and fetched in chunks, to be consumed in a transaction.
+     */
+    @Query(
+        "select archive from FoodDayArchive archive join fetch archive.user user where user.login = :login" +
+        " order by archive.createdDate, archive.id"
+    )
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<FoodDayArchive> streamByUserLogin(@Param("login") String login);
+
+    /**
+     * Served by the {@code idx_food_day_archive__created_date} index.
+     */
+    @Query("select max(archive.createdDate) from FoodDayArchive archive")
+    Optional<LocalDate> findNewestCreatedDate();
+}
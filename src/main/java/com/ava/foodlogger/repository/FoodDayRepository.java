@@ -1,8 +1,19 @@
 package com.ava.foodlogger.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.service.dto.FoodDayViewEntryDTO;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,6 +22,51 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface FoodDayRepository extends JpaRepository<FoodDay, Long> {
-    @Query("select foodDay from FoodDay foodDay where foodDay.user.login = ?#{principal.username}")
-    List<FoodDay> findByUserIsCurrentUser();
+    /**
+     * Served by the {@code idx_food_day__user_id_created_date} index.
+     */
+    @Query(
+        "select foodDay from FoodDay foodDay where foodDay.user.login = :#{principal.username}" +
+        " and foodDay.createdDate between :from and :to order by foodDay.createdDate desc, foodDay.id desc"
+    )
+    List<FoodDay> findByUserIsCurrentUserAndCreatedDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Streams the food days of a user, read-only and fetched in chunks, to be consumed in a transaction.
+     */
+    @Query(
+        "select foodDay from FoodDay foodDay join fetch foodDay.user user where user.login = :login" +
+        " order by foodDay.createdDate, foodDay.id"
+    )
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<FoodDay> streamByUserLogin(@Param("login") String login);
+
+    /**
+     * Projects a food day, its entries and their foods in a single query, without loading managed entities.
+     *
+     * @return one row per entry, or a single row without entry if the day is empty, or no row if the day does not exist.
+     */
+    @Query(
+        "select new com.ava.foodlogger.service.dto.FoodDayViewEntryDTO(foodDay.id, foodDay.createdDate, foodEntry.id," +
+        " foodEntry.mealtype, foodEntry.createdDate, food.id, food.name, food.calories, food.carbohydrates, food.proteins," +
+        " food.fat, food.sodium)" +
+        " from FoodDay foodDay left join foodDay.foodEntries foodEntry left join foodEntry.food food" +
+        " where foodDay.id = :id order by foodEntry.mealtype, foodEntry.id"
+    )
+    List<FoodDayViewEntryDTO> findViewRowsById(@Param("id") Long id);
+
+    /**
+     * Finds a chunk of the days created before a date, locked until the end of the transaction so that no entry can be
+     * added to them meanwhile.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select foodDay from FoodDay foodDay where foodDay.createdDate < :before and foodDay.id > :after order by foodDay.id")
+    List<FoodDay> findCreatedBeforeForUpdate(@Param("before") LocalDate before, @Param("after") Long after, Pageable pageable);
+
+    /**
+     * Deletes days without loading them, their entries must have been deleted first.
+     */
+    @Modifying
+    @Query("delete from FoodDay foodDay where foodDay.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,7 +1,21 @@
 package com.ava.foodlogger.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.service.dto.DailyNutritionDTO;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +23,87 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface FoodEntryRepository extends JpaRepository<FoodEntry, Long> {}
+public interface FoodEntryRepository extends JpaRepository<FoodEntry, Long> {
+    String SELECT_DAILY_NUTRITION_DTO =
+        "select new com.ava.foodlogger.service.dto.DailyNutritionDTO(foodDay.user.id, foodDay.createdDate, foodEntry.mealtype," +
+        " count(foodEntry), sum(food.calories), sum(food.carbohydrates), sum(food.proteins), sum(food.fat), sum(food.sodium))" +
+        " from FoodEntry foodEntry join foodEntry.food food join foodEntry.foodDay foodDay";
+
+    String GROUP_BY_DAY = " group by foodDay.user.id, foodDay.createdDate, foodEntry.mealtype";
+
+    String SELECT_FOR_CURRENT_USER =
+        "select foodEntry from FoodEntry foodEntry join fetch foodEntry.foodDay foodDay join fetch foodDay.user user" +
+        " left join fetch foodEntry.food where user.login = :#{principal.username}";
+
+    /**
+     * Pages the entries of the current user, with their food days and foods, through the
+     * {@code idx_food_day__user_id_created_date} and {@code idx_food_entry__food_day_id} indexes.
+     */
+    @Query(
+        value = SELECT_FOR_CURRENT_USER,
+        countQuery = "select count(foodEntry) from FoodEntry foodEntry where foodEntry.foodDay.user.login = :#{principal.username}"
+    )
+    Page<FoodEntry> findByFoodDayUserIsCurrentUser(Pageable pageable);
+
+    @Query(SELECT_FOR_CURRENT_USER + " and foodEntry.id > :id")
+    Slice<FoodEntry> findByFoodDayUserIsCurrentUserAndIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_FOR_CURRENT_USER + " and foodEntry.id < :id")
+    Slice<FoodEntry> findByFoodDayUserIsCurrentUserAndIdLessThan(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Streams the food entries of a user, with their food days and foods, read-only and fetched in chunks, to be consumed
+     * in a transaction.
+     */
+    @Query(
+        "select foodEntry from FoodEntry foodEntry join fetch foodEntry.foodDay foodDay join fetch foodDay.user user" +
+        " join fetch foodEntry.food where user.login = :login order by foodDay.createdDate, foodDay.id, foodEntry.id"
+    )
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<FoodEntry> streamByFoodDayUserLogin(@Param("login") String login);
+
+    @Query(
+        "select new com.ava.foodlogger.service.dto.NutritionTotalsDTO(foodEntry.mealtype, count(foodEntry), sum(food.calories)," +
+        " sum(food.carbohydrates), sum(food.proteins), sum(food.fat), sum(food.sodium))" +
+        " from FoodEntry foodEntry join foodEntry.food food" +
+        " where foodEntry.foodDay.id = :foodDayId" +
+        " group by foodEntry.mealtype order by foodEntry.mealtype"
+    )
+    List<NutritionTotalsDTO> sumNutritionByFoodDayId(@Param("foodDayId") Long foodDayId);
+
+    @Query(
+        "select new com.ava.foodlogger.service.dto.NutritionTotalsDTO(foodEntry.mealtype, count(foodEntry), sum(food.calories)," +
+        " sum(food.carbohydrates), sum(food.proteins), sum(food.fat), sum(food.sodium))" +
+        " from FoodEntry foodEntry join foodEntry.food food join foodEntry.foodDay foodDay" +
+        " where foodDay.createdDate = :createdDate and foodDay.user.login = :#{principal.username}" +
+        " group by foodEntry.mealtype order by foodEntry.mealtype"
+    )
+    List<NutritionTotalsDTO> sumNutritionByCreatedDateForCurrentUser(@Param("createdDate") LocalDate createdDate);
+
+    @Query(SELECT_DAILY_NUTRITION_DTO + " where foodDay.user.id in :userIds and foodDay.createdDate is not null" + GROUP_BY_DAY)
+    List<DailyNutritionDTO> sumDailyNutritionByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query(SELECT_DAILY_NUTRITION_DTO + " where foodDay.user.id = :userId and foodDay.createdDate = :createdDate" + GROUP_BY_DAY)
+    List<DailyNutritionDTO> sumDailyNutritionByUserIdAndCreatedDate(@Param("userId") Long userId, @Param("createdDate") LocalDate createdDate);
+
+    @Query(
+        "select new com.ava.foodlogger.service.dto.DailyNutritionDTO(foodDay.user.id, foodDay.createdDate, foodEntry.mealtype," +
+        " count(foodEntry)) from FoodEntry foodEntry join foodEntry.foodDay foodDay" +
+        " where foodEntry.food.id = :foodId and foodDay.user.id is not null and foodDay.createdDate is not null" +
+        GROUP_BY_DAY
+    )
+    List<DailyNutritionDTO> countDailyEntriesByFoodId(@Param("foodId") Long foodId);
+
+    /**
+     * Finds the entries of many days, with their foods.
+     */
+    @Query("select foodEntry from FoodEntry foodEntry left join fetch foodEntry.food where foodEntry.foodDay.id in :foodDayIds")
+    List<FoodEntry> findAllWithFoodByFoodDayIdIn(@Param("foodDayIds") Collection<Long> foodDayIds);
+
+    /**
+     * Deletes the entries of many days without loading them.
+     */
+    @Modifying
+    @Query("delete from FoodEntry foodEntry where foodEntry.foodDay.id in :foodDayIds")
+    int deleteByFoodDayIdIn(@Param("foodDayIds") Collection<Long> foodDayIds);
+}
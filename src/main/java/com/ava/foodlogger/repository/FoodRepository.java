@@ -1,7 +1,16 @@
 package com.ava.foodlogger.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.ava.foodlogger.domain.Food;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +18,21 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface FoodRepository extends JpaRepository<Food, Long> {}
+public interface FoodRepository extends JpaRepository<Food, Long> {
+    @Query("select food from Food food where food.id > :after order by food.id")
+    List<Food> findAllAfter(@Param("after") Long after, Pageable pageable);
+
+    Slice<Food> findAllByIdGreaterThan(Long id, Pageable pageable);
+
+    Slice<Food> findAllByIdLessThan(Long id, Pageable pageable);
+
+    /**
+     * Streams the foods logged by a user, each once, read-only and fetched in chunks, to be consumed in a transaction.
+     */
+    @Query(
+        "select distinct food from FoodEntry foodEntry join foodEntry.food food join foodEntry.foodDay foodDay" +
+        " where foodDay.user.login = :login order by food.id"
+    )
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<Food> streamLoggedByUserLogin(@Param("login") String login);
+}
@@ -1,8 +1,17 @@
 package com.ava.foodlogger.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.ava.foodlogger.domain.GoalWeight;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,6 +20,38 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface GoalWeightRepository extends JpaRepository<GoalWeight, Long> {
+    /**
+     * Served by the {@code idx_goal_weight__user_id_created_date} index.
+     */
     @Query("select goalWeight from GoalWeight goalWeight where goalWeight.user.login = ?#{principal.username}")
     List<GoalWeight> findByUserIsCurrentUser();
+
+    /**
+     * Served by the {@code idx_goal_weight__user_id_created_date} index, as {@code user.id} is read from the
+     * foreign key where a derived query would join the user.
+     *
+     * @return the latest goalWeights of a user, by date then by id.
+     */
+    @Query(
+        "select goalWeight from GoalWeight goalWeight where goalWeight.user.id = :userId" +
+        " order by goalWeight.createdDate desc, goalWeight.id desc"
+    )
+    List<GoalWeight> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * @return the latest goalWeight of a user, by date then by id.
+     */
+    default Optional<GoalWeight> findLatestByUserId(Long userId) {
+        return findLatestByUserId(userId, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * Streams the goal weights of a user, read-only and fetched in chunks, to be consumed in a transaction.
+     */
+    @Query(
+        "select goalWeight from GoalWeight goalWeight join fetch goalWeight.user user where user.login = :login" +
+        " order by goalWeight.createdDate, goalWeight.id"
+    )
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<GoalWeight> streamByUserLogin(@Param("login") String login);
 }
@@ -3,9 +3,18 @@ package com.ava.foodlogger.security.jwt;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,15 +25,30 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Creates and verifies the JWT tokens of the API.
+ * <p>
+ * Verified tokens are cached until they expire, keyed by a digest of the token, with their subject and authorities:
+ * {@link #validateToken(String)} and {@link #getAuthentication(String)} share one verification, and the following
+ * requests carrying the same token skip the HS512 signature check. Each call of {@link #getAuthentication(String)}
+ * builds its own {@link Authentication}, as the security filters may change it, e.g. erase its credentials. The cache
+ * lookups are exported as the {@code security.jwt.cache} metric.
+ */
 @Component
-public class TokenProvider {
+public class TokenProvider implements MeterBinder {
 
     private final Logger log = LoggerFactory.getLogger(TokenProvider.class);
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    /** There are only a few distinct combinations of authorities, the bound only guards against unexpected claims. */
+    private static final int MAX_INTERNED_AUTHORITIES = 100;
+
     private final Key key;
 
     private final JwtParser jwtParser;
@@ -33,6 +57,16 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private final Map<String, List<GrantedAuthority>> internedAuthorities = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
+    private Clock clock = Clock.systemUTC();
+
     public TokenProvider(JHipsterProperties jHipsterProperties) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
@@ -48,7 +82,7 @@ public class TokenProvider {
             keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
         key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        jwtParser = Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(clock.millis())).build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
@@ -57,7 +91,7 @@ public class TokenProvider {
     public String createToken(Authentication authentication, boolean rememberMe) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
 
-        long now = (new Date()).getTime();
+        long now = clock.millis();
         Date validity;
         if (rememberMe) {
             validity = new Date(now + this.tokenValidityInMillisecondsForRememberMe);
@@ -75,22 +109,14 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        VerifiedToken verifiedToken = verify(token);
+        User principal = new User(verifiedToken.subject, "", verifiedToken.authorities);
+        return new UsernamePasswordAuthenticationToken(principal, token, verifiedToken.authorities);
     }
 
     public boolean validateToken(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
+            verify(authToken);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
@@ -98,4 +124,113 @@ public class TokenProvider {
         }
         return false;
     }
+
+    /**
+     * Verifies a token, unless it is in the cache of verified tokens and has not expired yet.
+     *
+     * @param token the token.
+     * @return the verified token.
+     * @throws JwtException if the token is invalid or expired.
+     * @throws IllegalArgumentException if the token is empty.
+     */
+    private VerifiedToken verify(String token) {
+        if (!StringUtils.hasText(token)) {
+            return parse(token);
+        }
+        String digest = digestOf(token);
+        VerifiedToken verifiedToken = verifiedTokens.get(digest);
+        if (verifiedToken != null && clock.millis() < verifiedToken.expiresAt) {
+            cacheHits.increment();
+            return verifiedToken;
+        }
+        cacheMisses.increment();
+        if (verifiedToken != null) {
+            verifiedTokens.remove(digest, verifiedToken);
+        }
+        verifiedToken = parse(token);
+        if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+            long now = clock.millis();
+            verifiedTokens.values().removeIf(cached -> now >= cached.expiresAt);
+            if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+                verifiedTokens.clear();
+            }
+        }
+        if (verifiedToken.expiresAt < Long.MAX_VALUE) {
+            verifiedTokens.put(digest, verifiedToken);
+        }
+        return verifiedToken;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+            claims.getSubject(),
+            authoritiesOf(claims.get(AUTHORITIES_KEY).toString()),
+            expiration != null ? expiration.getTime() : Long.MAX_VALUE
+        );
+    }
+
+    /**
+     * @return an immutable list of the authorities of an {@code auth} claim, the same instance for identical claims.
+     */
+    private List<GrantedAuthority> authoritiesOf(String claim) {
+        List<GrantedAuthority> authorities = internedAuthorities.get(claim);
+        if (authorities == null) {
+            authorities =
+                Arrays
+                    .stream(claim.split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toUnmodifiableList());
+            if (internedAuthorities.size() < MAX_INTERNED_AUTHORITIES) {
+                List<GrantedAuthority> interned = internedAuthorities.putIfAbsent(claim, authorities);
+                authorities = interned != null ? interned : authorities;
+            }
+        }
+        return authorities;
+    }
+
+    private static String digestOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter
+            .builder("security.jwt.cache", cacheHits, LongAdder::sum)
+            .tag("result", "hit")
+            .description("Lookups of the verified JWT cache")
+            .register(registry);
+        FunctionCounter
+            .builder("security.jwt.cache", cacheMisses, LongAdder::sum)
+            .tag("result", "miss")
+            .description("Lookups of the verified JWT cache")
+            .register(registry);
+        Gauge.builder("security.jwt.cache.size", verifiedTokens, Map::size).description("Verified JWT tokens in cache").register(registry);
+    }
+
+    /**
+     * A verified token, with the subject and the immutable authorities it grants until it expires.
+     */
+    private static final class VerifiedToken {
+
+        private final String subject;
+
+        private final List<GrantedAuthority> authorities;
+
+        private final long expiresAt;
+
+        private VerifiedToken(String subject, List<GrantedAuthority> authorities, long expiresAt) {
+            this.subject = subject;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
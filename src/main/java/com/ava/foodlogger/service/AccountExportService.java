@@ -0,0 +1,233 @@
+package com.ava.foodlogger.service;
+
+import com.ava.foodlogger.domain.AppUser;
+import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodDayArchive;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.domain.GoalWeight;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.repository.AppUserRepository;
+import com.ava.foodlogger.repository.CurrentWeightRepository;
+import com.ava.foodlogger.repository.FoodDayArchiveRepository;
+import com.ava.foodlogger.repository.FoodDayRepository;
+import com.ava.foodlogger.repository.FoodEntryRepository;
+import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.repository.GoalWeightRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service exporting the whole history of a user as newline delimited JSON.
+ * <p>
+ * Each line is an object whose {@code type} is {@code user}, {@code appUser}, {@code currentWeight},
+ * {@code goalWeight}, {@code food}, {@code foodDay}, {@code foodEntry} or {@code archivedFoodDay}, in that order. Foods
+ * are exported once each, and entries refer to their food and food day by id. An archived food day holds its entries,
+ * with the foods they had when it was archived.
+ * <p>
+ * The export is a snapshot: all the types are read in a single read-only {@code REPEATABLE READ} transaction, so that
+ * a food day archived during the export is either a {@code foodDay} with its entries or an {@code archivedFoodDay},
+ * never both, and every entry refers to an exported food and food day. The connection is thus held for the whole
+ * export. Each type is read from a repository {@link Stream}, and the persistence context is cleared as rows are
+ * written: the memory used does not depend on the length of the history.
+ */
+@Service
+public class AccountExportService {
+
+    /** Number of rows written between two clears of the persistence context, the fetch size of the streams. */
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final Logger log = LoggerFactory.getLogger(AccountExportService.class);
+
+    private final UserRepository userRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final CurrentWeightRepository currentWeightRepository;
+
+    private final GoalWeightRepository goalWeightRepository;
+
+    private final FoodRepository foodRepository;
+
+    private final FoodDayRepository foodDayRepository;
+
+    private final FoodEntryRepository foodEntryRepository;
+
+    private final FoodDayArchiveRepository foodDayArchiveRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter lineWriter;
+
+    public AccountExportService(
+        UserRepository userRepository,
+        AppUserRepository appUserRepository,
+        CurrentWeightRepository currentWeightRepository,
+        GoalWeightRepository goalWeightRepository,
+        FoodRepository foodRepository,
+        FoodDayRepository foodDayRepository,
+        FoodEntryRepository foodEntryRepository,
+        FoodDayArchiveRepository foodDayArchiveRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper
+    ) {
+        this.userRepository = userRepository;
+        this.appUserRepository = appUserRepository;
+        this.currentWeightRepository = currentWeightRepository;
+        this.goalWeightRepository = goalWeightRepository;
+        this.foodRepository = foodRepository;
+        this.foodDayRepository = foodDayRepository;
+        this.foodEntryRepository = foodEntryRepository;
+        this.foodDayArchiveRepository = foodDayArchiveRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.objectMapper = objectMapper;
+        // Let the output buffer the lines rather than flushing each of them
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).withRootValueSeparator("\n");
+    }
+
+    /**
+     * Writes the history of a user.
+     *
+     * @param login the login of the user.
+     * @param output the output to write the lines to, closed once written.
+     * @throws IOException if the output cannot be written.
+     */
+    public void export(String login, OutputStream output) throws IOException {
+        log.debug("Exporting the history of {}", login);
+        try (SequenceWriter lines = lineWriter.writeValues(output)) {
+            transactionTemplate.executeWithoutResult(
+                status -> {
+                    userRepository.findOneByLogin(login).map(this::toLine).ifPresent(line -> write(lines, line));
+                    appUserRepository.findOneByUserLogin(login).map(this::toLine).ifPresent(line -> write(lines, line));
+                    writeAll(currentWeightRepository.streamByUserLogin(login), this::toLine, lines);
+                    writeAll(goalWeightRepository.streamByUserLogin(login), this::toLine, lines);
+                    writeAll(foodRepository.streamLoggedByUserLogin(login), this::toLine, lines);
+                    writeAll(foodDayRepository.streamByUserLogin(login), this::toLine, lines);
+                    writeAll(foodEntryRepository.streamByFoodDayUserLogin(login), this::toLine, lines);
+                    writeAll(foodDayArchiveRepository.streamByUserLogin(login), this::toLine, lines);
+                }
+            );
+            lines.flush();
+            output.write('\n');
+        }
+    }
+
+    private <T> void writeAll(Stream<T> query, Function<T, ObjectNode> toLine, SequenceWriter lines) {
+        try (Stream<T> rows = query) {
+            int written = 0;
+            for (Iterator<T> iterator = rows.iterator(); iterator.hasNext();) {
+                write(lines, toLine.apply(iterator.next()));
+                if (++written % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private static void write(SequenceWriter lines, ObjectNode line) {
+        try {
+            lines.write(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectNode line(String type) {
+        return objectMapper.createObjectNode().put("type", type);
+    }
+
+    private ObjectNode toLine(User user) {
+        return line("user")
+            .put("login", user.getLogin())
+            .put("firstName", user.getFirstName())
+            .put("lastName", user.getLastName())
+            .put("email", user.getEmail())
+            .put("langKey", user.getLangKey())
+            .putPOJO("createdDate", user.getCreatedDate());
+    }
+
+    private ObjectNode toLine(AppUser appUser) {
+        return line("appUser")
+            .put("id", appUser.getId())
+            .put("bio", appUser.getBio())
+            .put("height", appUser.getHeight())
+            .put("workoutsPerWeek", appUser.getWorkoutsPerWeek())
+            .put("minutesPerWorkout", appUser.getMinutesPerWorkout())
+            .putPOJO("createdDate", appUser.getCreatedDate())
+            .putPOJO("dateOfBirth", appUser.getDateOfBirth())
+            .putPOJO("activityLevel", appUser.getActivityLevel());
+    }
+
+    private ObjectNode toLine(CurrentWeight currentWeight) {
+        return line("currentWeight")
+            .put("id", currentWeight.getId())
+            .put("weight", currentWeight.getWeight())
+            .putPOJO("createdDate", currentWeight.getCreatedDate());
+    }
+
+    private ObjectNode toLine(GoalWeight goalWeight) {
+        return line("goalWeight")
+            .put("id", goalWeight.getId())
+            .put("weight", goalWeight.getWeight())
+            .putPOJO("createdDate", goalWeight.getCreatedDate());
+    }
+
+    private ObjectNode toLine(Food food) {
+        return line("food")
+            .put("id", food.getId())
+            .put("name", food.getName())
+            .put("calories", food.getCalories())
+            .put("carbohydrates", food.getCarbohydrates())
+            .put("proteins", food.getProteins())
+            .put("fat", food.getFat())
+            .put("sodium", food.getSodium());
+    }
+
+    private ObjectNode toLine(FoodDay foodDay) {
+        return line("foodDay").put("id", foodDay.getId()).putPOJO("createdDate", foodDay.getCreatedDate());
+    }
+
+    private ObjectNode toLine(FoodEntry foodEntry) {
+        return line("foodEntry")
+            .put("id", foodEntry.getId())
+            .put("foodDayId", foodEntry.getFoodDay().getId())
+            .put("foodId", foodEntry.getFood().getId())
+            .putPOJO("mealtype", foodEntry.getMealtype())
+            .putPOJO("createdDate", foodEntry.getCreatedDate());
+    }
+
+    private ObjectNode toLine(FoodDayArchive archive) {
+        // The entries are already JSON, they are copied as they are
+        return line("archivedFoodDay")
+            .put("id", archive.getId())
+            .putPOJO("createdDate", archive.getCreatedDate())
+            .putRawValue("entries", new RawValue(archive.getEntries() == null ? "[]" : archive.getEntries()));
+    }
+}
@@ -0,0 +1,372 @@
+package com.ava.foodlogger.service;
+
+import com.ava.foodlogger.domain.DailyNutrition;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.repository.DailyNutritionRepository;
+import com.ava.foodlogger.repository.FoodDayRepository;
+import com.ava.foodlogger.repository.FoodEntryRepository;
+import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.service.dto.DailyNutritionDTO;
+import com.ava.foodlogger.service.dto.DailyNutritionMismatchDTO;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link DailyNutrition} read model.
+ * <p>
+ * Changes to food entries and foods are applied as deltas, in the transaction of the change, so that a day's totals
+ * never need to be recomputed from {@code food_entry} on read. {@link #rebuild()} and {@link #check()} recompute
+ * everything from scratch, per chunk of users, to backfill the table and to detect drift. The recomputations include the
+ * archived days, with the macros their foods had when they were archived.
+ */
+@Service
+@Transactional
+public class DailyNutritionService {
+
+    private static final int USER_CHUNK_SIZE = 100;
+
+    private static final double TOLERANCE = 0.01;
+
+    private final Logger log = LoggerFactory.getLogger(DailyNutritionService.class);
+
+    private final DailyNutritionRepository dailyNutritionRepository;
+
+    private final FoodEntryRepository foodEntryRepository;
+
+    private final FoodDayRepository foodDayRepository;
+
+    private final FoodRepository foodRepository;
+
+    private final UserRepository userRepository;
+
+    private final FoodDayArchiveService foodDayArchiveService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public DailyNutritionService(
+        DailyNutritionRepository dailyNutritionRepository,
+        FoodEntryRepository foodEntryRepository,
+        FoodDayRepository foodDayRepository,
+        FoodRepository foodRepository,
+        UserRepository userRepository,
+        FoodDayArchiveService foodDayArchiveService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.dailyNutritionRepository = dailyNutritionRepository;
+        this.foodEntryRepository = foodEntryRepository;
+        this.foodDayRepository = foodDayRepository;
+        this.foodRepository = foodRepository;
+        this.userRepository = userRepository;
+        this.foodDayArchiveService = foodDayArchiveService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds the contribution of a food entry to its day, once it has been saved.
+     *
+     * @param foodEntry the saved food entry.
+     */
+    public void add(FoodEntry foodEntry) {
+        apply(foodEntry, 1);
+    }
+
+    /**
+     * Removes the contribution of a food entry from its day, before it is changed or deleted.
+     *
+     * @param foodEntry the food entry, in the state it was last added with.
+     */
+    public void subtract(FoodEntry foodEntry) {
+        apply(foodEntry, -1);
+    }
+
+    /**
+     * Adds the contribution of many saved food entries, with one update per day and meal type rather than per entry.
+     *
+     * @param foodEntries the saved food entries.
+     */
+    public void addAll(Collection<FoodEntry> foodEntries) {
+        Map<List<Object>, DailyNutritionDTO> deltas = new LinkedHashMap<>();
+        for (FoodEntry foodEntry : foodEntries) {
+            deltaOf(foodEntry, 1)
+                .ifPresent(
+                    delta ->
+                        deltas.merge(
+                            Arrays.asList(delta.getUserId(), delta.getNutritionDate(), delta.getMealtype()),
+                            delta,
+                            (merged, other) -> {
+                                merged.add(other);
+                                return merged;
+                            }
+                        )
+                );
+        }
+        deltas.values().forEach(delta -> increment(delta.getUserId(), delta.getNutritionDate(), delta));
+    }
+
+    private void apply(FoodEntry foodEntry, int sign) {
+        deltaOf(foodEntry, sign).ifPresent(delta -> increment(delta.getUserId(), delta.getNutritionDate(), delta));
+    }
+
+    private Optional<DailyNutritionDTO> deltaOf(FoodEntry foodEntry, int sign) {
+        // The request body only carries the ids of the associations, so resolve them from the persistence context
+        Optional<FoodDay> foodDay = Optional.ofNullable(foodEntry.getFoodDay()).map(FoodDay::getId).flatMap(foodDayRepository::findById);
+        Optional<Food> food = Optional.ofNullable(foodEntry.getFood()).map(Food::getId).flatMap(foodRepository::findById);
+        if (food.isEmpty() || foodDay.isEmpty() || foodDay.get().getUser() == null || foodDay.get().getCreatedDate() == null) {
+            return Optional.empty();
+        }
+        NutritionTotalsDTO macros = macrosOf(food.get());
+        return Optional.of(
+            new DailyNutritionDTO(
+                foodDay.get().getUser().getId(),
+                foodDay.get().getCreatedDate(),
+                foodEntry.getMealtype(),
+                (long) sign,
+                sign * macros.getCalories(),
+                sign * macros.getCarbohydrates(),
+                sign * macros.getProteins(),
+                sign * macros.getFat(),
+                sign * macros.getSodium()
+            )
+        );
+    }
+
+    /**
+     * Takes a snapshot of the macro fields of a food, to be passed to {@link #foodChanged(Food, NutritionTotalsDTO)}.
+     *
+     * @param food the food.
+     * @return the macro fields of the food.
+     */
+    public NutritionTotalsDTO macrosOf(Food food) {
+        return new NutritionTotalsDTO(
+            null,
+            1L,
+            toDouble(food.getCalories()),
+            toDouble(food.getCarbohydrates()),
+            toDouble(food.getProteins()),
+            toDouble(food.getFat()),
+            toDouble(food.getSodium())
+        );
+    }
+
+    private static Double toDouble(Float value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    /**
+     * Applies a change of the macro fields of a food to every day it was logged on.
+     *
+     * @param food the saved food.
+     * @param previous the macro fields of the food before the change.
+     */
+    public void foodChanged(Food food, NutritionTotalsDTO previous) {
+        NutritionTotalsDTO current = macrosOf(food);
+        double calories = current.getCalories() - previous.getCalories();
+        double carbohydrates = current.getCarbohydrates() - previous.getCarbohydrates();
+        double proteins = current.getProteins() - previous.getProteins();
+        double fat = current.getFat() - previous.getFat();
+        double sodium = current.getSodium() - previous.getSodium();
+        if (calories == 0d && carbohydrates == 0d && proteins == 0d && fat == 0d && sodium == 0d) {
+            return;
+        }
+        for (DailyNutritionDTO day : foodEntryRepository.countDailyEntriesByFoodId(food.getId())) {
+            long entries = day.getEntryCount();
+            increment(
+                day.getUserId(),
+                day.getNutritionDate(),
+                new NutritionTotalsDTO(
+                    day.getMealtype(),
+                    0L,
+                    entries * calories,
+                    entries * carbohydrates,
+                    entries * proteins,
+                    entries * fat,
+                    entries * sodium
+                )
+            );
+        }
+    }
+
+    private void increment(Long userId, LocalDate nutritionDate, NutritionTotalsDTO delta) {
+        int updated = dailyNutritionRepository.increment(userId, nutritionDate, DailyNutrition.mealKeyOf(delta.getMealtype()), delta);
+        if (updated == 0 && delta.getEntryCount() > 0) {
+            // Another transaction may insert the row between the update and here, so add or insert atomically
+            dailyNutritionRepository.upsert(userId, nutritionDate, delta);
+        } else if (updated == 0) {
+            // A row missing for a removal means the read model drifted, so recompute the day once the entries are changed
+            refreshBeforeCommit(userId, nutritionDate);
+        } else if (delta.getEntryCount() < 0) {
+            dailyNutritionRepository.deleteEmptyByUserIdAndNutritionDate(userId, nutritionDate);
+        }
+    }
+
+    private void refreshBeforeCommit(Long userId, LocalDate nutritionDate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(userId, nutritionDate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    refresh(userId, nutritionDate);
+                }
+            }
+        );
+    }
+
+    /**
+     * Recomputes the rows of one user and day from scratch, for changes that move many entries at once.
+     *
+     * @param userId the id of the user.
+     * @param nutritionDate the day.
+     */
+    public void refresh(Long userId, LocalDate nutritionDate) {
+        if (userId == null || nutritionDate == null) {
+            return;
+        }
+        dailyNutritionRepository.deleteByUserIdAndNutritionDate(userId, nutritionDate);
+        dailyNutritionRepository.saveAll(
+            sum(
+                foodEntryRepository.sumDailyNutritionByUserIdAndCreatedDate(userId, nutritionDate),
+                foodDayArchiveService.sumDailyNutritionByUserIdAndCreatedDate(userId, nutritionDate)
+            )
+                .stream()
+                .map(this::toEntity)
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Rebuilds the whole read model from {@code food_entry} and the archived days, committing one chunk of users at a time.
+     *
+     * @return the number of rows written.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuild() {
+        log.info("Rebuilding daily nutrition");
+        long rows = 0;
+        for (List<Long> userIds = nextUserIds(Long.MIN_VALUE); !userIds.isEmpty(); userIds = nextUserIds(last(userIds))) {
+            List<Long> chunk = userIds;
+            rows += Objects.requireNonNull(transactionTemplate.execute(status -> rebuild(chunk)));
+        }
+        log.info("Rebuilt daily nutrition with {} rows", rows);
+        return rows;
+    }
+
+    private long rebuild(List<Long> userIds) {
+        dailyNutritionRepository.deleteByUserIdIn(userIds);
+        List<DailyNutrition> rows = sumDailyNutritionByUserIdIn(userIds)
+            .stream()
+            .map(this::toEntity)
+            .collect(Collectors.toList());
+        dailyNutritionRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    /**
+     * Compares the read model with a from-scratch recomputation from {@code food_entry} and the archived days.
+     *
+     * @return the rows which differ, empty if the read model is consistent.
+     */
+    @Transactional(readOnly = true)
+    public List<DailyNutritionMismatchDTO> check() {
+        List<DailyNutritionMismatchDTO> mismatches = new ArrayList<>();
+        for (List<Long> userIds = nextUserIds(Long.MIN_VALUE); !userIds.isEmpty(); userIds = nextUserIds(last(userIds))) {
+            Map<List<Object>, DailyNutritionDTO> expected = byKey(sumDailyNutritionByUserIdIn(userIds));
+            Map<List<Object>, DailyNutritionDTO> actual = byKey(dailyNutritionRepository.findAllByUserIdIn(userIds));
+            Set<List<Object>> keys = new HashSet<>(expected.keySet());
+            keys.addAll(actual.keySet());
+            for (List<Object> key : keys) {
+                if (!matches(expected.get(key), actual.get(key))) {
+                    mismatches.add(new DailyNutritionMismatchDTO(expected.get(key), actual.get(key)));
+                }
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            log.warn("Daily nutrition is inconsistent for {} rows", mismatches.size());
+        }
+        return mismatches;
+    }
+
+    private List<DailyNutritionDTO> sumDailyNutritionByUserIdIn(List<Long> userIds) {
+        return sum(foodEntryRepository.sumDailyNutritionByUserIdIn(userIds), foodDayArchiveService.sumDailyNutritionByUserIdIn(userIds));
+    }
+
+    /**
+     * @return the sums of the hot and archived days, with the days and meal types in both added up.
+     */
+    private static List<DailyNutritionDTO> sum(List<DailyNutritionDTO> days, List<DailyNutritionDTO> archivedDays) {
+        if (archivedDays.isEmpty()) {
+            return days;
+        }
+        Map<List<Object>, DailyNutritionDTO> sums = new LinkedHashMap<>(byKey(days));
+        for (DailyNutritionDTO day : archivedDays) {
+            sums.merge(
+                Arrays.asList(day.getUserId(), day.getNutritionDate(), day.getMealtype()),
+                day,
+                (merged, other) -> {
+                    merged.add(other);
+                    return merged;
+                }
+            );
+        }
+        return new ArrayList<>(sums.values());
+    }
+
+    private List<Long> nextUserIds(Long after) {
+        return userRepository.findIdsAfter(after, PageRequest.of(0, USER_CHUNK_SIZE));
+    }
+
+    private static Long last(List<Long> ids) {
+        return ids.get(ids.size() - 1);
+    }
+
+    private static Map<List<Object>, DailyNutritionDTO> byKey(List<DailyNutritionDTO> days) {
+        return days
+            .stream()
+            .collect(Collectors.toMap(day -> Arrays.asList(day.getUserId(), day.getNutritionDate(), day.getMealtype()), Function.identity()));
+    }
+
+    private static boolean matches(DailyNutritionDTO expected, DailyNutritionDTO actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        return (
+            expected.getEntryCount() == actual.getEntryCount() &&
+            Math.abs(expected.getCalories() - actual.getCalories()) < TOLERANCE &&
+            Math.abs(expected.getCarbohydrates() - actual.getCarbohydrates()) < TOLERANCE &&
+            Math.abs(expected.getProteins() - actual.getProteins()) < TOLERANCE &&
+            Math.abs(expected.getFat() - actual.getFat()) < TOLERANCE &&
+            Math.abs(expected.getSodium() - actual.getSodium()) < TOLERANCE
+        );
+    }
+
+    private DailyNutrition toEntity(DailyNutritionDTO day) {
+        return new DailyNutrition()
+            .user(userRepository.getOne(day.getUserId()))
+            .nutritionDate(day.getNutritionDate())
+            .mealtype(day.getMealtype())
+            .entryCount(day.getEntryCount())
+            .calories(day.getCalories())
+            .carbohydrates(day.getCarbohydrates())
+            .proteins(day.getProteins())
+            .fat(day.getFat())
+            .sodium(day.getSodium());
+    }
+}
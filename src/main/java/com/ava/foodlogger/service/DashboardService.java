@@ -0,0 +1,127 @@
+package com.ava.foodlogger.service;
+
+import com.ava.foodlogger.config.metrics.HibernateActivity;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.repository.AppUserRepository;
+import com.ava.foodlogger.repository.CurrentWeightRepository;
+import com.ava.foodlogger.repository.DailyNutritionRepository;
+import com.ava.foodlogger.repository.GoalWeightRepository;
+import com.ava.foodlogger.service.dto.DailyNutritionDTO;
+import com.ava.foodlogger.service.dto.DashboardDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service assembling the dashboard of the current user.
+ * <p>
+ * The parts of the dashboard are read by independent sub-queries, which run concurrently on the
+ * {@code dashboardExecutor}, each in a read-only transaction of its own, so that the dashboard takes as long as its
+ * slowest sub-query rather than their sum. The security context of the request is propagated to the threads of the
+ * executor, for the queries on the current user and for the read-your-writes routing of the replica, and so is its
+ * {@link HibernateActivity}, for the per-endpoint Hibernate metrics.
+ */
+@Service
+public class DashboardService {
+
+    /** Number of days of the intake trend, the current day included. */
+    public static final int TREND_DAYS = 7;
+
+    private final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private final Executor executor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DailyNutritionRepository dailyNutritionRepository;
+
+    private final CurrentWeightRepository currentWeightRepository;
+
+    private final GoalWeightRepository goalWeightRepository;
+
+    private final AppUserRepository appUserRepository;
+
+    private final EnergyTargetService energyTargetService;
+
+    public DashboardService(
+        @Qualifier("dashboardExecutor") Executor dashboardExecutor,
+        PlatformTransactionManager transactionManager,
+        DailyNutritionRepository dailyNutritionRepository,
+        CurrentWeightRepository currentWeightRepository,
+        GoalWeightRepository goalWeightRepository,
+        AppUserRepository appUserRepository,
+        EnergyTargetService energyTargetService
+    ) {
+        this.executor = new DelegatingSecurityContextExecutor(task -> dashboardExecutor.execute(HibernateActivity.propagate(task)));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.dailyNutritionRepository = dailyNutritionRepository;
+        this.currentWeightRepository = currentWeightRepository;
+        this.goalWeightRepository = goalWeightRepository;
+        this.appUserRepository = appUserRepository;
+        this.energyTargetService = energyTargetService;
+    }
+
+    /**
+     * Get the dashboard of the current user.
+     *
+     * @param user the current user.
+     * @param today the current day.
+     * @return the dashboard, completed once all its sub-queries are.
+     */
+    public CompletableFuture<DashboardDTO> getDashboardOfCurrentUser(User user, LocalDate today) {
+        log.debug("Request to get the dashboard of user {}", user.getLogin());
+        Long userId = user.getId();
+        LocalDate from = today.minusDays(TREND_DAYS - 1L);
+        DashboardDTO dashboard = new DashboardDTO();
+        dashboard.setDate(today);
+        return CompletableFuture.allOf(
+            query(() -> dailyNutritionRepository.findAllForCurrentUser(from, today))
+                .thenAccept(days -> setNutrition(dashboard, userId, from, days)),
+            query(() -> currentWeightRepository.findLatestByUserId(userId))
+                .thenAccept(currentWeight -> dashboard.setCurrentWeight(currentWeight.orElse(null))),
+            query(() -> goalWeightRepository.findLatestByUserId(userId))
+                .thenAccept(goalWeight -> dashboard.setGoalWeight(goalWeight.orElse(null))),
+            query(() -> appUserRepository.findOneByUserId(userId)).thenAccept(profile -> dashboard.setProfile(profile.orElse(null))),
+            query(() -> energyTargetService.findByUserId(userId)).thenAccept(targets -> dashboard.setTargets(targets.orElse(null)))
+        )
+            .thenApply(ignored -> dashboard);
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> query.get()), executor);
+    }
+
+    /**
+     * Sums the totals per meal type of the trend into daily totals, filling the days without entries.
+     */
+    private static void setNutrition(DashboardDTO dashboard, Long userId, LocalDate from, List<DailyNutritionDTO> days) {
+        Map<LocalDate, DailyNutritionDTO> trend = new LinkedHashMap<>();
+        for (int i = 0; i < TREND_DAYS; i++) {
+            LocalDate date = from.plusDays(i);
+            trend.put(date, new DailyNutritionDTO(userId, date, null, 0L));
+        }
+        List<DailyNutritionDTO> meals = new ArrayList<>();
+        for (DailyNutritionDTO day : days) {
+            trend.get(day.getNutritionDate()).add(day);
+            if (day.getNutritionDate().equals(dashboard.getDate())) {
+                meals.add(day);
+            }
+        }
+        dashboard.setToday(trend.get(dashboard.getDate()));
+        dashboard.setMeals(meals);
+        dashboard.setTrend(new ArrayList<>(trend.values()));
+    }
+}
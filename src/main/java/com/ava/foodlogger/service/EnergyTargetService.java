@@ -0,0 +1,180 @@
+package com.ava.foodlogger.service;
+
+import com.ava.foodlogger.domain.AppUser;
+import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.GoalWeight;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.domain.enumeration.ActivityLevel;
+import com.ava.foodlogger.repository.AppUserRepository;
+import com.ava.foodlogger.repository.CurrentWeightRepository;
+import com.ava.foodlogger.repository.GoalWeightRepository;
+import com.ava.foodlogger.service.dto.EnergyTargetsDTO;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service computing the daily energy and macro targets of the users, from their {@link AppUser} profile and their
+ * latest {@link CurrentWeight} and {@link GoalWeight}, with the weights in kg and the height in cm.
+ * <p>
+ * The basal metabolic rate is the Mifflin-St Jeor equation. The profile has no sex, so its constant is the midpoint of
+ * the male and female ones. The total daily energy expenditure is the basal rate times the factor of the activity
+ * level, plus the workouts of the week at {@value #WORKOUT_MET} METs, spread over its days. The calories target is a
+ * deficit or a surplus towards the goal weight, never below the basal rate, split in {@value #PROTEINS_PER_KG} g of
+ * proteins per kg, {@value #FAT_SHARE} of the calories from fat and the carbohydrates for the rest.
+ * <p>
+ * The targets are cached per user id in the {@value #ENERGY_TARGETS_BY_USER_ID_CACHE} cache, and only evicted by
+ * {@link #evict(User)} when one of their inputs is written. The entries still expire with the time to live of the
+ * region, which bounds how late the birthday of a user is taken into account.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EnergyTargetService {
+
+    public static final String ENERGY_TARGETS_BY_USER_ID_CACHE = "energyTargetsByUserId";
+
+    /** Mifflin-St Jeor constant without a sex, between the male +5 and the female -161. */
+    private static final double BMR_CONSTANT = -78;
+
+    private static final double WORKOUT_MET = 6;
+
+    private static final double PROTEINS_PER_KG = 1.6;
+
+    private static final double FAT_SHARE = 0.25;
+
+    /** Daily deficit to lose about 0.5 kg per week. */
+    private static final double DEFICIT = 500;
+
+    /** Daily surplus to gain weight without gaining mostly fat. */
+    private static final double SURPLUS = 250;
+
+    /** Difference with the goal weight below which the target is to maintain the weight. */
+    private static final double GOAL_TOLERANCE = 0.5;
+
+    private final Logger log = LoggerFactory.getLogger(EnergyTargetService.class);
+
+    private final AppUserRepository appUserRepository;
+
+    private final CurrentWeightRepository currentWeightRepository;
+
+    private final GoalWeightRepository goalWeightRepository;
+
+    private final CacheManager cacheManager;
+
+    public EnergyTargetService(
+        AppUserRepository appUserRepository,
+        CurrentWeightRepository currentWeightRepository,
+        GoalWeightRepository goalWeightRepository,
+        CacheManager cacheManager
+    ) {
+        this.appUserRepository = appUserRepository;
+        this.currentWeightRepository = currentWeightRepository;
+        this.goalWeightRepository = goalWeightRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the targets of a user.
+     *
+     * @param userId the id of the user.
+     * @return the targets, or empty if the user has no profile, no date of birth or no current weight.
+     */
+    @Cacheable(cacheNames = ENERGY_TARGETS_BY_USER_ID_CACHE)
+    public Optional<EnergyTargetsDTO> findByUserId(Long userId) {
+        log.debug("Computing the energy targets of user {}", userId);
+        Optional<AppUser> appUser = appUserRepository.findOneByUserId(userId);
+        Optional<CurrentWeight> currentWeight = currentWeightRepository.findLatestByUserId(userId);
+        if (appUser.isEmpty() || currentWeight.isEmpty()) {
+            return Optional.empty();
+        }
+        Float goalWeight = goalWeightRepository
+            .findLatestByUserId(userId)
+            .map(GoalWeight::getWeight)
+            .orElse(null);
+        return compute(userId, appUser.get(), currentWeight.get().getWeight(), goalWeight, LocalDate.now());
+    }
+
+    static Optional<EnergyTargetsDTO> compute(Long userId, AppUser appUser, Float weight, Float goalWeight, LocalDate today) {
+        if (appUser.getHeight() == null || appUser.getDateOfBirth() == null || weight == null) {
+            return Optional.empty();
+        }
+        int age = Period.between(appUser.getDateOfBirth(), today).getYears();
+        double bmr = 10 * weight + 6.25 * appUser.getHeight() - 5 * age + BMR_CONSTANT;
+        double activityFactor = activityFactor(Objects.requireNonNullElse(appUser.getActivityLevel(), ActivityLevel.Sedentary));
+        int workouts = Objects.requireNonNullElse(appUser.getWorkoutsPerWeek(), 0);
+        int minutesPerWorkout = Objects.requireNonNullElse(appUser.getMinutesPerWorkout(), 0);
+        // The minutes of workout per day, at MET * 3.5 * kg / 200 kcal per minute
+        double tdee = bmr * activityFactor + workouts * minutesPerWorkout / 7d * WORKOUT_MET * 3.5 * weight / 200;
+
+        double calories = tdee;
+        if (goalWeight != null && goalWeight < weight - GOAL_TOLERANCE) {
+            calories = Math.max(bmr, tdee - DEFICIT);
+        } else if (goalWeight != null && goalWeight > weight + GOAL_TOLERANCE) {
+            calories = tdee + SURPLUS;
+        }
+        double proteins = PROTEINS_PER_KG * weight;
+        double fat = calories * FAT_SHARE / 9;
+
+        EnergyTargetsDTO targets = new EnergyTargetsDTO();
+        targets.setUserId(userId);
+        targets.setWeight(weight);
+        targets.setGoalWeight(goalWeight);
+        targets.setBmr(bmr);
+        targets.setTdee(tdee);
+        targets.setCalories(calories);
+        targets.setProteins(proteins);
+        targets.setFat(fat);
+        targets.setCarbohydrates(Math.max(0, (calories - 4 * proteins - 9 * fat) / 4));
+        return Optional.of(targets);
+    }
+
+    private static double activityFactor(ActivityLevel activityLevel) {
+        switch (activityLevel) {
+            case LightlyActive:
+                return 1.375;
+            case Active:
+                return 1.55;
+            case VeryActive:
+                return 1.725;
+            default:
+                return 1.2;
+        }
+    }
+
+    /**
+     * Evicts the targets of a user, when its profile or one of its weights is written.
+     * <p>
+     * They are evicted again once the transaction completes, as they may have been computed from the state before the
+     * change in the meantime.
+     *
+     * @param user the user, may be {@code null} or only hold an id.
+     */
+    public void evict(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Long userId = user.getId();
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(ENERGY_TARGETS_BY_USER_ID_CACHE));
+        cache.evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.evict(userId);
+                    }
+                }
+            );
+        }
+    }
+}
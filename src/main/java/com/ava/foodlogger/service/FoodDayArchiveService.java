@@ -0,0 +1,297 @@
+package com.ava.foodlogger.service;
+
+import com.ava.foodlogger.config.ApplicationProperties;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodDayArchive;
+import com.ava.foodlogger.domain.enumeration.MealType;
+import com.ava.foodlogger.repository.FoodDayArchiveRepository;
+import com.ava.foodlogger.service.dto.DailyNutritionDTO;
+import com.ava.foodlogger.service.dto.FoodDaySummaryDTO;
+import com.ava.foodlogger.service.dto.FoodDayViewDTO;
+import com.ava.foodlogger.service.dto.FoodDayViewEntryDTO;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import com.ava.foodlogger.service.maintenance.FoodDayArchivalJob;
+import com.ava.foodlogger.service.maintenance.MaintenanceJobRunner;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the archived food days, the cold tier of the {@link FoodDay}s.
+ * <p>
+ * The days older than {@code application.archive.horizon} are moved to the {@link FoodDayArchive} table every night by
+ * the {@link FoodDayArchivalJob}. The read methods return the archived days in the shape of the hot ones, so that the
+ * reads of a day fall through to the archive when it is no longer in {@code food_day}. The entries of an archived day
+ * keep the names and macros their foods had when it was archived.
+ * <p>
+ * Only the date ranges starting before the archived dates query the archive, so that reading the recent days costs no
+ * more than before.
+ */
+@Service
+@Transactional(readOnly = true)
+public class FoodDayArchiveService {
+
+    /** Orders the meal types like the {@code order by mealtype} of the queries on PostgreSQL, without a meal type last. */
+    private static final Comparator<MealType> MEALTYPE_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final Logger log = LoggerFactory.getLogger(FoodDayArchiveService.class);
+
+    private final FoodDayArchiveRepository foodDayArchiveRepository;
+
+    private final MaintenanceJobRunner maintenanceJobRunner;
+
+    private final FoodDayArchivalJob foodDayArchivalJob;
+
+    private final ObjectReader entriesReader;
+
+    private final Period horizon;
+
+    /**
+     * The newest archived date, as the horizon may have been longer when it was archived: read when first needed, then
+     * moved forward by the archival job as its chunks commit.
+     */
+    private LocalDate newestArchivedDate;
+
+    public FoodDayArchiveService(
+        FoodDayArchiveRepository foodDayArchiveRepository,
+        MaintenanceJobRunner maintenanceJobRunner,
+        FoodDayArchivalJob foodDayArchivalJob,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.foodDayArchiveRepository = foodDayArchiveRepository;
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.foodDayArchivalJob = foodDayArchivalJob;
+        this.entriesReader = objectMapper.readerFor(new TypeReference<List<FoodDayViewEntryDTO>>() {});
+        this.horizon = applicationProperties.getArchive().getHorizon();
+    }
+
+    /**
+     * Archives the food days older than the horizon.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:30 (am).
+     *
+     * @return the number of days archived.
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long archiveOldFoodDays() {
+        return maintenanceJobRunner.run(foodDayArchivalJob);
+    }
+
+    /**
+     * Reads the newest archived date on startup, rather than on the first read of a date range.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadNewestArchivedDate() {
+        newestArchivedDate();
+    }
+
+    /**
+     * Moves the newest archived date forward, once days archived up to a date are committed.
+     *
+     * @param createdDate the newest date of the archived days.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public synchronized void archivedUpTo(LocalDate createdDate) {
+        // When not read yet, it is read later along with the newly archived days
+        if (newestArchivedDate != null && createdDate.isAfter(newestArchivedDate)) {
+            newestArchivedDate = createdDate;
+        }
+    }
+
+    private synchronized LocalDate newestArchivedDate() {
+        if (newestArchivedDate == null) {
+            newestArchivedDate = foodDayArchiveRepository.findNewestCreatedDate().orElse(LocalDate.MIN);
+            log.debug("Newest archived food day is from {}", newestArchivedDate);
+        }
+        return newestArchivedDate;
+    }
+
+    /**
+     * @return whether days created on or after {@code from} may be archived.
+     */
+    private boolean mayBeArchived(LocalDate from) {
+        return from.isBefore(LocalDate.now().minus(horizon)) || !from.isAfter(newestArchivedDate());
+    }
+
+    /**
+     * Get an archived food day, without its entries.
+     *
+     * @param id the id of the food day.
+     * @return the food day, or empty if it is not archived.
+     */
+    public Optional<FoodDay> findOne(Long id) {
+        return foodDayArchiveRepository.findById(id).map(FoodDayArchiveService::toFoodDay);
+    }
+
+    /**
+     * Get the archived food days of the current user in a date range, most recent first.
+     *
+     * @param from the first day, inclusive.
+     * @param to the last day, inclusive.
+     * @return the food days, without their entries.
+     */
+    public List<FoodDay> findAllForCurrentUser(LocalDate from, LocalDate to) {
+        if (!mayBeArchived(from)) {
+            return List.of();
+        }
+        return foodDayArchiveRepository
+            .findByUserIsCurrentUserAndCreatedDateBetween(from, to)
+            .stream()
+            .map(FoodDayArchiveService::toFoodDay)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the view of an archived food day.
+     *
+     * @param id the id of the food day.
+     * @return the day view, or empty if the day is not archived.
+     */
+    public Optional<FoodDayViewDTO> findView(Long id) {
+        return foodDayArchiveRepository
+            .findById(id)
+            .map(archive -> new FoodDayViewDTO(archive.getId(), archive.getCreatedDate(), readEntries(archive)));
+    }
+
+    /**
+     * Get the nutrition totals of an archived food day.
+     *
+     * @param id the id of the food day.
+     * @return the summary, or empty if the day is not archived.
+     */
+    public Optional<FoodDaySummaryDTO> findSummary(Long id) {
+        return foodDayArchiveRepository
+            .findById(id)
+            .map(archive -> new FoodDaySummaryDTO(archive.getId(), archive.getCreatedDate(), sumByMealtype(readEntries(archive))));
+    }
+
+    /**
+     * Adds the archived days of the current user to the nutrition totals of a date.
+     *
+     * @param date the date.
+     * @param meals the totals of the hot days of the date, per meal type.
+     * @return the totals of all the days of the date, per meal type.
+     */
+    public List<NutritionTotalsDTO> addNutritionForCurrentUser(LocalDate date, List<NutritionTotalsDTO> meals) {
+        if (!mayBeArchived(date)) {
+            return meals;
+        }
+        List<FoodDayViewEntryDTO> entries = foodDayArchiveRepository
+            .findByUserIsCurrentUserAndCreatedDateBetween(date, date)
+            .stream()
+            .flatMap(archive -> readEntries(archive).stream())
+            .collect(Collectors.toList());
+        if (entries.isEmpty()) {
+            return meals;
+        }
+        Map<MealType, NutritionTotalsDTO> totals = new TreeMap<>(MEALTYPE_ORDER);
+        meals.forEach(meal -> totals.merge(meal.getMealtype(), meal, NutritionTotalsDTO::add));
+        sumByMealtype(entries).forEach(meal -> totals.merge(meal.getMealtype(), meal, NutritionTotalsDTO::add));
+        return new ArrayList<>(totals.values());
+    }
+
+    /**
+     * Sums the archived entries of some users per day and meal type, like {@code FoodEntryRepository} does for the hot
+     * ones.
+     *
+     * @param userIds the ids of the users.
+     * @return the totals of the archived days.
+     */
+    public List<DailyNutritionDTO> sumDailyNutritionByUserIdIn(Collection<Long> userIds) {
+        return sumDailyNutrition(foodDayArchiveRepository.findAllByUserIdIn(userIds));
+    }
+
+    /**
+     * Sums the archived entries of a user on a day per meal type.
+     *
+     * @param userId the id of the user.
+     * @param createdDate the day.
+     * @return the totals of the archived days.
+     */
+    public List<DailyNutritionDTO> sumDailyNutritionByUserIdAndCreatedDate(Long userId, LocalDate createdDate) {
+        return sumDailyNutrition(foodDayArchiveRepository.findAllByUserIdAndCreatedDate(userId, createdDate));
+    }
+
+    private List<DailyNutritionDTO> sumDailyNutrition(List<FoodDayArchive> archives) {
+        Map<List<Object>, DailyNutritionDTO> days = new LinkedHashMap<>();
+        for (FoodDayArchive archive : archives) {
+            if (archive.getUser() == null || archive.getCreatedDate() == null) {
+                continue;
+            }
+            Long userId = archive.getUser().getId();
+            for (NutritionTotalsDTO meal : sumByMealtype(readEntries(archive))) {
+                DailyNutritionDTO day = new DailyNutritionDTO(userId, archive.getCreatedDate(), meal.getMealtype(), 0L);
+                day.add(meal);
+                days.merge(Arrays.asList(userId, archive.getCreatedDate(), meal.getMealtype()), day, (merged, other) -> {
+                    merged.add(other);
+                    return merged;
+                });
+            }
+        }
+        return new ArrayList<>(days.values());
+    }
+
+    /**
+     * Sums the entries with a food per meal type, like {@code FoodEntryRepository.sumNutritionByFoodDayId}.
+     */
+    private static List<NutritionTotalsDTO> sumByMealtype(List<FoodDayViewEntryDTO> entries) {
+        Map<MealType, NutritionTotalsDTO> totals = new TreeMap<>(MEALTYPE_ORDER);
+        for (FoodDayViewEntryDTO entry : entries) {
+            if (entry.getFoodId() == null) {
+                continue;
+            }
+            NutritionTotalsDTO meal = new NutritionTotalsDTO(
+                entry.getMealtype(),
+                1L,
+                toDouble(entry.getCalories()),
+                toDouble(entry.getCarbohydrates()),
+                toDouble(entry.getProteins()),
+                toDouble(entry.getFat()),
+                toDouble(entry.getSodium())
+            );
+            totals.merge(entry.getMealtype(), meal, NutritionTotalsDTO::add);
+        }
+        return new ArrayList<>(totals.values());
+    }
+
+    private static Double toDouble(Float value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    private List<FoodDayViewEntryDTO> readEntries(FoodDayArchive archive) {
+        if (archive.getEntries() == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return entriesReader.readValue(archive.getEntries());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read the entries of archived food day " + archive.getId(), e);
+        }
+    }
+
+    private static FoodDay toFoodDay(FoodDayArchive archive) {
+        FoodDay foodDay = new FoodDay()
+            .id(archive.getId())
+            .version(archive.getVersion())
+            .createdDate(archive.getCreatedDate())
+            .user(archive.getUser());
+        // Like the lazy entries of a hot day, which are not serialized
+        foodDay.setFoodEntries(null);
+        return foodDay;
+    }
+}
@@ -0,0 +1,288 @@
+package com.ava.foodlogger.service;
+
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.service.dto.FoodImportErrorDTO;
+import com.ava.foodlogger.service.dto.FoodImportReportDTO;
+import com.ava.foodlogger.service.importer.FoodImportFormat;
+import com.ava.foodlogger.service.importer.FoodRecord;
+import com.ava.foodlogger.service.importer.FoodRecordReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for the bulk import of food databases, such as the public nutrient databases.
+ * <p>
+ * The database is parsed one row at a time, so that it is never held in memory. Each row is validated against the
+ * constraints of {@link Food}, and skipped if a food with the same name already exists or came earlier in the
+ * database. The remaining foods are written with plain JDBC, bypassing the persistence context, one transaction per
+ * batch: with {@code COPY} on PostgreSQL, with batched inserts elsewhere. Progress is logged after each batch, and a
+ * failed import keeps the batches written before the failure.
+ */
+@Service
+public class FoodImportService {
+
+    /** Number of foods written per transaction. */
+    private static final int BATCH_SIZE = 5_000;
+
+    /** Allocation size of the {@code @SequenceGenerator} of the entities, which is also the increment of the sequence. */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String ID_SEQUENCE = "sequence_generator";
+
+    /** Length of the {@code name} column, which {@link Food} does not validate. */
+    private static final int NAME_MAX_LENGTH = 255;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String COLUMNS = "id, version, name, calories, carbohydrates, proteins, fat, sodium";
+
+    private static final String INSERT = "insert into food (" + COLUMNS + ") values (?, 0, ?, ?, ?, ?, ?, ?)";
+
+    private static final String COPY = "copy food (" + COLUMNS + ") from stdin with (format csv)";
+
+    private final Logger log = LoggerFactory.getLogger(FoodImportService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String nextIdQuery;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final FoodSearchService foodSearchService;
+
+    public FoodImportService(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        Validator validator,
+        ObjectMapper objectMapper,
+        FoodSearchService foodSearchService
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(BATCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nextIdQuery =
+            entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceNextValString(ID_SEQUENCE);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.foodSearchService = foodSearchService;
+    }
+
+    /**
+     * Imports a food database.
+     *
+     * @param input the database, read as it is imported.
+     * @param format the format of the database.
+     * @return the report of the import.
+     * @throws IOException if the database cannot be read.
+     * @throws InvalidFoodImportException if the database is malformed, after importing the rows before the error.
+     */
+    public FoodImportReportDTO importFoods(InputStream input, FoodImportFormat format) throws IOException {
+        log.info("Importing foods from {}", format);
+        long start = System.currentTimeMillis();
+        Set<String> names = existingNames();
+        boolean copy = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class)));
+        FoodImportReportDTO report = new FoodImportReportDTO();
+        List<Food> batch = new ArrayList<>(BATCH_SIZE);
+        try (FoodRecordReader reader = format.open(input, objectMapper)) {
+            for (FoodRecord record = reader.next(); record != null; record = reader.next()) {
+                report.setRows(report.getRows() + 1);
+                String error = validate(record);
+                if (error != null) {
+                    reject(report, record.getLine(), error);
+                } else if (!names.add(record.getFood().getName())) {
+                    report.setDuplicates(report.getDuplicates() + 1);
+                } else {
+                    batch.add(record.getFood());
+                    if (batch.size() == BATCH_SIZE) {
+                        write(batch, copy, report);
+                    }
+                }
+            }
+            write(batch, copy, report);
+        } finally {
+            log.info("Imported foods in {} ms: {}", System.currentTimeMillis() - start, report);
+        }
+        return report;
+    }
+
+    private Set<String> existingNames() {
+        Set<String> names = new HashSet<>();
+        // In a transaction, so that PostgreSQL streams the names with a cursor
+        RowCallbackHandler addName = rs -> names.add(rs.getString(1));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query("select name from food", addName));
+        return names;
+    }
+
+    /**
+     * @return why the row is not a valid food, or {@code null} if it is one.
+     */
+    private String validate(FoodRecord record) {
+        if (record.getError() != null) {
+            return record.getError();
+        }
+        Set<ConstraintViolation<Food>> violations = validator.validate(record.getFood());
+        if (!violations.isEmpty()) {
+            return violations
+                .stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        }
+        if (record.getFood().getName().length() > NAME_MAX_LENGTH) {
+            return "name: size must be at most " + NAME_MAX_LENGTH;
+        }
+        return nonFinite(record.getFood());
+    }
+
+    /**
+     * @return why a nutrient is not finite, or {@code null} if they all are: JSON binds {@code "NaN"} and
+     * {@code "Infinity"} to floats, and the bean validation constraints let them through.
+     */
+    private static String nonFinite(Food food) {
+        Map<String, Float> nutrients = new LinkedHashMap<>();
+        nutrients.put("calories", food.getCalories());
+        nutrients.put("carbohydrates", food.getCarbohydrates());
+        nutrients.put("proteins", food.getProteins());
+        nutrients.put("fat", food.getFat());
+        nutrients.put("sodium", food.getSodium());
+        return nutrients
+            .entrySet()
+            .stream()
+            .filter(nutrient -> nutrient.getValue() != null && !Float.isFinite(nutrient.getValue()))
+            .map(nutrient -> nutrient.getKey() + ": must be a finite number")
+            .findFirst()
+            .orElse(null);
+    }
+
+    private void reject(FoodImportReportDTO report, long line, String error) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            log.warn("Rejected the food on line {}: {}", line, error);
+            report.getErrors().add(new FoodImportErrorDTO(line, error));
+        }
+    }
+
+    private void write(List<Food> batch, boolean copy, FoodImportReportDTO report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(
+            status -> {
+                assignIds(batch);
+                if (copy) {
+                    copy(batch);
+                } else {
+                    insert(batch);
+                }
+            }
+        );
+        batch.forEach(foodSearchService::index);
+        report.setImported(report.getImported() + batch.size());
+        log.info(
+            "Imported {} foods from {} rows, {} duplicates, {} rejected",
+            report.getImported(),
+            report.getRows(),
+            report.getDuplicates(),
+            report.getRejected()
+        );
+        batch.clear();
+    }
+
+    /**
+     * Assigns ids the way the pooled optimizer of Hibernate does: each value of the sequence reserves the
+     * {@link #ID_ALLOCATION_SIZE} ids up to it, so that the ids never collide with the ones Hibernate assigns.
+     */
+    private void assignIds(List<Food> batch) {
+        long id = 0;
+        long last = -1;
+        for (Food food : batch) {
+            if (id > last) {
+                last = Objects.requireNonNull(jdbcTemplate.queryForObject(nextIdQuery, Long.class));
+                id = last - ID_ALLOCATION_SIZE + 1;
+            }
+            food.setId(id++);
+            food.setVersion(0);
+        }
+    }
+
+    private void insert(List<Food> batch) {
+        jdbcTemplate.batchUpdate(
+            INSERT,
+            batch,
+            batch.size(),
+            (ps, food) -> {
+                ps.setLong(1, food.getId());
+                ps.setString(2, food.getName());
+                ps.setFloat(3, food.getCalories());
+                ps.setFloat(4, food.getCarbohydrates());
+                ps.setFloat(5, food.getProteins());
+                ps.setFloat(6, food.getFat());
+                ps.setFloat(7, food.getSodium());
+            }
+        );
+    }
+
+    private void copy(List<Food> batch) {
+        StringBuilder rows = new StringBuilder();
+        for (Food food : batch) {
+            rows
+                .append(food.getId())
+                .append(",0,\"")
+                .append(food.getName().replace("\"", "\"\""))
+                .append("\",")
+                .append(food.getCalories())
+                .append(',')
+                .append(food.getCarbohydrates())
+                .append(',')
+                .append(food.getProteins())
+                .append(',')
+                .append(food.getFat())
+                .append(',')
+                .append(food.getSodium())
+                .append('\n');
+        }
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>) con -> {
+                try {
+                    return con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY, new StringReader(rows.toString()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,105 @@
+package com.ava.foodlogger.service;
+
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.service.search.FoodSearchIndex;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service for the typeahead search of {@link Food}, backed by an in-memory {@link FoodSearchIndex}.
+ * <p>
+ * The index is built when the application starts, and kept up to date by the resource changing foods. Within a
+ * transaction, the changes are applied to the index once it commits, so that a rolled back change is never searchable.
+ */
+@Service
+public class FoodSearchService {
+
+    private static final int LOAD_CHUNK_SIZE = 1_000;
+
+    private final Logger log = LoggerFactory.getLogger(FoodSearchService.class);
+
+    private final FoodSearchIndex index = new FoodSearchIndex();
+
+    private final FoodRepository foodRepository;
+
+    public FoodSearchService(FoodRepository foodRepository) {
+        this.foodRepository = foodRepository;
+    }
+
+    /**
+     * Loads every food into the index, one chunk at a time.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        log.info("Building the food search index");
+        long start = System.currentTimeMillis();
+        for (List<Food> foods = nextFoods(Long.MIN_VALUE); !foods.isEmpty(); foods = nextFoods(foods.get(foods.size() - 1).getId())) {
+            foods.forEach(this::index);
+        }
+        log.info("Built the food search index with {} foods in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    private List<Food> nextFoods(Long after) {
+        return foodRepository.findAllAfter(after, PageRequest.of(0, LOAD_CHUNK_SIZE));
+    }
+
+    /**
+     * Adds or updates a food in the index, after the commit of the current transaction if any.
+     *
+     * @param food the saved food.
+     */
+    public void index(Food food) {
+        Long id = food.getId();
+        String name = food.getName();
+        afterCommit(() -> index.put(id, name));
+    }
+
+    /**
+     * Removes a food from the index, after the commit of the current transaction if any.
+     *
+     * @param id the id of the deleted food.
+     */
+    public void remove(Long id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * Searches the foods whose name matches a query.
+     *
+     * @param query the text typed by the user.
+     * @param limit the maximum number of results.
+     * @return the best matching foods, best match first.
+     */
+    public List<Food> search(String query, int limit) {
+        List<Long> ids = index.search(query, limit);
+        Map<Long, Food> foods = foodRepository.findAllById(ids).stream().collect(Collectors.toMap(Food::getId, Function.identity()));
+        return ids.stream().map(foods::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,13 @@
+package com.ava.foodlogger.service;
+
+/**
+ * Thrown when an imported food database cannot be read at all, as opposed to rows which are rejected one by one.
+ */
+public class InvalidFoodImportException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidFoodImportException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ava.foodlogger.service;
 
 import com.ava.foodlogger.config.Constants;
+import com.ava.foodlogger.config.datasource.ReplicaRoutingDataSource;
 import com.ava.foodlogger.domain.Authority;
 import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.AuthorityRepository;
@@ -9,18 +10,21 @@ import com.ava.foodlogger.security.AuthoritiesConstants;
 import com.ava.foodlogger.security.SecurityUtils;
 import com.ava.foodlogger.service.dto.AdminUserDTO;
 import com.ava.foodlogger.service.dto.UserDTO;
+import com.ava.foodlogger.service.maintenance.MaintenanceJobRunner;
+import com.ava.foodlogger.service.maintenance.NotActivatedUsersRemovalJob;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -41,16 +45,28 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final MaintenanceJobRunner maintenanceJobRunner;
+
+    private final NotActivatedUsersRemovalJob notActivatedUsersRemovalJob;
+
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        MaintenanceJobRunner maintenanceJobRunner,
+        NotActivatedUsersRemovalJob notActivatedUsersRemovalJob,
+        ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.maintenanceJobRunner = maintenanceJobRunner;
+        this.notActivatedUsersRemovalJob = notActivatedUsersRemovalJob;
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -312,19 +328,13 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am), and runs in chunks committed one at a time, see
+     * {@link NotActivatedUsersRemovalJob}.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(
-                user -> {
-                    log.debug("Deleting not activated user {}", user.getLogin());
-                    userRepository.delete(user);
-                    this.clearUserCaches(user);
-                }
-            );
+        maintenanceJobRunner.run(notActivatedUsersRemovalJob);
     }
 
     /**
@@ -341,5 +351,7 @@ public class UserService {
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
+        // The user may not be the current one, e.g. when activating their account, so that their next reads see it
+        replicaRoutingDataSource.ifAvailable(dataSource -> dataSource.recordWriteOf(user.getLogin()));
     }
 }
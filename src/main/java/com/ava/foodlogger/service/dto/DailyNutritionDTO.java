@@ -0,0 +1,76 @@
+package com.ava.foodlogger.service.dto;
+
+import com.ava.foodlogger.domain.enumeration.MealType;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing the nutrition totals of one user for one day and one meal type.
+ */
+public class DailyNutritionDTO extends NutritionTotalsDTO {
+
+    private Long userId;
+
+    private LocalDate nutritionDate;
+
+    public DailyNutritionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by JPQL constructor expressions.
+     */
+    public DailyNutritionDTO(
+        Long userId,
+        LocalDate nutritionDate,
+        MealType mealtype,
+        Long entryCount,
+        Double calories,
+        Double carbohydrates,
+        Double proteins,
+        Double fat,
+        Double sodium
+    ) {
+        super(mealtype, entryCount, calories, carbohydrates, proteins, fat, sodium);
+        this.userId = userId;
+        this.nutritionDate = nutritionDate;
+    }
+
+    /**
+     * Constructor used by JPQL constructor expressions which only count entries.
+     */
+    public DailyNutritionDTO(Long userId, LocalDate nutritionDate, MealType mealtype, Long entryCount) {
+        this(userId, nutritionDate, mealtype, entryCount, null, null, null, null, null);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getNutritionDate() {
+        return nutritionDate;
+    }
+
+    public void setNutritionDate(LocalDate nutritionDate) {
+        this.nutritionDate = nutritionDate;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DailyNutritionDTO{" +
+            "userId=" + userId +
+            ", nutritionDate='" + nutritionDate + '\'' +
+            ", mealtype='" + getMealtype() + '\'' +
+            ", entryCount=" + getEntryCount() +
+            ", calories=" + getCalories() +
+            ", carbohydrates=" + getCarbohydrates() +
+            ", proteins=" + getProteins() +
+            ", fat=" + getFat() +
+            ", sodium=" + getSodium() +
+            "}";
+    }
+}
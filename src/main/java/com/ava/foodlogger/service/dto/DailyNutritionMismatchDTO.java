@@ -0,0 +1,51 @@
+package com.ava.foodlogger.service.dto;
+
+/**
+ * A DTO describing a daily nutrition row whose stored value differs from a from-scratch recomputation.
+ */
+public class DailyNutritionMismatchDTO {
+
+    private DailyNutritionDTO expected;
+
+    private DailyNutritionDTO actual;
+
+    public DailyNutritionMismatchDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DailyNutritionMismatchDTO(DailyNutritionDTO expected, DailyNutritionDTO actual) {
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * @return the recomputed totals, or {@code null} if a row is stored but no entries exist for it.
+     */
+    public DailyNutritionDTO getExpected() {
+        return expected;
+    }
+
+    public void setExpected(DailyNutritionDTO expected) {
+        this.expected = expected;
+    }
+
+    /**
+     * @return the stored totals, or {@code null} if entries exist but no row is stored for them.
+     */
+    public DailyNutritionDTO getActual() {
+        return actual;
+    }
+
+    public void setActual(DailyNutritionDTO actual) {
+        this.actual = actual;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DailyNutritionMismatchDTO{" +
+            "expected=" + expected +
+            ", actual=" + actual +
+            "}";
+    }
+}
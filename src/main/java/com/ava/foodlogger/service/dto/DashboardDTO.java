@@ -0,0 +1,116 @@
+package com.ava.foodlogger.service.dto;
+
+import com.ava.foodlogger.domain.AppUser;
+import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.GoalWeight;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the dashboard of a user: the intake of the day and of the last days, the weights and the profile.
+ */
+public class DashboardDTO {
+
+    private LocalDate date;
+
+    /** Totals of the day, over all the meal types. */
+    private DailyNutritionDTO today;
+
+    /** Totals of the day per meal type. */
+    private List<DailyNutritionDTO> meals = new ArrayList<>();
+
+    /** Totals of the last days, oldest first, with the days without entries. */
+    private List<DailyNutritionDTO> trend = new ArrayList<>();
+
+    private CurrentWeight currentWeight;
+
+    private GoalWeight goalWeight;
+
+    private AppUser profile;
+
+    private EnergyTargetsDTO targets;
+
+    public DashboardDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public DailyNutritionDTO getToday() {
+        return today;
+    }
+
+    public void setToday(DailyNutritionDTO today) {
+        this.today = today;
+    }
+
+    public List<DailyNutritionDTO> getMeals() {
+        return meals;
+    }
+
+    public void setMeals(List<DailyNutritionDTO> meals) {
+        this.meals = meals;
+    }
+
+    public List<DailyNutritionDTO> getTrend() {
+        return trend;
+    }
+
+    public void setTrend(List<DailyNutritionDTO> trend) {
+        this.trend = trend;
+    }
+
+    public CurrentWeight getCurrentWeight() {
+        return currentWeight;
+    }
+
+    public void setCurrentWeight(CurrentWeight currentWeight) {
+        this.currentWeight = currentWeight;
+    }
+
+    public GoalWeight getGoalWeight() {
+        return goalWeight;
+    }
+
+    public void setGoalWeight(GoalWeight goalWeight) {
+        this.goalWeight = goalWeight;
+    }
+
+    public AppUser getProfile() {
+        return profile;
+    }
+
+    public void setProfile(AppUser profile) {
+        this.profile = profile;
+    }
+
+    public EnergyTargetsDTO getTargets() {
+        return targets;
+    }
+
+    public void setTargets(EnergyTargetsDTO targets) {
+        this.targets = targets;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DashboardDTO{" +
+            "date='" + date + '\'' +
+            ", today=" + today +
+            ", meals=" + meals +
+            ", trend=" + trend +
+            ", currentWeight=" + currentWeight +
+            ", goalWeight=" + goalWeight +
+            ", profile=" + profile +
+            ", targets=" + targets +
+            "}";
+    }
+}
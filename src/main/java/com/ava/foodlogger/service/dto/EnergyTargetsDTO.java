@@ -0,0 +1,127 @@
+package com.ava.foodlogger.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the daily energy and macro targets of a user, computed from its profile and weights.
+ */
+public class EnergyTargetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+
+    private float weight;
+
+    private Float goalWeight;
+
+    /** Basal metabolic rate, in kcal per day. */
+    private double bmr;
+
+    /** Total daily energy expenditure, in kcal per day. */
+    private double tdee;
+
+    /** Calories to eat per day, to move towards the goal weight. */
+    private double calories;
+
+    /** Grams of proteins per day. */
+    private double proteins;
+
+    /** Grams of carbohydrates per day. */
+    private double carbohydrates;
+
+    /** Grams of fat per day. */
+    private double fat;
+
+    public EnergyTargetsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+
+    public void setWeight(float weight) {
+        this.weight = weight;
+    }
+
+    public Float getGoalWeight() {
+        return goalWeight;
+    }
+
+    public void setGoalWeight(Float goalWeight) {
+        this.goalWeight = goalWeight;
+    }
+
+    public double getBmr() {
+        return bmr;
+    }
+
+    public void setBmr(double bmr) {
+        this.bmr = bmr;
+    }
+
+    public double getTdee() {
+        return tdee;
+    }
+
+    public void setTdee(double tdee) {
+        this.tdee = tdee;
+    }
+
+    public double getCalories() {
+        return calories;
+    }
+
+    public void setCalories(double calories) {
+        this.calories = calories;
+    }
+
+    public double getProteins() {
+        return proteins;
+    }
+
+    public void setProteins(double proteins) {
+        this.proteins = proteins;
+    }
+
+    public double getCarbohydrates() {
+        return carbohydrates;
+    }
+
+    public void setCarbohydrates(double carbohydrates) {
+        this.carbohydrates = carbohydrates;
+    }
+
+    public double getFat() {
+        return fat;
+    }
+
+    public void setFat(double fat) {
+        this.fat = fat;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "EnergyTargetsDTO{" +
+            "userId=" + userId +
+            ", weight=" + weight +
+            ", goalWeight=" + goalWeight +
+            ", bmr=" + bmr +
+            ", tdee=" + tdee +
+            ", calories=" + calories +
+            ", proteins=" + proteins +
+            ", carbohydrates=" + carbohydrates +
+            ", fat=" + fat +
+            "}";
+    }
+}
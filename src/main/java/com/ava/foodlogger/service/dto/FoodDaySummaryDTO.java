@@ -0,0 +1,73 @@
+package com.ava.foodlogger.service.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the nutrition rollup of a {@link com.ava.foodlogger.domain.FoodDay}, per meal type and in total.
+ */
+public class FoodDaySummaryDTO {
+
+    private Long foodDayId;
+
+    private LocalDate createdDate;
+
+    private List<NutritionTotalsDTO> meals = new ArrayList<>();
+
+    private NutritionTotalsDTO total = new NutritionTotalsDTO();
+
+    public FoodDaySummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FoodDaySummaryDTO(Long foodDayId, LocalDate createdDate, List<NutritionTotalsDTO> meals) {
+        this.foodDayId = foodDayId;
+        this.createdDate = createdDate;
+        this.meals = meals;
+        meals.forEach(total::add);
+    }
+
+    public Long getFoodDayId() {
+        return foodDayId;
+    }
+
+    public void setFoodDayId(Long foodDayId) {
+        this.foodDayId = foodDayId;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDate createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public List<NutritionTotalsDTO> getMeals() {
+        return meals;
+    }
+
+    public void setMeals(List<NutritionTotalsDTO> meals) {
+        this.meals = meals;
+    }
+
+    public NutritionTotalsDTO getTotal() {
+        return total;
+    }
+
+    public void setTotal(NutritionTotalsDTO total) {
+        this.total = total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodDaySummaryDTO{" +
+            "foodDayId=" + foodDayId +
+            ", createdDate='" + createdDate + '\'' +
+            ", meals=" + meals +
+            ", total=" + total +
+            "}";
+    }
+}
@@ -0,0 +1,78 @@
+package com.ava.foodlogger.service.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A DTO representing a {@link com.ava.foodlogger.domain.FoodDay} with all of its entries, as shown by the day view.
+ */
+public class FoodDayViewDTO {
+
+    private Long foodDayId;
+
+    private LocalDate createdDate;
+
+    private List<FoodDayViewEntryDTO> entries = new ArrayList<>();
+
+    public FoodDayViewDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FoodDayViewDTO(Long foodDayId, LocalDate createdDate, List<FoodDayViewEntryDTO> entries) {
+        this.foodDayId = foodDayId;
+        this.createdDate = createdDate;
+        this.entries = entries;
+    }
+
+    /**
+     * Assembles a day view from the rows of its projection query.
+     *
+     * @param rows the rows of one food day, as returned by {@code FoodDayRepository.findViewRowsById}.
+     * @return the day view, or empty if there are no rows, i.e. the food day does not exist.
+     */
+    public static Optional<FoodDayViewDTO> of(List<FoodDayViewEntryDTO> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        FoodDayViewEntryDTO first = rows.get(0);
+        List<FoodDayViewEntryDTO> entries = rows.stream().filter(row -> row.getId() != null).collect(Collectors.toList());
+        return Optional.of(new FoodDayViewDTO(first.getFoodDayId(), first.getFoodDayCreatedDate(), entries));
+    }
+
+    public Long getFoodDayId() {
+        return foodDayId;
+    }
+
+    public void setFoodDayId(Long foodDayId) {
+        this.foodDayId = foodDayId;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDate createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public List<FoodDayViewEntryDTO> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<FoodDayViewEntryDTO> entries) {
+        this.entries = entries;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodDayViewDTO{" +
+            "foodDayId=" + foodDayId +
+            ", createdDate='" + createdDate + '\'' +
+            ", entries=" + entries +
+            "}";
+    }
+}
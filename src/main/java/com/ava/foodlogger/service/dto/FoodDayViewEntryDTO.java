@@ -0,0 +1,187 @@
+package com.ava.foodlogger.service.dto;
+
+import com.ava.foodlogger.domain.enumeration.MealType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing one {@link com.ava.foodlogger.domain.FoodEntry} of a {@link FoodDayViewDTO}, with the name and
+ * macros of its food.
+ */
+public class FoodDayViewEntryDTO {
+
+    @JsonIgnore
+    private Long foodDayId;
+
+    @JsonIgnore
+    private LocalDate foodDayCreatedDate;
+
+    private Long id;
+
+    private MealType mealtype;
+
+    private LocalDate createdDate;
+
+    private Long foodId;
+
+    private String foodName;
+
+    private Float calories;
+
+    private Float carbohydrates;
+
+    private Float proteins;
+
+    private Float fat;
+
+    private Float sodium;
+
+    public FoodDayViewEntryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by JPQL constructor expressions. The columns of the food day are repeated on each row, and the
+     * columns of the entry are {@code null} on the single row of a day without entries.
+     */
+    public FoodDayViewEntryDTO(
+        Long foodDayId,
+        LocalDate foodDayCreatedDate,
+        Long id,
+        MealType mealtype,
+        LocalDate createdDate,
+        Long foodId,
+        String foodName,
+        Float calories,
+        Float carbohydrates,
+        Float proteins,
+        Float fat,
+        Float sodium
+    ) {
+        this.foodDayId = foodDayId;
+        this.foodDayCreatedDate = foodDayCreatedDate;
+        this.id = id;
+        this.mealtype = mealtype;
+        this.createdDate = createdDate;
+        this.foodId = foodId;
+        this.foodName = foodName;
+        this.calories = calories;
+        this.carbohydrates = carbohydrates;
+        this.proteins = proteins;
+        this.fat = fat;
+        this.sodium = sodium;
+    }
+
+    public Long getFoodDayId() {
+        return foodDayId;
+    }
+
+    public void setFoodDayId(Long foodDayId) {
+        this.foodDayId = foodDayId;
+    }
+
+    public LocalDate getFoodDayCreatedDate() {
+        return foodDayCreatedDate;
+    }
+
+    public void setFoodDayCreatedDate(LocalDate foodDayCreatedDate) {
+        this.foodDayCreatedDate = foodDayCreatedDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public MealType getMealtype() {
+        return mealtype;
+    }
+
+    public void setMealtype(MealType mealtype) {
+        this.mealtype = mealtype;
+    }
+
+    public LocalDate getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDate createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(Long foodId) {
+        this.foodId = foodId;
+    }
+
+    public String getFoodName() {
+        return foodName;
+    }
+
+    public void setFoodName(String foodName) {
+        this.foodName = foodName;
+    }
+
+    public Float getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Float calories) {
+        this.calories = calories;
+    }
+
+    public Float getCarbohydrates() {
+        return carbohydrates;
+    }
+
+    public void setCarbohydrates(Float carbohydrates) {
+        this.carbohydrates = carbohydrates;
+    }
+
+    public Float getProteins() {
+        return proteins;
+    }
+
+    public void setProteins(Float proteins) {
+        this.proteins = proteins;
+    }
+
+    public Float getFat() {
+        return fat;
+    }
+
+    public void setFat(Float fat) {
+        this.fat = fat;
+    }
+
+    public Float getSodium() {
+        return sodium;
+    }
+
+    public void setSodium(Float sodium) {
+        this.sodium = sodium;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodDayViewEntryDTO{" +
+            "id=" + id +
+            ", mealtype='" + mealtype + '\'' +
+            ", createdDate='" + createdDate + '\'' +
+            ", foodId=" + foodId +
+            ", foodName='" + foodName + '\'' +
+            ", calories=" + calories +
+            ", carbohydrates=" + carbohydrates +
+            ", proteins=" + proteins +
+            ", fat=" + fat +
+            ", sodium=" + sodium +
+            "}";
+    }
+}
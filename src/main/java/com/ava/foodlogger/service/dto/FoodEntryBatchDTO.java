@@ -0,0 +1,59 @@
+package com.ava.foodlogger.service.dto;
+
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+
+/**
+ * A DTO for creating many {@link FoodEntry} at once, optionally together with the {@link FoodDay} owning them.
+ */
+public class FoodEntryBatchDTO {
+
+    public static final int MAX_SIZE = 500;
+
+    private FoodDay foodDay;
+
+    @NotEmpty
+    @Size(max = MAX_SIZE)
+    private List<FoodEntry> foodEntries = new ArrayList<>();
+
+    public FoodEntryBatchDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FoodEntryBatchDTO(FoodDay foodDay, List<FoodEntry> foodEntries) {
+        this.foodDay = foodDay;
+        this.foodEntries = foodEntries;
+    }
+
+    /**
+     * @return the day of the entries which do not reference one: created if it has no id, or an existing day.
+     */
+    public FoodDay getFoodDay() {
+        return foodDay;
+    }
+
+    public void setFoodDay(FoodDay foodDay) {
+        this.foodDay = foodDay;
+    }
+
+    public List<FoodEntry> getFoodEntries() {
+        return foodEntries;
+    }
+
+    public void setFoodEntries(List<FoodEntry> foodEntries) {
+        this.foodEntries = foodEntries;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodEntryBatchDTO{" +
+            "foodDay=" + foodDay +
+            ", foodEntries=" + foodEntries.size() +
+            "}";
+    }
+}
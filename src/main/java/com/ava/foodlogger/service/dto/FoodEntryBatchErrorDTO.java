@@ -0,0 +1,60 @@
+package com.ava.foodlogger.service.dto;
+
+/**
+ * A DTO describing why one item of a {@link FoodEntryBatchDTO} was rejected.
+ */
+public class FoodEntryBatchErrorDTO {
+
+    private int index;
+
+    private String errorKey;
+
+    private String message;
+
+    public FoodEntryBatchErrorDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FoodEntryBatchErrorDTO(int index, String errorKey, String message) {
+        this.index = index;
+        this.errorKey = errorKey;
+        this.message = message;
+    }
+
+    /**
+     * @return the position of the rejected item in the batch.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(String errorKey) {
+        this.errorKey = errorKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodEntryBatchErrorDTO{" +
+            "index=" + index +
+            ", errorKey='" + errorKey + "'" +
+            ", message='" + message + "'" +
+            "}";
+    }
+}
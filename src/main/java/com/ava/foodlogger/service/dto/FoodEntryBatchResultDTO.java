@@ -0,0 +1,62 @@
+package com.ava.foodlogger.service.dto;
+
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a {@link FoodEntryBatchDTO}: the created entries and the rejected items.
+ */
+public class FoodEntryBatchResultDTO {
+
+    private FoodDay foodDay;
+
+    private List<FoodEntry> foodEntries = new ArrayList<>();
+
+    private List<FoodEntryBatchErrorDTO> errors = new ArrayList<>();
+
+    public FoodEntryBatchResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FoodEntryBatchResultDTO(FoodDay foodDay, List<FoodEntry> foodEntries, List<FoodEntryBatchErrorDTO> errors) {
+        this.foodDay = foodDay;
+        this.foodEntries = foodEntries;
+        this.errors = errors;
+    }
+
+    public FoodDay getFoodDay() {
+        return foodDay;
+    }
+
+    public void setFoodDay(FoodDay foodDay) {
+        this.foodDay = foodDay;
+    }
+
+    public List<FoodEntry> getFoodEntries() {
+        return foodEntries;
+    }
+
+    public void setFoodEntries(List<FoodEntry> foodEntries) {
+        this.foodEntries = foodEntries;
+    }
+
+    public List<FoodEntryBatchErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<FoodEntryBatchErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodEntryBatchResultDTO{" +
+            "foodDay=" + foodDay +
+            ", foodEntries=" + foodEntries.size() +
+            ", errors=" + errors +
+            "}";
+    }
+}
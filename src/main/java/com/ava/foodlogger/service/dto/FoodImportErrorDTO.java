@@ -0,0 +1,48 @@
+package com.ava.foodlogger.service.dto;
+
+/**
+ * A DTO describing why one row of an imported food database was rejected.
+ */
+public class FoodImportErrorDTO {
+
+    private long line;
+
+    private String message;
+
+    public FoodImportErrorDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FoodImportErrorDTO(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    /**
+     * @return the line the rejected row starts on.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodImportErrorDTO{" +
+            "line=" + line +
+            ", message='" + message + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,86 @@
+package com.ava.foodlogger.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of the import of a food database.
+ */
+public class FoodImportReportDTO {
+
+    private long rows;
+
+    private long imported;
+
+    private long duplicates;
+
+    private long rejected;
+
+    private List<FoodImportErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * @return the number of rows read.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * @return the number of foods created.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * @return the number of rows skipped because a food with the same name already exists, or came earlier.
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    /**
+     * @return the number of rows rejected because they are not valid foods.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return why the first rejected rows were rejected.
+     */
+    public List<FoodImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<FoodImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FoodImportReportDTO{" +
+            "rows=" + rows +
+            ", imported=" + imported +
+            ", duplicates=" + duplicates +
+            ", rejected=" + rejected +
+            "}";
+    }
+}
@@ -0,0 +1,138 @@
+package com.ava.foodlogger.service.dto;
+
+import com.ava.foodlogger.domain.enumeration.MealType;
+
+/**
+ * A DTO holding summed nutrition values, either for one {@link MealType} or for a whole day.
+ */
+public class NutritionTotalsDTO {
+
+    private MealType mealtype;
+
+    private long entryCount;
+
+    private double calories;
+
+    private double carbohydrates;
+
+    private double proteins;
+
+    private double fat;
+
+    private double sodium;
+
+    public NutritionTotalsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by JPQL constructor expressions, where {@code sum()} over a float column yields a {@link Double}.
+     */
+    public NutritionTotalsDTO(
+        MealType mealtype,
+        Long entryCount,
+        Double calories,
+        Double carbohydrates,
+        Double proteins,
+        Double fat,
+        Double sodium
+    ) {
+        this.mealtype = mealtype;
+        this.entryCount = entryCount == null ? 0L : entryCount;
+        this.calories = valueOf(calories);
+        this.carbohydrates = valueOf(carbohydrates);
+        this.proteins = valueOf(proteins);
+        this.fat = valueOf(fat);
+        this.sodium = valueOf(sodium);
+    }
+
+    private static double valueOf(Double value) {
+        return value == null ? 0d : value;
+    }
+
+    /**
+     * Adds the values of {@code other} to this instance.
+     *
+     * @param other the totals to add.
+     * @return this instance.
+     */
+    public NutritionTotalsDTO add(NutritionTotalsDTO other) {
+        this.entryCount += other.entryCount;
+        this.calories += other.calories;
+        this.carbohydrates += other.carbohydrates;
+        this.proteins += other.proteins;
+        this.fat += other.fat;
+        this.sodium += other.sodium;
+        return this;
+    }
+
+    public MealType getMealtype() {
+        return mealtype;
+    }
+
+    public void setMealtype(MealType mealtype) {
+        this.mealtype = mealtype;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public double getCalories() {
+        return calories;
+    }
+
+    public void setCalories(double calories) {
+        this.calories = calories;
+    }
+
+    public double getCarbohydrates() {
+        return carbohydrates;
+    }
+
+    public void setCarbohydrates(double carbohydrates) {
+        this.carbohydrates = carbohydrates;
+    }
+
+    public double getProteins() {
+        return proteins;
+    }
+
+    public void setProteins(double proteins) {
+        this.proteins = proteins;
+    }
+
+    public double getFat() {
+        return fat;
+    }
+
+    public void setFat(double fat) {
+        this.fat = fat;
+    }
+
+    public double getSodium() {
+        return sodium;
+    }
+
+    public void setSodium(double sodium) {
+        this.sodium = sodium;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NutritionTotalsDTO{" +
+            "mealtype='" + mealtype + '\'' +
+            ", entryCount=" + entryCount +
+            ", calories=" + calories +
+            ", carbohydrates=" + carbohydrates +
+            ", proteins=" + proteins +
+            ", fat=" + fat +
+            ", sodium=" + sodium +
+            "}";
+    }
+}
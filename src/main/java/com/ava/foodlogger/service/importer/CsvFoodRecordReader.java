@@ -0,0 +1,200 @@
+package com.ava.foodlogger.service.importer;
+
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.service.InvalidFoodImportException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a food database from delimited text.
+ * <p>
+ * The first row names the columns: {@code name}, {@code calories}, {@code carbohydrates}, {@code proteins}, {@code fat}
+ * and {@code sodium} are required, in any order, and the other columns, such as {@code id}, are ignored. The delimiter
+ * is the first of {@code ;}, {@code ,} or tab found in the header. Fields may be quoted, with quotes doubled inside
+ * them, and quoted fields may span several lines. Numbers are plain decimals, with an optional exponent: {@code NaN},
+ * {@code Infinity}, hexadecimal and suffixed values such as {@code 1f} are not numbers.
+ */
+public class CsvFoodRecordReader implements FoodRecordReader {
+
+    private static final String[] COLUMNS = { "name", "calories", "carbohydrates", "proteins", "fat", "sodium" };
+
+    private static final char[] DELIMITERS = { ';', ',', '\t' };
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /** The numbers accepted, {@link Float#valueOf} also accepts {@code NaN}, {@code Infinity}, {@code 0x1p3} or {@code 1f}. */
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private final Reader reader;
+
+    private final char delimiter;
+
+    /** Position of each of the {@link #COLUMNS} in a row. */
+    private final int[] positions;
+
+    private long line = 1;
+
+    /** A character read ahead of the reader, or {@code -1}. */
+    private int pushedBack = -1;
+
+    public CsvFoodRecordReader(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        int first = reader.read();
+        if (first != BYTE_ORDER_MARK && first != -1) {
+            pushedBack = first;
+        }
+        String header = readLine();
+        if (header == null) {
+            throw new InvalidFoodImportException("The CSV header is missing");
+        }
+        this.delimiter = delimiterOf(header);
+        List<String> names = new ArrayList<>();
+        for (String name : header.split(String.valueOf(delimiter), -1)) {
+            names.add(name.replace("\"", "").trim().toLowerCase(Locale.ROOT));
+        }
+        this.positions = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            positions[i] = names.indexOf(COLUMNS[i]);
+            if (positions[i] < 0) {
+                throw new InvalidFoodImportException(
+                    "The CSV header has no '" + COLUMNS[i] + "' column, it must name " + Arrays.toString(COLUMNS)
+                );
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder result = new StringBuilder();
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        for (; c != -1 && c != '\n'; c = read()) {
+            if (c != '\r') {
+                result.append((char) c);
+            }
+        }
+        line++;
+        return result.toString();
+    }
+
+    private static char delimiterOf(String header) {
+        for (char candidate : DELIMITERS) {
+            if (header.indexOf(candidate) >= 0) {
+                return candidate;
+            }
+        }
+        return DELIMITERS[0];
+    }
+
+    @Override
+    public FoodRecord next() throws IOException {
+        long start;
+        List<String> fields;
+        do {
+            start = line;
+            fields = readFields();
+        } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+        if (fields == null) {
+            return null;
+        }
+        try {
+            return FoodRecord.parsed(
+                start,
+                new Food()
+                    .name(text(fields, 0))
+                    .calories(number(fields, 1))
+                    .carbohydrates(number(fields, 2))
+                    .proteins(number(fields, 3))
+                    .fat(number(fields, 4))
+                    .sodium(number(fields, 5))
+            );
+        } catch (NumberFormatException e) {
+            return FoodRecord.unparsable(start, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the fields of the next row, or {@code null} at the end of the input.
+     */
+    private List<String> readFields() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        long start = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidFoodImportException("The quoted field starting on line " + start + " is not closed");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        // Closing quote, the character after it is a delimiter or the end of the row
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                line++;
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private String text(List<String> fields, int column) {
+        String value = positions[column] < fields.size() ? fields.get(positions[column]).trim() : "";
+        return value.isEmpty() ? null : value;
+    }
+
+    private Float number(List<String> fields, int column) {
+        String value = text(fields, column);
+        if (value == null) {
+            return null;
+        }
+        Float number = DECIMAL.matcher(value).matches() ? Float.valueOf(value) : null;
+        if (number == null || number.isInfinite()) {
+            throw new NumberFormatException(COLUMNS[column] + ": '" + value + "' is not a number");
+        }
+        return number;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
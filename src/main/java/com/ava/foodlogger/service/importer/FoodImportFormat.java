@@ -0,0 +1,59 @@
+package com.ava.foodlogger.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The formats a food database can be imported from.
+ */
+public enum FoodImportFormat {
+    /**
+     * Delimited text with a header row, in the layout of {@code config/liquibase/fake-data/food.csv}.
+     */
+    CSV {
+        @Override
+        public FoodRecordReader open(InputStream input, ObjectMapper objectMapper) throws IOException {
+            return new CsvFoodRecordReader(input);
+        }
+    },
+
+    /**
+     * An array of foods, or a sequence of foods such as newline delimited JSON.
+     */
+    JSON {
+        @Override
+        public FoodRecordReader open(InputStream input, ObjectMapper objectMapper) throws IOException {
+            return new JsonFoodRecordReader(input, objectMapper);
+        }
+    };
+
+    /**
+     * Opens a reader over a food database in this format.
+     *
+     * @param input the database, read as it is parsed.
+     * @param objectMapper the mapper binding JSON foods.
+     * @return the reader of the rows of the database.
+     * @throws IOException if the database cannot be read.
+     */
+    public abstract FoodRecordReader open(InputStream input, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Guesses the format of a file from its extension.
+     *
+     * @param fileName the name of the file.
+     * @return the format, if the extension is known.
+     */
+    public static Optional<FoodImportFormat> fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        if (lowerCaseName.endsWith(".csv") || lowerCaseName.endsWith(".tsv") || lowerCaseName.endsWith(".txt")) {
+            return Optional.of(CSV);
+        }
+        if (lowerCaseName.endsWith(".json") || lowerCaseName.endsWith(".ndjson") || lowerCaseName.endsWith(".jsonl")) {
+            return Optional.of(JSON);
+        }
+        return Optional.empty();
+    }
+}
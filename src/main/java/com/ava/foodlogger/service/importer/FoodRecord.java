@@ -0,0 +1,50 @@
+package com.ava.foodlogger.service.importer;
+
+import com.ava.foodlogger.domain.Food;
+
+/**
+ * One row of an imported food database: the food it describes, or why it could not be parsed.
+ */
+public final class FoodRecord {
+
+    private final long line;
+
+    private final Food food;
+
+    private final String error;
+
+    private FoodRecord(long line, Food food, String error) {
+        this.line = line;
+        this.food = food;
+        this.error = error;
+    }
+
+    static FoodRecord parsed(long line, Food food) {
+        return new FoodRecord(line, food, null);
+    }
+
+    static FoodRecord unparsable(long line, String error) {
+        return new FoodRecord(line, null, error);
+    }
+
+    /**
+     * @return the line the row starts on.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return the food of the row, not validated yet, or {@code null} if the row could not be parsed.
+     */
+    public Food getFood() {
+        return food;
+    }
+
+    /**
+     * @return why the row could not be parsed, or {@code null} if it was.
+     */
+    public String getError() {
+        return error;
+    }
+}
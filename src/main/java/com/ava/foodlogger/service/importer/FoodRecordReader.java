@@ -0,0 +1,18 @@
+package com.ava.foodlogger.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the rows of an imported food database one at a time, so that the database is never held in memory.
+ */
+public interface FoodRecordReader extends Closeable {
+    /**
+     * Reads the next row.
+     *
+     * @return the row, or {@code null} at the end of the database.
+     * @throws IOException if the database cannot be read.
+     * @throws com.ava.foodlogger.service.InvalidFoodImportException if the database is malformed beyond the current row.
+     */
+    FoodRecord next() throws IOException;
+}
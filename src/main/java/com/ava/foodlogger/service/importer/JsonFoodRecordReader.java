@@ -0,0 +1,69 @@
+package com.ava.foodlogger.service.importer;
+
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.service.InvalidFoodImportException;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a food database from JSON: an array of foods, or a sequence of foods such as newline delimited JSON.
+ * <p>
+ * Foods are bound one at a time with the same properties as in the REST API, and unknown properties are ignored. A
+ * food whose properties cannot be bound is rejected alone, but malformed JSON ends the import.
+ */
+public class JsonFoodRecordReader implements FoodRecordReader {
+
+    private final MappingIterator<Food> foods;
+
+    public JsonFoodRecordReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        try {
+            this.foods = objectMapper.readerFor(Food.class).readValues(input);
+        } catch (JsonParseException e) {
+            throw new InvalidFoodImportException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public FoodRecord next() throws IOException {
+        try {
+            if (!foods.hasNextValue()) {
+                return null;
+            }
+        } catch (JsonParseException e) {
+            throw new InvalidFoodImportException("Malformed JSON on line " + e.getLocation().getLineNr() + ": " + e.getOriginalMessage());
+        }
+        long line = foods.getParser().getTokenLocation().getLineNr();
+        try {
+            Food food = foods.nextValue();
+            if (food == null) {
+                return FoodRecord.unparsable(line, "null is not a food");
+            }
+            // Ids and versions are assigned by the import
+            food.setId(null);
+            food.setVersion(null);
+            food.setName(food.getName() == null || food.getName().isBlank() ? null : food.getName().trim());
+            return FoodRecord.parsed(line, food);
+        } catch (JsonParseException e) {
+            throw new InvalidFoodImportException("Malformed JSON on line " + e.getLocation().getLineNr() + ": " + e.getOriginalMessage());
+        } catch (JsonMappingException e) {
+            String path = e
+                .getPath()
+                .stream()
+                .map(JsonMappingException.Reference::getFieldName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("."));
+            return FoodRecord.unparsable(line, path + ": " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        foods.close();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Readers of the food databases imported by {@link com.ava.foodlogger.service.FoodImportService}.
+ */
+package com.ava.foodlogger.service.importer;
@@ -0,0 +1,326 @@
+package com.ava.foodlogger.service.mail;
+
+import com.ava.foodlogger.config.ApplicationProperties;
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends the emails from a bounded queue, on threads of its own rather than on the shared {@code taskExecutor}.
+ * <p>
+ * Each worker takes the queued emails in batches of up to {@code application.mail.batch-size}, and sends a batch with
+ * {@link JavaMailSender#send(MimeMessage...)}, which delivers it over a single SMTP connection: a burst of emails costs
+ * one connection per batch instead of one per email. An email which fails with a transient error is queued again after
+ * an exponential backoff with jitter, until {@code application.mail.max-attempts}. When the queue is full,
+ * {@link #dispatch} waits for room up to {@code application.mail.enqueue-timeout} then drops the email, so that a burst
+ * slows down its producer without holding any other thread.
+ * <p>
+ * The queue depth is exported in the {@code mail.queue.size} gauge, the time to send a batch in the {@code mail.send}
+ * timer, the time from queued to sent in the {@code mail.delivery} timer, and the outcome of each email in the
+ * {@code mail.messages} counters.
+ */
+@Service
+public class MailDispatcher implements SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+
+    private final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final JavaMailSender javaMailSender;
+
+    private final ApplicationProperties.Mail properties;
+
+    private final BlockingQueue<QueuedMessage> queue;
+
+    private final Timer sendTimer;
+
+    private final Timer deliveryTimer;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter rejectedCounter;
+
+    private ExecutorService workers;
+
+    private ScheduledExecutorService retryScheduler;
+
+    private volatile boolean running;
+
+    private volatile boolean stopped;
+
+    public MailDispatcher(JavaMailSender javaMailSender, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.javaMailSender = javaMailSender;
+        this.properties = applicationProperties.getMail();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size).description("Emails waiting to be sent").register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.send").description("Sends of a batch of emails over one connection").register(meterRegistry);
+        this.deliveryTimer = Timer.builder("mail.delivery").description("Time from queued to sent of the emails").register(meterRegistry);
+        this.sentCounter = messageCounter(meterRegistry, "sent");
+        this.retriedCounter = messageCounter(meterRegistry, "retried");
+        this.failedCounter = messageCounter(meterRegistry, "failed");
+        this.rejectedCounter = messageCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mail.messages").description("Emails by outcome").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /**
+     * Queues an email, waiting for room if the queue is full. The emails queued before {@link #start} are sent once it
+     * is started.
+     *
+     * @param message the email.
+     * @return whether the email was queued, {@code false} if it was dropped.
+     */
+    public boolean dispatch(MimeMessage message) {
+        if (!stopped) {
+            try {
+                if (queue.offer(new QueuedMessage(message), properties.getEnqueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        rejectedCounter.increment();
+        log.warn("Dropped an email to {}, the mail queue is full or stopped", recipientsOf(message));
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        log.debug("Starting {} mail workers", properties.getWorkers());
+        stopped = false;
+        running = true;
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("mail-retry-"));
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), new CustomizableThreadFactory("mail-dispatch-"));
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Stops taking emails, and sends the queued ones for up to {@code application.mail.shutdown-timeout}. The emails
+     * waiting for a retry are dropped.
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        stopped = true;
+        running = false;
+        List<Runnable> retries = retryScheduler.shutdownNow();
+        if (!retries.isEmpty()) {
+            log.warn("Dropped {} emails waiting for a retry", retries.size());
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+                log.warn("Dropped {} queued emails on shutdown", queue.size());
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stopped after the web server, so that the requests in flight can still queue their emails.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void work() {
+        List<QueuedMessage> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedMessage first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getBatchSize() - 1);
+                    send(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while sending {} emails", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<QueuedMessage> batch) {
+        MimeMessage[] messages = batch.stream().map(QueuedMessage::getMessage).toArray(MimeMessage[]::new);
+        Map<Object, Exception> failures = Map.of();
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("Sent {} emails, {} failed", messages.length, failures.size());
+        for (QueuedMessage message : batch) {
+            Exception failure = failures.get(message.getMessage());
+            if (failure == null) {
+                sentCounter.increment();
+                deliveryTimer.record(System.nanoTime() - message.getQueuedAt(), TimeUnit.NANOSECONDS);
+            } else {
+                retryOrDrop(message, failure);
+            }
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(MimeMessage[] messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (MimeMessage message : messages) {
+            failures.put(message, e);
+        }
+        return failures;
+    }
+
+    private void retryOrDrop(QueuedMessage message, Exception failure) {
+        String recipients = recipientsOf(message.getMessage());
+        if (isPermanent(failure) || message.getAttempts() >= properties.getMaxAttempts() || !running) {
+            failedCounter.increment();
+            log.warn("Email could not be sent to '{}' after {} attempts", recipients, message.getAttempts(), failure);
+            return;
+        }
+        long delay = backoffMillis(message.getAttempts());
+        message.attempted();
+        try {
+            retryScheduler.schedule(
+                () -> {
+                    if (!queue.offer(message)) {
+                        failedCounter.increment();
+                        log.warn("Email could not be sent to '{}', the mail queue is full", recipients);
+                    }
+                },
+                delay,
+                TimeUnit.MILLISECONDS
+            );
+        } catch (RejectedExecutionException e) {
+            // stop() shut the retries down after running was checked
+            failedCounter.increment();
+            log.warn("Email could not be sent to '{}', the mail retries are stopped", recipients, failure);
+            return;
+        }
+        retriedCounter.increment();
+        log.debug("Email could not be sent to '{}', retrying in {} ms: {}", recipients, delay, failure.getMessage());
+    }
+
+    /**
+     * @return a backoff doubled after each attempt, of which the second half is random so that the emails which failed
+     * together are not retried together.
+     */
+    private long backoffMillis(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long backoff = Math.min(properties.getMaxBackoff().toMillis(), initial << Math.min(attempts - 1, 30));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    /**
+     * @return whether retrying cannot help: the email is malformed, or the SMTP server rejected it with a permanent
+     * ({@code 5xx}) reply.
+     */
+    private static boolean isPermanent(Exception failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MailParseException || cause instanceof MailPreparationException) {
+                return true;
+            }
+            if (cause instanceof SMTPAddressFailedException) {
+                return ((SMTPAddressFailedException) cause).getReturnCode() >= 500;
+            }
+            if (cause instanceof SMTPSendFailedException) {
+                return ((SMTPSendFailedException) cause).getReturnCode() >= 500;
+            }
+        }
+        return false;
+    }
+
+    private static String recipientsOf(MimeMessage message) {
+        try {
+            return Arrays.toString(message.getAllRecipients());
+        } catch (MessagingException e) {
+            return "unknown recipients";
+        }
+    }
+
+    private static class QueuedMessage {
+
+        private final MimeMessage message;
+
+        private final long queuedAt = System.nanoTime();
+
+        private int attempts = 1;
+
+        QueuedMessage(MimeMessage message) {
+            this.message = message;
+        }
+
+        MimeMessage getMessage() {
+            return message;
+        }
+
+        long getQueuedAt() {
+            return queuedAt;
+        }
+
+        int getAttempts() {
+            return attempts;
+        }
+
+        void attempted() {
+            attempts++;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.ava.foodlogger.service.mail;
+
+import com.ava.foodlogger.domain.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Renders the emails sent to a user, such as the activation, creation and password reset emails.
+ * <p>
+ * A template is rendered once per locale for a user whose fields are placeholders, and the result is kept as the text
+ * between the placeholders: the following emails only append the escaped fields of their user to that text, without
+ * evaluating the template. The cached template is checked against a plain rendering when it is built, and a template
+ * whose output depends on anything else than the {@link #USER_FIELDS} of the user, or which does not escape them as
+ * HTML text, is always rendered by the {@link SpringTemplateEngine} instead. The subjects are cached per locale too.
+ * <p>
+ * Nothing is cached if the templates are not, with {@code spring.thymeleaf.cache: false}, so that edited templates are
+ * picked up in development.
+ */
+@Service
+public class MailTemplateCache {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final String PLACEHOLDER = "__user_field_";
+
+    /** Fields of the user which are substituted in the cached templates. */
+    private static final List<UserField> USER_FIELDS = List.of(
+        new UserField(User::getLogin, User::setLogin),
+        new UserField(User::getFirstName, User::setFirstName),
+        new UserField(User::getLastName, User::setLastName),
+        new UserField(User::getEmail, User::setEmail),
+        new UserField(User::getActivationKey, User::setActivationKey),
+        new UserField(User::getResetKey, User::setResetKey)
+    );
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateCache.class);
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final String baseUrl;
+
+    private final boolean enabled;
+
+    private final Map<String, Optional<CachedTemplate>> templates = new ConcurrentHashMap<>();
+
+    private final Map<String, String> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateCache(
+        SpringTemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        ThymeleafProperties thymeleafProperties
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        this.enabled = thymeleafProperties.isCache();
+    }
+
+    /**
+     * Renders the content of an email.
+     *
+     * @param templateName the name of the template, such as {@code mail/activationEmail}.
+     * @param user the user the email is sent to.
+     * @param locale the locale of the email.
+     * @return the content of the email.
+     */
+    public String getContent(String templateName, User user, Locale locale) {
+        if (!enabled) {
+            return process(templateName, user, locale);
+        }
+        return templates
+            .computeIfAbsent(key(templateName, locale), key -> compile(templateName, locale))
+            .flatMap(template -> template.apply(user))
+            .orElseGet(() -> process(templateName, user, locale));
+    }
+
+    /**
+     * @return whether the template was rendered and cached for the locale, rather than left to the template engine.
+     */
+    boolean isCached(String templateName, Locale locale) {
+        return templates.getOrDefault(key(templateName, locale), Optional.empty()).isPresent();
+    }
+
+    /**
+     * Resolves the subject of an email.
+     *
+     * @param titleKey the message key of the subject.
+     * @param locale the locale of the email.
+     * @return the subject of the email.
+     */
+    public String getSubject(String titleKey, Locale locale) {
+        if (!enabled) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.computeIfAbsent(key(titleKey, locale), key -> messageSource.getMessage(titleKey, null, locale));
+    }
+
+    private static String key(String name, Locale locale) {
+        return name + "|" + locale.toLanguageTag();
+    }
+
+    private String process(String templateName, User user, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, baseUrl);
+        return templateEngine.process(templateName, context);
+    }
+
+    private Optional<CachedTemplate> compile(String templateName, Locale locale) {
+        User placeholders = new User();
+        for (int i = 0; i < USER_FIELDS.size(); i++) {
+            USER_FIELDS.get(i).setter.accept(placeholders, placeholder(i));
+        }
+        CachedTemplate template = CachedTemplate.parse(process(templateName, placeholders, locale));
+        User probe = probeUser();
+        String expected = process(templateName, probe, locale);
+        if (!template.apply(probe).map(expected::equals).orElse(false)) {
+            log.debug("Template {} depends on more than the fields of the user, it is not cached", templateName);
+            return Optional.empty();
+        }
+        log.debug("Cached template {} for locale {}", templateName, locale);
+        return Optional.of(template);
+    }
+
+    private static String placeholder(int field) {
+        return PLACEHOLDER + field + "__";
+    }
+
+    /**
+     * @return a user whose fields need escaping, and whose other properties differ from the placeholder user.
+     */
+    private static User probeUser() {
+        User probe = new User();
+        for (int i = 0; i < USER_FIELDS.size(); i++) {
+            USER_FIELDS.get(i).setter.accept(probe, "<probe&" + i + " 'field\">");
+        }
+        probe.setId(Long.MAX_VALUE);
+        probe.setActivated(true);
+        probe.setLangKey("probe");
+        probe.setImageUrl("http://probe");
+        probe.setCreatedBy("probe");
+        probe.setCreatedDate(Instant.EPOCH);
+        probe.setResetDate(Instant.EPOCH);
+        return probe;
+    }
+
+    private static final class UserField {
+
+        private final Function<User, String> getter;
+
+        private final BiConsumer<User, String> setter;
+
+        UserField(Function<User, String> getter, BiConsumer<User, String> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * A rendered template, as the text around the fields of the user.
+     */
+    private static final class CachedTemplate {
+
+        /** One more text than fields: the text before each field, then the text after the last one. */
+        private final List<String> texts;
+
+        private final List<UserField> fields;
+
+        private final int length;
+
+        private CachedTemplate(List<String> texts, List<UserField> fields) {
+            this.texts = texts;
+            this.fields = fields;
+            this.length = texts.stream().mapToInt(String::length).sum();
+        }
+
+        static CachedTemplate parse(String rendered) {
+            List<String> texts = new ArrayList<>();
+            List<UserField> fields = new ArrayList<>();
+            int start = 0;
+            for (int index = rendered.indexOf(PLACEHOLDER); index >= 0; index = rendered.indexOf(PLACEHOLDER, index + 1)) {
+                for (int i = 0; i < USER_FIELDS.size(); i++) {
+                    if (rendered.startsWith(placeholder(i), index)) {
+                        texts.add(rendered.substring(start, index));
+                        fields.add(USER_FIELDS.get(i));
+                        start = index + placeholder(i).length();
+                        break;
+                    }
+                }
+            }
+            texts.add(rendered.substring(start));
+            return new CachedTemplate(texts, fields);
+        }
+
+        /**
+         * @return the email of the user, or empty if one of its fields is {@code null}, which the template may render
+         * in its own way.
+         */
+        Optional<String> apply(User user) {
+            StringBuilder content = new StringBuilder(length + 32 * fields.size());
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).getter.apply(user);
+                if (value == null) {
+                    return Optional.empty();
+                }
+                content.append(texts.get(i)).append(HtmlEscape.escapeHtml4Xml(value));
+            }
+            return Optional.of(content.append(texts.get(fields.size())).toString());
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Delivery of the emails of {@link com.ava.foodlogger.service.MailService}.
+ */
+package com.ava.foodlogger.service.mail;
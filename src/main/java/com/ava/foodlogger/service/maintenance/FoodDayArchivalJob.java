@@ -0,0 +1,161 @@
+package com.ava.foodlogger.service.maintenance;
+
+import com.ava.foodlogger.config.ApplicationProperties;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodDayArchive;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.repository.FoodDayRepository;
+import com.ava.foodlogger.repository.FoodEntryRepository;
+import com.ava.foodlogger.service.FoodDayArchiveService;
+import com.ava.foodlogger.service.dto.FoodDayViewEntryDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves the food days older than {@code application.archive.horizon} to the {@link FoodDayArchive} table, so that
+ * {@code food_day} and {@code food_entry} only hold the recent days.
+ * <p>
+ * The days of a chunk are locked while they are read, so that no entry is added to a day being archived. Each day is
+ * written as one archive row holding its entries with a snapshot of their foods, sorted like the day view, then the
+ * entries and days are deleted with one statement each. The {@code daily_nutrition} rows of the archived days are left
+ * as they are. The bulk deletes evict the food days and entries from the second level cache. Once a chunk is committed,
+ * the {@link FoodDayArchiveService} is told the newest date it archived.
+ */
+@Service
+public class FoodDayArchivalJob implements MaintenanceJob<FoodDay> {
+
+    private static final Comparator<FoodDayViewEntryDTO> VIEW_ORDER = Comparator
+        .comparing(FoodDayViewEntryDTO::getMealtype, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(FoodDayViewEntryDTO::getId);
+
+    private final Logger log = LoggerFactory.getLogger(FoodDayArchivalJob.class);
+
+    private final FoodDayRepository foodDayRepository;
+
+    private final FoodEntryRepository foodEntryRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectWriter entriesWriter;
+
+    private final Period horizon;
+
+    /** Provided lazily, as the service depends on this job to run it. */
+    private final ObjectProvider<FoodDayArchiveService> foodDayArchiveService;
+
+    public FoodDayArchivalJob(
+        FoodDayRepository foodDayRepository,
+        FoodEntryRepository foodEntryRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<FoodDayArchiveService> foodDayArchiveService
+    ) {
+        this.foodDayRepository = foodDayRepository;
+        this.foodEntryRepository = foodEntryRepository;
+        this.entityManager = entityManager;
+        this.entriesWriter = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL).writer();
+        this.horizon = applicationProperties.getArchive().getHorizon();
+        this.foodDayArchiveService = foodDayArchiveService;
+    }
+
+    @Override
+    public String getName() {
+        return "archiveFoodDays";
+    }
+
+    @Override
+    public List<FoodDay> findChunk(long afterId, int size) {
+        LocalDate before = LocalDate.now().minus(horizon);
+        return foodDayRepository.findCreatedBeforeForUpdate(before, afterId, PageRequest.of(0, size));
+    }
+
+    @Override
+    public long getId(FoodDay foodDay) {
+        return foodDay.getId();
+    }
+
+    @Override
+    public int process(List<FoodDay> foodDays) {
+        List<Long> ids = foodDays.stream().map(FoodDay::getId).collect(Collectors.toList());
+        Map<Long, List<FoodDayViewEntryDTO>> entriesByDay = foodEntryRepository
+            .findAllWithFoodByFoodDayIdIn(ids)
+            .stream()
+            .map(FoodDayArchivalJob::toViewEntry)
+            .sorted(VIEW_ORDER)
+            .collect(Collectors.groupingBy(FoodDayViewEntryDTO::getFoodDayId));
+        Instant now = Instant.now();
+        for (FoodDay foodDay : foodDays) {
+            List<FoodDayViewEntryDTO> entries = entriesByDay.getOrDefault(foodDay.getId(), List.of());
+            // The day is on the archive row, it is not repeated on each entry
+            entries.forEach(entry -> entry.setFoodDayId(null));
+            entityManager.persist(
+                new FoodDayArchive()
+                    .id(foodDay.getId())
+                    .version(foodDay.getVersion())
+                    .createdDate(foodDay.getCreatedDate())
+                    .user(foodDay.getUser())
+                    .entryCount(entries.size())
+                    .entries(write(entries))
+                    .archivedDate(now)
+            );
+        }
+        int entries = foodEntryRepository.deleteByFoodDayIdIn(ids);
+        int days = foodDayRepository.deleteByIdIn(ids);
+        log.debug("Archived {} food days with {} entries", days, entries);
+        return days;
+    }
+
+    @Override
+    public void afterCommit(List<FoodDay> foodDays) {
+        foodDays
+            .stream()
+            .map(FoodDay::getCreatedDate)
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .ifPresent(newest -> foodDayArchiveService.getObject().archivedUpTo(newest));
+    }
+
+    private static FoodDayViewEntryDTO toViewEntry(FoodEntry foodEntry) {
+        Food food = foodEntry.getFood();
+        return new FoodDayViewEntryDTO(
+            foodEntry.getFoodDay().getId(),
+            null,
+            foodEntry.getId(),
+            foodEntry.getMealtype(),
+            foodEntry.getCreatedDate(),
+            food == null ? null : food.getId(),
+            food == null ? null : food.getName(),
+            food == null ? null : food.getCalories(),
+            food == null ? null : food.getCarbohydrates(),
+            food == null ? null : food.getProteins(),
+            food == null ? null : food.getFat(),
+            food == null ? null : food.getSodium()
+        );
+    }
+
+    private String write(List<FoodDayViewEntryDTO> entries) {
+        try {
+            return entriesWriter.writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write the entries of a food day", e);
+        }
+    }
+}
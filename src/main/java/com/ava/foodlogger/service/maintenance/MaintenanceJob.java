@@ -0,0 +1,45 @@
+package com.ava.foodlogger.service.maintenance;
+
+import java.util.List;
+
+/**
+ * A maintenance job, which the {@link MaintenanceJobRunner} runs over chunks of rows taken in increasing id order.
+ *
+ * @param <T> the type of the rows.
+ */
+public interface MaintenanceJob<T> {
+    /**
+     * @return the name of the job, unique, which keys its checkpoint and tags its metrics.
+     */
+    String getName();
+
+    /**
+     * Finds the next rows to process, in the transaction of the chunk.
+     *
+     * @param afterId the id of the last row processed, or {@code 0} to start from the first row.
+     * @param size the maximum number of rows.
+     * @return the rows in increasing id order, fewer than {@code size} if they are the last ones.
+     */
+    List<T> findChunk(long afterId, int size);
+
+    /**
+     * @param row a row found by {@link #findChunk}.
+     * @return the id of the row.
+     */
+    long getId(T row);
+
+    /**
+     * Processes a chunk of rows in its transaction, with set-based statements rather than row by row.
+     *
+     * @param chunk the rows.
+     * @return the number of rows changed.
+     */
+    int process(List<T> chunk);
+
+    /**
+     * Called once the chunk is committed, to update what lives outside of the database, such as caches.
+     *
+     * @param chunk the rows.
+     */
+    default void afterCommit(List<T> chunk) {}
+}
@@ -0,0 +1,171 @@
+package com.ava.foodlogger.service.maintenance;
+
+import com.ava.foodlogger.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the {@link MaintenanceJob}s in chunks of {@code application.maintenance.chunk-size} rows, one transaction per
+ * chunk, so that a job never holds locks nor rows in memory for more than a chunk.
+ * <p>
+ * The id of the last row of each chunk is saved in the {@code maintenance_job} table in the transaction of the chunk,
+ * and the checkpoint is removed once the job completes: a run which fails or is interrupted is resumed after the last
+ * committed chunk. The duration of the runs is recorded in the {@code maintenance.job.duration} timer, and the rows
+ * and chunks processed in the {@code maintenance.job.rows} and {@code maintenance.job.chunks} counters, per job.
+ * <p>
+ * When called in a transaction, such as in the tests, the chunks join it and are only committed with it.
+ */
+@Service
+public class MaintenanceJobRunner {
+
+    private static final String SELECT_CHECKPOINT = "select last_id from maintenance_job where job_name = ?";
+
+    private static final String UPDATE_CHECKPOINT =
+        "update maintenance_job set last_id = ?, processed_count = processed_count + ?, updated_date = ? where job_name = ?";
+
+    private static final String INSERT_CHECKPOINT =
+        "insert into maintenance_job (last_id, processed_count, updated_date, job_name) values (?, ?, ?, ?)";
+
+    private static final String DELETE_CHECKPOINT = "delete from maintenance_job where job_name = ?";
+
+    private final Logger log = LoggerFactory.getLogger(MaintenanceJobRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int chunkSize;
+
+    public MaintenanceJobRunner(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = applicationProperties.getMaintenance().getChunkSize();
+    }
+
+    /**
+     * Runs a job to completion, after its checkpoint if its last run did not complete.
+     *
+     * @param job the job.
+     * @param <T> the type of the rows of the job.
+     * @return the number of rows changed by this run.
+     */
+    public <T> long run(MaintenanceJob<T> job) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        Counter rows = Counter
+            .builder("maintenance.job.rows")
+            .description("Rows changed")
+            .tag("job", job.getName())
+            .register(meterRegistry);
+        Counter chunks = Counter
+            .builder("maintenance.job.chunks")
+            .description("Chunks committed")
+            .tag("job", job.getName())
+            .register(meterRegistry);
+        long changed = 0;
+        try {
+            long afterId = findCheckpoint(job.getName());
+            log.info("Running maintenance job {} after id {}", job.getName(), afterId);
+            for (ChunkResult chunk = runChunk(job, afterId); chunk != null; chunk = runChunk(job, chunk.lastId)) {
+                changed += chunk.changed;
+                rows.increment(chunk.changed);
+                chunks.increment();
+                log.debug("Maintenance job {} changed {} rows up to id {}", job.getName(), changed, chunk.lastId);
+                if (chunk.size < chunkSize) {
+                    break;
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DELETE_CHECKPOINT, job.getName()));
+            outcome = "success";
+            log.info("Completed maintenance job {}, {} rows changed", job.getName(), changed);
+            return changed;
+        } catch (RuntimeException e) {
+            log.error("Maintenance job {} failed after changing {} rows, it will resume from its checkpoint", job.getName(), changed);
+            throw e;
+        } finally {
+            Timer
+                .builder("maintenance.job.duration")
+                .description("Runs of the maintenance jobs")
+                .tag("job", job.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return the result of the chunk, or {@code null} if there were no more rows.
+     */
+    private <T> ChunkResult runChunk(MaintenanceJob<T> job, long afterId) {
+        return transactionTemplate.execute(
+            status -> {
+                List<T> chunk = job.findChunk(afterId, chunkSize);
+                if (chunk.isEmpty()) {
+                    return null;
+                }
+                int changed = job.process(chunk);
+                long lastId = job.getId(chunk.get(chunk.size() - 1));
+                saveCheckpoint(job.getName(), lastId, changed);
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            job.afterCommit(chunk);
+                        }
+                    }
+                );
+                return new ChunkResult(chunk.size(), lastId, changed);
+            }
+        );
+    }
+
+    private long findCheckpoint(String jobName) {
+        List<Long> lastIds = jdbcTemplate.queryForList(SELECT_CHECKPOINT, Long.class, jobName);
+        return lastIds.isEmpty() ? 0 : Objects.requireNonNull(lastIds.get(0));
+    }
+
+    private void saveCheckpoint(String jobName, long lastId, int changed) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (jdbcTemplate.update(UPDATE_CHECKPOINT, lastId, changed, now, jobName) == 0) {
+            jdbcTemplate.update(INSERT_CHECKPOINT, lastId, changed, now, jobName);
+        }
+    }
+
+    private static final class ChunkResult {
+
+        private final int size;
+
+        private final long lastId;
+
+        private final int changed;
+
+        private ChunkResult(int size, long lastId, int changed) {
+            this.size = size;
+            this.lastId = lastId;
+            this.changed = changed;
+        }
+    }
+}
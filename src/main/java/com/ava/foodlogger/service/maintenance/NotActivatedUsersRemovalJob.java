@@ -0,0 +1,76 @@
+package com.ava.foodlogger.service.maintenance;
+
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.repository.UserRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Deletes the users who did not activate their account within 3 days of registering.
+ * <p>
+ * Each chunk is deleted with one statement, and the cached users of a chunk are evicted together once it is committed.
+ */
+@Service
+public class NotActivatedUsersRemovalJob implements MaintenanceJob<User> {
+
+    private static final long ACTIVATION_DAYS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(NotActivatedUsersRemovalJob.class);
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    public NotActivatedUsersRemovalJob(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return "removeNotActivatedUsers";
+    }
+
+    @Override
+    public List<User> findChunk(long afterId, int size) {
+        Instant createdBefore = Instant.now().minus(ACTIVATION_DAYS, ChronoUnit.DAYS);
+        return userRepository.findNotActivatedCreatedBefore(createdBefore, afterId, PageRequest.of(0, size));
+    }
+
+    @Override
+    public long getId(User user) {
+        return user.getId();
+    }
+
+    @Override
+    public int process(List<User> users) {
+        log.debug("Deleting {} not activated users", users.size());
+        return userRepository.deleteByIdIn(users.stream().map(User::getId).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void afterCommit(List<User> users) {
+        evict(UserRepository.USERS_BY_LOGIN_CACHE, users.stream().map(User::getLogin).collect(Collectors.toSet()));
+        evict(UserRepository.USERS_BY_EMAIL_CACHE, users.stream().map(User::getEmail).filter(Objects::nonNull).collect(Collectors.toSet()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evict(String cacheName, Set<String> keys) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        if (cache.getNativeCache() instanceof javax.cache.Cache) {
+            ((javax.cache.Cache<Object, Object>) cache.getNativeCache()).removeAll(keys);
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Scheduled maintenance jobs, run in chunks by the {@link com.ava.foodlogger.service.maintenance.MaintenanceJobRunner}.
+ */
+package com.ava.foodlogger.service.maintenance;
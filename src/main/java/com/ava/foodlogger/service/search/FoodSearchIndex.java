@@ -0,0 +1,323 @@
+package com.ava.foodlogger.service.search;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over food names.
+ * <p>
+ * Names are normalized (lower case, accents stripped) and split into tokens. Two structures are kept:
+ * <ul>
+ *     <li>a sorted dictionary from token to foods, walked like a trie with a range scan, for prefix matches;</li>
+ *     <li>an inverted index from character bigram to the tokens of the dictionary, to correct misspelled words.</li>
+ * </ul>
+ * Each query word matches the tokens it is a prefix of or, if there are none, the few tokens closest to it. A food
+ * matches when all query words do. The number of foods examined per query is bounded, so the cost of a query does
+ * not grow with the size of the catalog. The index is thread-safe: queries share a read lock, updates take the write
+ * lock.
+ */
+public class FoodSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final int GRAM_SIZE = 2;
+
+    /** Maximum number of foods examined per query, a one-letter query would otherwise scan everything. */
+    private static final int MAX_CANDIDATES = 1_000;
+
+    /** Maximum number of dictionary tokens a misspelled word is corrected to. */
+    private static final int MAX_CORRECTIONS = 3;
+
+    /** Minimum Dice coefficient between the bigrams of a misspelled word and of its corrections. */
+    private static final double MIN_SIMILARITY = 0.5;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private final NavigableMap<String, Set<Entry>> tokens = new TreeMap<>();
+
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    /**
+     * Adds a food to the index, or replaces its name if it is already indexed.
+     *
+     * @param id the id of the food.
+     * @param name the name of the food.
+     */
+    public void put(Long id, String name) {
+        Entry entry = new Entry(id, name);
+        lock.writeLock().lock();
+        try {
+            unlink(entries.put(id, entry));
+            for (String token : entry.tokens) {
+                tokens.computeIfAbsent(token, this::linkGrams).add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Set<Entry> linkGrams(String token) {
+        for (String gram : gramsOf(token)) {
+            grams.computeIfAbsent(gram, key -> new HashSet<>()).add(token);
+        }
+        return new HashSet<>();
+    }
+
+    /**
+     * Removes a food from the index, if it is indexed.
+     *
+     * @param id the id of the food.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unlink(entries.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens) {
+            Set<Entry> tokenEntries = tokens.get(token);
+            if (tokenEntries != null && tokenEntries.remove(entry) && tokenEntries.isEmpty()) {
+                tokens.remove(token);
+                for (String gram : gramsOf(token)) {
+                    Set<String> gramTokens = grams.get(gram);
+                    gramTokens.remove(token);
+                    if (gramTokens.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of indexed foods.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the foods whose name matches a query.
+     *
+     * @param query the text typed by the user.
+     * @param limit the maximum number of results.
+     * @return the ids of the best matching foods, best match first.
+     */
+    public List<Long> search(String query, int limit) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String normalizedQuery = String.join(" ", queryTokens);
+        lock.readLock().lock();
+        try {
+            List<List<Term>> terms = new ArrayList<>(queryTokens.length);
+            for (String queryToken : queryTokens) {
+                List<Term> queryTerms = termsOf(queryToken);
+                if (queryTerms.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                terms.add(queryTerms);
+            }
+
+            // Scan the foods of the longest, most selective, query word and check the other words on each of them
+            int anchor = 0;
+            for (int i = 1; i < queryTokens.length; i++) {
+                anchor = queryTokens[i].length() > queryTokens[anchor].length() ? i : anchor;
+            }
+            // Keep the best matches in a heap whose head is the worst of them
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+            Set<Entry> examined = new HashSet<>();
+            for (Term term : terms.get(anchor)) {
+                for (Set<Entry> postings : postingsOf(term)) {
+                    for (Entry entry : postings) {
+                        if (!examined.add(entry)) {
+                            continue;
+                        }
+                        double score = entry.score(terms);
+                        if (score > 0d) {
+                            Match match = new Match(entry, entry.normalized.startsWith(normalizedQuery) ? score + 1d : score);
+                            if (best.size() < limit) {
+                                best.add(match);
+                            } else if (match.compareTo(best.peek()) < 0) {
+                                best.poll();
+                                best.add(match);
+                            }
+                        }
+                        if (examined.size() == MAX_CANDIDATES) {
+                            return toIds(best);
+                        }
+                    }
+                }
+            }
+            return toIds(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Long> toIds(PriorityQueue<Match> best) {
+        Long[] ids = new Long[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.poll().entry.id;
+        }
+        return Arrays.asList(ids);
+    }
+
+    private List<Term> termsOf(String queryToken) {
+        String ceiling = tokens.ceilingKey(queryToken);
+        if (ceiling != null && ceiling.startsWith(queryToken)) {
+            return Collections.singletonList(new Term(queryToken, true, 1d));
+        }
+        // No token starts with the word, look for the tokens sharing the most bigrams with it
+        Set<String> queryGrams = gramsOf(queryToken);
+        Map<String, int[]> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (String token : grams.getOrDefault(gram, Collections.emptySet())) {
+                shared.computeIfAbsent(token, key -> new int[1])[0]++;
+            }
+        }
+        List<Term> corrections = new ArrayList<>();
+        for (Map.Entry<String, int[]> candidate : shared.entrySet()) {
+            // A token of n letters has n + 1 padded bigrams
+            double similarity = 2d * candidate.getValue()[0] / (queryGrams.size() + candidate.getKey().length() + 1);
+            if (similarity >= MIN_SIMILARITY) {
+                corrections.add(new Term(candidate.getKey(), false, similarity));
+            }
+        }
+        corrections.sort(Comparator.comparingDouble((Term term) -> -term.weight).thenComparing(term -> term.text));
+        return corrections.size() > MAX_CORRECTIONS ? corrections.subList(0, MAX_CORRECTIONS) : corrections;
+    }
+
+    private Collection<Set<Entry>> postingsOf(Term term) {
+        if (term.prefix) {
+            return tokens.subMap(term.text, true, term.text + Character.MAX_VALUE, false).values();
+        }
+        return Collections.singletonList(tokens.getOrDefault(term.text, Collections.emptySet()));
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized)).filter(token -> !token.isEmpty()).toArray(String[]::new);
+    }
+
+    static Set<String> gramsOf(String token) {
+        // Pad the token so that its first and last letters weigh as much as the inner ones
+        String padded = " " + token + " ";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+            result.add(padded.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    /**
+     * What a query word matches: the tokens it is a prefix of, or one correction of it.
+     */
+    private static final class Term {
+
+        private final String text;
+
+        private final boolean prefix;
+
+        private final double weight;
+
+        private Term(String text, boolean prefix, double weight) {
+            this.text = text;
+            this.prefix = prefix;
+            this.weight = weight;
+        }
+
+        private boolean matches(String token) {
+            return prefix ? token.startsWith(text) : token.equals(text);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+
+        private final String normalized;
+
+        private final String[] tokens;
+
+        private Entry(Long id, String name) {
+            this.id = id;
+            String[] nameTokens = tokenize(name);
+            this.normalized = String.join(" ", nameTokens);
+            this.tokens = Arrays.stream(nameTokens).distinct().toArray(String[]::new);
+        }
+
+        /**
+         * @return the sum, over the query words, of the weight of the best term matched by a token of the name,
+         * or {@code 0} if a query word matches no token.
+         */
+        private double score(List<List<Term>> terms) {
+            double score = 0d;
+            for (List<Term> queryTerms : terms) {
+                double weight = 0d;
+                for (Term term : queryTerms) {
+                    for (String token : tokens) {
+                        if (term.weight > weight && term.matches(token)) {
+                            weight = term.weight;
+                        }
+                    }
+                }
+                if (weight == 0d) {
+                    return 0d;
+                }
+                score += weight;
+            }
+            return score;
+        }
+    }
+
+    /**
+     * A matching food, ordered best first: highest score, then shortest name, then name and id for stable results.
+     */
+    private static final class Match implements Comparable<Match> {
+
+        private final Entry entry;
+
+        private final double score;
+
+        private Match(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            int result = Double.compare(other.score, score);
+            if (result == 0) {
+                result = Integer.compare(entry.normalized.length(), other.entry.normalized.length());
+            }
+            if (result == 0) {
+                result = entry.normalized.compareTo(other.entry.normalized);
+            }
+            return result == 0 ? entry.id.compareTo(other.entry.id) : result;
+        }
+    }
+}
@@ -3,21 +3,30 @@ package com.ava.foodlogger.web.rest;
 import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.UserRepository;
 import com.ava.foodlogger.security.SecurityUtils;
+import com.ava.foodlogger.service.AccountExportService;
 import com.ava.foodlogger.service.MailService;
 import com.ava.foodlogger.service.UserService;
 import com.ava.foodlogger.service.dto.AdminUserDTO;
 import com.ava.foodlogger.service.dto.PasswordChangeDTO;
 import com.ava.foodlogger.service.dto.UserDTO;
 import com.ava.foodlogger.web.rest.errors.*;
+import com.ava.foodlogger.web.rest.util.ETagUtil;
 import com.ava.foodlogger.web.rest.vm.KeyAndPasswordVM;
 import com.ava.foodlogger.web.rest.vm.ManagedUserVM;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -36,16 +45,28 @@ public class AccountResource {
 
     private final Logger log = LoggerFactory.getLogger(AccountResource.class);
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final String GZIP = "gzip";
+
     private final UserRepository userRepository;
 
     private final UserService userService;
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final AccountExportService accountExportService;
+
+    public AccountResource(
+        UserRepository userRepository,
+        UserService userService,
+        MailService mailService,
+        AccountExportService accountExportService
+    ) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
+        this.accountExportService = accountExportService;
     }
 
     /**
@@ -94,16 +115,17 @@ public class AccountResource {
 
     /**
      * {@code GET  /account} : get the current user.
+     * <p>
+     * The SPA calls it on every page load, so it is tagged with the version of the user and answered with
+     * {@code 304 (Not Modified)} when the {@code If-None-Match} header matches.
      *
      * @return the current user.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
-    public AdminUserDTO getAccount() {
-        return userService
-            .getUserWithAuthorities()
-            .map(AdminUserDTO::new)
-            .orElseThrow(() -> new AccountResourceException("User could not be found"));
+    public ResponseEntity<AdminUserDTO> getAccount() {
+        User user = userService.getUserWithAuthorities().orElseThrow(() -> new AccountResourceException("User could not be found"));
+        return ResponseEntity.ok().eTag(ETagUtil.entityTag(user.getId(), user.getVersion())).body(new AdminUserDTO(user));
     }
 
     /**
@@ -135,6 +157,40 @@ public class AccountResource {
         );
     }
 
+    /**
+     * {@code GET  /account/export} : export the whole history of the current user as newline delimited JSON, see
+     * {@link AccountExportService}.
+     * <p>
+     * The lines are streamed as they are read, gzipped if the {@code Accept-Encoding} header allows it.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header.
+     * @param response the response to stream the lines to.
+     * @throws IOException if the response cannot be written.
+     * @throws RuntimeException {@code 500 (Internal Server Error)} if the user login wasn't found.
+     */
+    @GetMapping(path = "/account/export", produces = APPLICATION_NDJSON_VALUE)
+    public void exportAccount(
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        HttpServletResponse response
+    ) throws IOException {
+        String userLogin = SecurityUtils
+            .getCurrentUserLogin()
+            .orElseThrow(() -> new AccountResourceException("Current user login not found"));
+        log.debug("REST request to export the history of {}", userLogin);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("foodlogger-history.ndjson").build().toString()
+        );
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream output = response.getOutputStream();
+        if (acceptEncoding != null && acceptEncoding.contains(GZIP)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            output = new GZIPOutputStream(output);
+        }
+        accountExportService.export(userLogin, output);
+    }
+
     /**
      * {@code POST  /account/change-password} : changes the current user's password.
      *
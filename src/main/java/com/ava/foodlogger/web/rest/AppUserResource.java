@@ -1,23 +1,27 @@
 package com.ava.foodlogger.web.rest;
 
 import com.ava.foodlogger.domain.AppUser;
+import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.AppUserRepository;
+import com.ava.foodlogger.service.EnergyTargetService;
 import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import com.ava.foodlogger.web.rest.util.ETagUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.ava.foodlogger.domain.AppUser}.
@@ -36,8 +40,11 @@ public class AppUserResource {
 
     private final AppUserRepository appUserRepository;
 
-    public AppUserResource(AppUserRepository appUserRepository) {
+    private final EnergyTargetService energyTargetService;
+
+    public AppUserResource(AppUserRepository appUserRepository, EnergyTargetService energyTargetService) {
         this.appUserRepository = appUserRepository;
+        this.energyTargetService = energyTargetService;
     }
 
     /**
@@ -54,6 +61,7 @@ public class AppUserResource {
             throw new BadRequestAlertException("A new appUser cannot already have an ID", ENTITY_NAME, "idexists");
         }
         AppUser result = appUserRepository.save(appUser);
+        energyTargetService.evict(result.getUser());
         return ResponseEntity
             .created(new URI("/api/app-users/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -65,15 +73,19 @@ public class AppUserResource {
      *
      * @param id the id of the appUser to save.
      * @param appUser the appUser to update.
+     * @param ifMatch the tag of the appUser the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated appUser,
      * or with status {@code 400 (Bad Request)} if the appUser is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the appUser is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the appUser was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the appUser couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/app-users/{id}")
     public ResponseEntity<AppUser> updateAppUser(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody AppUser appUser
+        @Valid @RequestBody AppUser appUser,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update AppUser : {}, {}", id, appUser);
         if (appUser.getId() == null) {
@@ -83,13 +95,21 @@ public class AppUserResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!appUserRepository.existsById(id)) {
+        Optional<AppUser> existingAppUser = appUserRepository.findById(id);
+        if (existingAppUser.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
-
-        AppUser result = appUserRepository.save(appUser);
+        ETagUtil.checkIfMatch(ifMatch, entityTag(existingAppUser.get()), ENTITY_NAME);
+        ETagUtil.checkVersion(appUser.getVersion(), existingAppUser.get().getVersion(), AppUser.class, id);
+        appUser.setVersion(existingAppUser.get().getVersion());
+
+        User previousUser = existingAppUser.get().getUser();
+        AppUser result = appUserRepository.saveAndFlush(appUser);
+        energyTargetService.evict(previousUser);
+        energyTargetService.evict(result.getUser());
         return ResponseEntity
             .ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, appUser.getId().toString()))
             .body(result);
     }
@@ -99,16 +119,20 @@ public class AppUserResource {
      *
      * @param id the id of the appUser to save.
      * @param appUser the appUser to update.
+     * @param ifMatch the tag of the appUser the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated appUser,
      * or with status {@code 400 (Bad Request)} if the appUser is not valid,
      * or with status {@code 404 (Not Found)} if the appUser is not found,
+     * or with status {@code 409 (Conflict)} if the version of the appUser is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the appUser was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the appUser couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/app-users/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<AppUser> partialUpdateAppUser(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody AppUser appUser
+        @NotNull @RequestBody AppUser appUser,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update AppUser partially : {}, {}", id, appUser);
         if (appUser.getId() == null) {
@@ -126,6 +150,8 @@ public class AppUserResource {
             .findById(appUser.getId())
             .map(
                 existingAppUser -> {
+                    ETagUtil.checkIfMatch(ifMatch, entityTag(existingAppUser), ENTITY_NAME);
+                    ETagUtil.checkVersion(appUser.getVersion(), existingAppUser.getVersion(), AppUser.class, id);
                     if (appUser.getBio() != null) {
                         existingAppUser.setBio(appUser.getBio());
                     }
@@ -147,40 +173,47 @@ public class AppUserResource {
                     if (appUser.getActivityLevel() != null) {
                         existingAppUser.setActivityLevel(appUser.getActivityLevel());
                     }
+                    energyTargetService.evict(existingAppUser.getUser());
 
                     return existingAppUser;
                 }
             )
-            .map(appUserRepository::save);
+            .map(appUserRepository::saveAndFlush);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
+            AppUserResource::entityTag,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, appUser.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /app-users} : get all the appUsers.
+     * {@code GET  /app-users} : get all the appUsers of the current user.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of appUsers in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of appUsers in body,
+     * or with status {@code 304 (Not Modified)} if none changed since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/app-users")
-    public List<AppUser> getAllAppUsers() {
-        log.debug("REST request to get all AppUsers");
-        return appUserRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppUser>> getAllAppUsers() {
+        log.debug("REST request to get all AppUsers of the current user");
+        List<AppUser> appUsers = appUserRepository.findByUserIsCurrentUser();
+        return ResponseEntity.ok().eTag(ETagUtil.entityTag(appUsers.stream().flatMap(AppUserResource::versionsOf))).body(appUsers);
     }
 
     /**
      * {@code GET  /app-users/:id} : get the "id" appUser.
      *
      * @param id the id of the appUser to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the appUser, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the appUser, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/app-users/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<AppUser> getAppUser(@PathVariable Long id) {
         log.debug("REST request to get AppUser : {}", id);
         Optional<AppUser> appUser = appUserRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(appUser);
+        return ETagUtil.wrapOrNotFound(appUser, AppUserResource::entityTag);
     }
 
     /**
@@ -192,10 +225,28 @@ public class AppUserResource {
     @DeleteMapping("/app-users/{id}")
     public ResponseEntity<Void> deleteAppUser(@PathVariable Long id) {
         log.debug("REST request to delete AppUser : {}", id);
+        appUserRepository.findById(id).map(AppUser::getUser).ifPresent(energyTargetService::evict);
         appUserRepository.deleteById(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * @return the ids and versions of the appUser and of its user, which make up its representation.
+     */
+    private static Stream<Object> versionsOf(AppUser appUser) {
+        User user = appUser.getUser();
+        return Stream.of(
+            appUser.getId(),
+            appUser.getVersion(),
+            user == null ? null : user.getId(),
+            user == null ? null : user.getVersion()
+        );
+    }
+
+    private static String entityTag(AppUser appUser) {
+        return ETagUtil.entityTag(versionsOf(appUser));
+    }
 }
@@ -1,23 +1,27 @@
 package com.ava.foodlogger.web.rest;
 
 import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.CurrentWeightRepository;
+import com.ava.foodlogger.service.EnergyTargetService;
 import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import com.ava.foodlogger.web.rest.util.ETagUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.ava.foodlogger.domain.CurrentWeight}.
@@ -36,8 +40,11 @@ public class CurrentWeightResource {
 
     private final CurrentWeightRepository currentWeightRepository;
 
-    public CurrentWeightResource(CurrentWeightRepository currentWeightRepository) {
+    private final EnergyTargetService energyTargetService;
+
+    public CurrentWeightResource(CurrentWeightRepository currentWeightRepository, EnergyTargetService energyTargetService) {
         this.currentWeightRepository = currentWeightRepository;
+        this.energyTargetService = energyTargetService;
     }
 
     /**
@@ -54,6 +61,7 @@ public class CurrentWeightResource {
             throw new BadRequestAlertException("A new currentWeight cannot already have an ID", ENTITY_NAME, "idexists");
         }
         CurrentWeight result = currentWeightRepository.save(currentWeight);
+        energyTargetService.evict(result.getUser());
         return ResponseEntity
             .created(new URI("/api/current-weights/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -65,15 +73,19 @@ public class CurrentWeightResource {
      *
      * @param id the id of the currentWeight to save.
      * @param currentWeight the currentWeight to update.
+     * @param ifMatch the tag of the currentWeight the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated currentWeight,
      * or with status {@code 400 (Bad Request)} if the currentWeight is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the currentWeight is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the currentWeight was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the currentWeight couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/current-weights/{id}")
     public ResponseEntity<CurrentWeight> updateCurrentWeight(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody CurrentWeight currentWeight
+        @Valid @RequestBody CurrentWeight currentWeight,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update CurrentWeight : {}, {}", id, currentWeight);
         if (currentWeight.getId() == null) {
@@ -83,13 +95,21 @@ public class CurrentWeightResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!currentWeightRepository.existsById(id)) {
+        Optional<CurrentWeight> existingCurrentWeight = currentWeightRepository.findById(id);
+        if (existingCurrentWeight.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
-
-        CurrentWeight result = currentWeightRepository.save(currentWeight);
+        ETagUtil.checkIfMatch(ifMatch, entityTag(existingCurrentWeight.get()), ENTITY_NAME);
+        ETagUtil.checkVersion(currentWeight.getVersion(), existingCurrentWeight.get().getVersion(), CurrentWeight.class, id);
+        currentWeight.setVersion(existingCurrentWeight.get().getVersion());
+
+        User previousUser = existingCurrentWeight.get().getUser();
+        CurrentWeight result = currentWeightRepository.saveAndFlush(currentWeight);
+        energyTargetService.evict(previousUser);
+        energyTargetService.evict(result.getUser());
         return ResponseEntity
             .ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, currentWeight.getId().toString()))
             .body(result);
     }
@@ -99,16 +119,20 @@ public class CurrentWeightResource {
      *
      * @param id the id of the currentWeight to save.
      * @param currentWeight the currentWeight to update.
+     * @param ifMatch the tag of the currentWeight the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated currentWeight,
      * or with status {@code 400 (Bad Request)} if the currentWeight is not valid,
      * or with status {@code 404 (Not Found)} if the currentWeight is not found,
+     * or with status {@code 409 (Conflict)} if the version of the currentWeight is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the currentWeight was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the currentWeight couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/current-weights/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<CurrentWeight> partialUpdateCurrentWeight(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody CurrentWeight currentWeight
+        @NotNull @RequestBody CurrentWeight currentWeight,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update CurrentWeight partially : {}, {}", id, currentWeight);
         if (currentWeight.getId() == null) {
@@ -126,46 +150,58 @@ public class CurrentWeightResource {
             .findById(currentWeight.getId())
             .map(
                 existingCurrentWeight -> {
+                    ETagUtil.checkIfMatch(ifMatch, entityTag(existingCurrentWeight), ENTITY_NAME);
+                    ETagUtil.checkVersion(currentWeight.getVersion(), existingCurrentWeight.getVersion(), CurrentWeight.class, id);
                     if (currentWeight.getWeight() != null) {
                         existingCurrentWeight.setWeight(currentWeight.getWeight());
                     }
                     if (currentWeight.getCreatedDate() != null) {
                         existingCurrentWeight.setCreatedDate(currentWeight.getCreatedDate());
                     }
+                    energyTargetService.evict(existingCurrentWeight.getUser());
 
                     return existingCurrentWeight;
                 }
             )
-            .map(currentWeightRepository::save);
+            .map(currentWeightRepository::saveAndFlush);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
+            CurrentWeightResource::entityTag,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, currentWeight.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /current-weights} : get all the currentWeights.
+     * {@code GET  /current-weights} : get all the currentWeights of the current user.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of currentWeights in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of currentWeights in body,
+     * or with status {@code 304 (Not Modified)} if none changed since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/current-weights")
-    public List<CurrentWeight> getAllCurrentWeights() {
-        log.debug("REST request to get all CurrentWeights");
-        return currentWeightRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<CurrentWeight>> getAllCurrentWeights() {
+        log.debug("REST request to get all CurrentWeights of the current user");
+        List<CurrentWeight> currentWeights = currentWeightRepository.findByUserIsCurrentUser();
+        return ResponseEntity
+            .ok()
+            .eTag(ETagUtil.entityTag(currentWeights.stream().flatMap(CurrentWeightResource::versionsOf)))
+            .body(currentWeights);
     }
 
     /**
      * {@code GET  /current-weights/:id} : get the "id" currentWeight.
      *
      * @param id the id of the currentWeight to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the currentWeight, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the currentWeight, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/current-weights/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<CurrentWeight> getCurrentWeight(@PathVariable Long id) {
         log.debug("REST request to get CurrentWeight : {}", id);
         Optional<CurrentWeight> currentWeight = currentWeightRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(currentWeight);
+        return ETagUtil.wrapOrNotFound(currentWeight, CurrentWeightResource::entityTag);
     }
 
     /**
@@ -177,10 +213,28 @@ public class CurrentWeightResource {
     @DeleteMapping("/current-weights/{id}")
     public ResponseEntity<Void> deleteCurrentWeight(@PathVariable Long id) {
         log.debug("REST request to delete CurrentWeight : {}", id);
+        currentWeightRepository.findById(id).map(CurrentWeight::getUser).ifPresent(energyTargetService::evict);
         currentWeightRepository.deleteById(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * @return the ids and versions of the currentWeight and of its user, which make up its representation.
+     */
+    private static Stream<Object> versionsOf(CurrentWeight currentWeight) {
+        User user = currentWeight.getUser();
+        return Stream.of(
+            currentWeight.getId(),
+            currentWeight.getVersion(),
+            user == null ? null : user.getId(),
+            user == null ? null : user.getVersion()
+        );
+    }
+
+    private static String entityTag(CurrentWeight currentWeight) {
+        return ETagUtil.entityTag(versionsOf(currentWeight));
+    }
 }
@@ -0,0 +1,85 @@
+package com.ava.foodlogger.web.rest;
+
+import com.ava.foodlogger.repository.DailyNutritionRepository;
+import com.ava.foodlogger.security.AuthoritiesConstants;
+import com.ava.foodlogger.service.DailyNutritionService;
+import com.ava.foodlogger.service.dto.DailyNutritionDTO;
+import com.ava.foodlogger.service.dto.DailyNutritionMismatchDTO;
+import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller for reading and maintaining the {@link com.ava.foodlogger.domain.DailyNutrition} read model.
+ */
+@RestController
+@RequestMapping("/api")
+public class DailyNutritionResource {
+
+    private final Logger log = LoggerFactory.getLogger(DailyNutritionResource.class);
+
+    private static final String ENTITY_NAME = "dailyNutrition";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final DailyNutritionRepository dailyNutritionRepository;
+
+    private final DailyNutritionService dailyNutritionService;
+
+    public DailyNutritionResource(DailyNutritionRepository dailyNutritionRepository, DailyNutritionService dailyNutritionService) {
+        this.dailyNutritionRepository = dailyNutritionRepository;
+        this.dailyNutritionService = dailyNutritionService;
+    }
+
+    /**
+     * {@code GET  /daily-nutritions?from=:from&to=:to} : get the daily nutrition totals of the current user between two dates.
+     *
+     * @param from the first day, inclusive.
+     * @param to the last day, inclusive.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of daily nutrition totals in body,
+     * or with status {@code 400 (Bad Request)} if {@code from} is after {@code to}.
+     */
+    @GetMapping("/daily-nutritions")
+    @Transactional(readOnly = true)
+    public List<DailyNutritionDTO> getDailyNutritions(@RequestParam LocalDate from, @RequestParam LocalDate to) {
+        log.debug("REST request to get DailyNutritions from {} to {}", from, to);
+        if (from.isAfter(to)) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "daterangeinvalid");
+        }
+        return dailyNutritionRepository.findAllForCurrentUser(from, to);
+    }
+
+    /**
+     * {@code POST  /admin/daily-nutritions/rebuild} : rebuild the daily nutrition read model from the food entries.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of rows written in body.
+     */
+    @PostMapping("/admin/daily-nutritions/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Long> rebuildDailyNutritions() {
+        log.debug("REST request to rebuild DailyNutritions");
+        long rows = dailyNutritionService.rebuild();
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert(applicationName, "Daily nutrition rebuilt", String.valueOf(rows))).body(rows);
+    }
+
+    /**
+     * {@code GET  /admin/daily-nutritions/check} : compare the daily nutrition read model with the food entries.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of inconsistent rows in body.
+     */
+    @GetMapping("/admin/daily-nutritions/check")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public List<DailyNutritionMismatchDTO> checkDailyNutritions() {
+        log.debug("REST request to check DailyNutritions");
+        return dailyNutritionService.check();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ava.foodlogger.web.rest;
+
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.service.DashboardService;
+import com.ava.foodlogger.service.UserService;
+import com.ava.foodlogger.service.dto.DashboardDTO;
+import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the dashboard of the current user.
+ */
+@RestController
+@RequestMapping("/api")
+public class DashboardResource {
+
+    private final Logger log = LoggerFactory.getLogger(DashboardResource.class);
+
+    private static final String ENTITY_NAME = "dashboard";
+
+    private final DashboardService dashboardService;
+
+    private final UserService userService;
+
+    public DashboardResource(DashboardService dashboardService, UserService userService) {
+        this.dashboardService = dashboardService;
+        this.userService = userService;
+    }
+
+    /**
+     * {@code GET  /dashboard} : get the dashboard of the current user, with the nutrition totals of today and of the
+     * last {@value DashboardService#TREND_DAYS} days, the latest current and goal weights, the profile and the targets.
+     * <p>
+     * The request is processed asynchronously, the response is written once all the parts of the dashboard are read.
+     *
+     * @return the {@link CompletableFuture} of the dashboard, completed with status {@code 200 (OK)}.
+     */
+    @GetMapping("/dashboard")
+    public CompletableFuture<DashboardDTO> getDashboard() {
+        log.debug("REST request to get the Dashboard");
+        User user = userService
+            .getUserWithAuthorities()
+            .orElseThrow(() -> new BadRequestAlertException("User could not be found", ENTITY_NAME, "usernotfound"));
+        return dashboardService.getDashboardOfCurrentUser(user, LocalDate.now());
+    }
+}
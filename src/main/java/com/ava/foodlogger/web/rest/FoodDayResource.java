@@ -1,18 +1,33 @@
 package com.ava.foodlogger.web.rest;
 
 import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.FoodDayRepository;
+import com.ava.foodlogger.repository.FoodEntryRepository;
 import com.ava.foodlogger.repository.UserRepository;
 import com.ava.foodlogger.security.SecurityUtils;
+import com.ava.foodlogger.service.DailyNutritionService;
+import com.ava.foodlogger.service.FoodDayArchiveService;
+import com.ava.foodlogger.service.dto.FoodDaySummaryDTO;
+import com.ava.foodlogger.service.dto.FoodDayViewDTO;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
 import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import com.ava.foodlogger.web.rest.util.ETagUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -31,15 +46,31 @@ public class FoodDayResource {
 
     private static final String ENTITY_NAME = "foodDay";
 
+    private static final int DEFAULT_DAYS = 31;
+
+    private static final int MAX_DAYS = 366;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final FoodDayRepository foodDayRepository;
+    private final FoodEntryRepository foodEntryRepository;
     private final UserRepository userRepository;
+    private final DailyNutritionService dailyNutritionService;
+    private final FoodDayArchiveService foodDayArchiveService;
 
-    public FoodDayResource(FoodDayRepository foodDayRepository, UserRepository userRepository) {
+    public FoodDayResource(
+        FoodDayRepository foodDayRepository,
+        FoodEntryRepository foodEntryRepository,
+        UserRepository userRepository,
+        DailyNutritionService dailyNutritionService,
+        FoodDayArchiveService foodDayArchiveService
+    ) {
         this.foodDayRepository = foodDayRepository;
+        this.foodEntryRepository = foodEntryRepository;
         this.userRepository = userRepository;
+        this.dailyNutritionService = dailyNutritionService;
+        this.foodDayArchiveService = foodDayArchiveService;
     }
 
     /**
@@ -69,14 +100,20 @@ public class FoodDayResource {
      *
      * @param id the id of the foodDay to save.
      * @param foodDay the foodDay to update.
+     * @param ifMatch the tag of the foodDay the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated foodDay,
      * or with status {@code 400 (Bad Request)} if the foodDay is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the foodDay is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the foodDay was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the foodDay couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/food-days/{id}")
-    public ResponseEntity<FoodDay> updateFoodDay(@PathVariable(value = "id", required = false) final Long id, @RequestBody FoodDay foodDay)
-        throws URISyntaxException {
+    public ResponseEntity<FoodDay> updateFoodDay(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody FoodDay foodDay,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update FoodDay : {}, {}", id, foodDay);
         if (foodDay.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -85,13 +122,21 @@ public class FoodDayResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!foodDayRepository.existsById(id)) {
+        Optional<FoodDay> existingFoodDay = foodDayRepository.findById(id);
+        if (existingFoodDay.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        ETagUtil.checkIfMatch(ifMatch, entityTag(existingFoodDay.get()), ENTITY_NAME);
+        ETagUtil.checkVersion(foodDay.getVersion(), existingFoodDay.get().getVersion(), FoodDay.class, id);
+        foodDay.setVersion(existingFoodDay.get().getVersion());
 
-        FoodDay result = foodDayRepository.save(foodDay);
+        Long previousUserId = existingFoodDay.get().getUser() == null ? null : existingFoodDay.get().getUser().getId();
+        LocalDate previousCreatedDate = existingFoodDay.get().getCreatedDate();
+        FoodDay result = foodDayRepository.saveAndFlush(foodDay);
+        refreshDailyNutrition(previousUserId, previousCreatedDate, result);
         return ResponseEntity
             .ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, foodDay.getId().toString()))
             .body(result);
     }
@@ -101,16 +146,20 @@ public class FoodDayResource {
      *
      * @param id the id of the foodDay to save.
      * @param foodDay the foodDay to update.
+     * @param ifMatch the tag of the foodDay the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated foodDay,
      * or with status {@code 400 (Bad Request)} if the foodDay is not valid,
      * or with status {@code 404 (Not Found)} if the foodDay is not found,
+     * or with status {@code 409 (Conflict)} if the version of the foodDay is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the foodDay was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the foodDay couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/food-days/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<FoodDay> partialUpdateFoodDay(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody FoodDay foodDay
+        @RequestBody FoodDay foodDay,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update FoodDay partially : {}, {}", id, foodDay);
         if (foodDay.getId() == null) {
@@ -128,43 +177,161 @@ public class FoodDayResource {
             .findById(foodDay.getId())
             .map(
                 existingFoodDay -> {
+                    ETagUtil.checkIfMatch(ifMatch, entityTag(existingFoodDay), ENTITY_NAME);
+                    ETagUtil.checkVersion(foodDay.getVersion(), existingFoodDay.getVersion(), FoodDay.class, id);
+                    LocalDate previousCreatedDate = existingFoodDay.getCreatedDate();
                     if (foodDay.getCreatedDate() != null) {
                         existingFoodDay.setCreatedDate(foodDay.getCreatedDate());
                     }
+                    Long userId = existingFoodDay.getUser() == null ? null : existingFoodDay.getUser().getId();
+                    refreshDailyNutrition(userId, previousCreatedDate, existingFoodDay);
 
                     return existingFoodDay;
                 }
             )
-            .map(foodDayRepository::save);
+            .map(foodDayRepository::saveAndFlush);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
+            FoodDayResource::entityTag,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, foodDay.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /food-days} : get all the foodDays.
+     * Moves the entries of a foodDay to its new user and date in the daily nutrition read model, if they changed.
+     */
+    private void refreshDailyNutrition(Long previousUserId, LocalDate previousCreatedDate, FoodDay foodDay) {
+        Long userId = foodDay.getUser() == null ? null : foodDay.getUser().getId();
+        if (Objects.equals(previousUserId, userId) && Objects.equals(previousCreatedDate, foodDay.getCreatedDate())) {
+            return;
+        }
+        foodDayRepository.flush();
+        dailyNutritionService.refresh(previousUserId, previousCreatedDate);
+        dailyNutritionService.refresh(userId, foodDay.getCreatedDate());
+    }
+
+    /**
+     * {@code GET  /food-days} : get the foodDays of the current user in a date range, most recent first.
+     * <p>
+     * The range is given by at most one of {@code month}, {@code days} (the last N days, today included) or
+     * {@code from}/{@code to}, and defaults to the last {@value #DEFAULT_DAYS} days. It can span at most
+     * {@value #MAX_DAYS} days. The archived days of the range are included, without their entries.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of foodDays in body.
+     * @param from the first day, inclusive, defaults to {@value #DEFAULT_DAYS} days before {@code to}.
+     * @param to the last day, inclusive, defaults to today.
+     * @param days the number of days up to today.
+     * @param month the month, as {@code yyyy-MM}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of foodDays in body,
+     * or with status {@code 304 (Not Modified)} if none changed since the tag of the {@code If-None-Match} header,
+     * or with status {@code 400 (Bad Request)} if the range is ambiguous, empty or too large.
      */
     @GetMapping("/food-days")
-    public List<FoodDay> getAllFoodDays() {
-        log.debug("REST request to get all FoodDays");
-        return foodDayRepository.findByUserIsCurrentUser();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<FoodDay>> getAllFoodDays(
+        @RequestParam(required = false) LocalDate from,
+        @RequestParam(required = false) LocalDate to,
+        @RequestParam(required = false) Integer days,
+        @RequestParam(required = false) YearMonth month
+    ) {
+        log.debug("REST request to get FoodDays from {} to {}, for {} days or in {}", from, to, days, month);
+        if ((month != null ? 1 : 0) + (days != null ? 1 : 0) + (from != null || to != null ? 1 : 0) > 1) {
+            throw new BadRequestAlertException("Only one of month, days or from/to can be given", ENTITY_NAME, "daterangeinvalid");
+        }
+        if (month != null) {
+            from = month.atDay(1);
+            to = month.atEndOfMonth();
+        } else if (days != null) {
+            to = LocalDate.now();
+            from = to.minusDays(days - 1L);
+        } else {
+            to = to != null ? to : LocalDate.now();
+            from = from != null ? from : to.minusDays(DEFAULT_DAYS - 1L);
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "daterangeinvalid");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new BadRequestAlertException("Date range is too large", ENTITY_NAME, "daterangetoolarge");
+        }
+        List<FoodDay> foodDays = foodDayRepository.findByUserIsCurrentUserAndCreatedDateBetween(from, to);
+        List<FoodDay> archived = foodDayArchiveService.findAllForCurrentUser(from, to);
+        if (!archived.isEmpty()) {
+            foodDays =
+                Stream
+                    .concat(foodDays.stream(), archived.stream())
+                    .sorted(Comparator.comparing(FoodDay::getCreatedDate).thenComparing(FoodDay::getId).reversed())
+                    .collect(Collectors.toList());
+        }
+        return ResponseEntity.ok().eTag(ETagUtil.entityTag(foodDays.stream().flatMap(FoodDayResource::versionsOf))).body(foodDays);
     }
 
     /**
-     * {@code GET  /food-days/:id} : get the "id" foodDay.
+     * {@code GET  /food-days/:id} : get the "id" foodDay, or the archived one without its entries.
      *
      * @param id the id of the foodDay to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the foodDay, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the foodDay, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/food-days/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<FoodDay> getFoodDay(@PathVariable Long id) {
         log.debug("REST request to get FoodDay : {}", id);
-        Optional<FoodDay> foodDay = foodDayRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(foodDay);
+        Optional<FoodDay> foodDay = foodDayRepository.findById(id).or(() -> foodDayArchiveService.findOne(id));
+        return ETagUtil.wrapOrNotFound(foodDay, FoodDayResource::entityTag);
+    }
+
+    /**
+     * {@code GET  /food-days/:id/view} : get the "id" foodDay with all of its entries and the macros of their foods.
+     * <p>
+     * The view is read with a single projection query, unlike {@link #getFoodDay(Long)} which loads the entity graph.
+     * An archived day is read from the archive, with the foods of its entries as they were when it was archived.
+     *
+     * @param id the id of the foodDay to view.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the day view, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/food-days/{id}/view")
+    @Transactional(readOnly = true)
+    public ResponseEntity<FoodDayViewDTO> getFoodDayView(@PathVariable Long id) {
+        log.debug("REST request to get view of FoodDay : {}", id);
+        Optional<FoodDayViewDTO> view = FoodDayViewDTO
+            .of(foodDayRepository.findViewRowsById(id))
+            .or(() -> foodDayArchiveService.findView(id));
+        return ResponseUtil.wrapOrNotFound(view);
+    }
+
+    /**
+     * {@code GET  /food-days/:id/summary} : get the nutrition totals of the "id" foodDay, per meal type and in total.
+     *
+     * @param id the id of the foodDay to summarize.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the summary, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/food-days/{id}/summary")
+    @Transactional(readOnly = true)
+    public ResponseEntity<FoodDaySummaryDTO> getFoodDaySummary(@PathVariable Long id) {
+        log.debug("REST request to get summary of FoodDay : {}", id);
+        Optional<FoodDaySummaryDTO> summary = foodDayRepository
+            .findById(id)
+            .map(foodDay -> new FoodDaySummaryDTO(id, foodDay.getCreatedDate(), foodEntryRepository.sumNutritionByFoodDayId(id)))
+            .or(() -> foodDayArchiveService.findSummary(id));
+        return ResponseUtil.wrapOrNotFound(summary);
+    }
+
+    /**
+     * {@code GET  /food-days/summary?date=:date} : get the nutrition totals of the current user for the given date.
+     *
+     * @param date the date to summarize, in ISO format.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the summary.
+     */
+    @GetMapping("/food-days/summary")
+    @Transactional(readOnly = true)
+    public ResponseEntity<FoodDaySummaryDTO> getFoodDaySummaryByDate(@RequestParam LocalDate date) {
+        log.debug("REST request to get summary of FoodDay for date : {}", date);
+        List<NutritionTotalsDTO> meals = foodDayArchiveService.addNutritionForCurrentUser(
+            date,
+            foodEntryRepository.sumNutritionByCreatedDateForCurrentUser(date)
+        );
+        return ResponseEntity.ok(new FoodDaySummaryDTO(null, date, meals));
     }
 
     /**
@@ -182,4 +349,21 @@ public class FoodDayResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * @return the ids and versions of the foodDay and of its user, which make up its representation.
+     */
+    private static Stream<Object> versionsOf(FoodDay foodDay) {
+        User user = foodDay.getUser();
+        return Stream.of(
+            foodDay.getId(),
+            foodDay.getVersion(),
+            user == null ? null : user.getId(),
+            user == null ? null : user.getVersion()
+        );
+    }
+
+    private static String entityTag(FoodDay foodDay) {
+        return ETagUtil.entityTag(versionsOf(foodDay));
+    }
 }
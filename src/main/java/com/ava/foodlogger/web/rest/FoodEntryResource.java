@@ -1,18 +1,36 @@
 package com.ava.foodlogger.web.rest;
 
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
 import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.repository.FoodDayRepository;
 import com.ava.foodlogger.repository.FoodEntryRepository;
+import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.security.SecurityUtils;
+import com.ava.foodlogger.service.DailyNutritionService;
+import com.ava.foodlogger.service.dto.FoodEntryBatchDTO;
+import com.ava.foodlogger.service.dto.FoodEntryBatchErrorDTO;
+import com.ava.foodlogger.service.dto.FoodEntryBatchResultDTO;
 import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import com.ava.foodlogger.web.rest.util.ETagUtil;
+import com.ava.foodlogger.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.validation.ConstraintViolation;
+import javax.validation.Valid;
+import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,7 +39,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.ava.foodlogger.domain.FoodEntry}.
@@ -40,8 +57,30 @@ public class FoodEntryResource {
 
     private final FoodEntryRepository foodEntryRepository;
 
-    public FoodEntryResource(FoodEntryRepository foodEntryRepository) {
+    private final FoodRepository foodRepository;
+
+    private final FoodDayRepository foodDayRepository;
+
+    private final UserRepository userRepository;
+
+    private final DailyNutritionService dailyNutritionService;
+
+    private final Validator validator;
+
+    public FoodEntryResource(
+        FoodEntryRepository foodEntryRepository,
+        FoodRepository foodRepository,
+        FoodDayRepository foodDayRepository,
+        UserRepository userRepository,
+        DailyNutritionService dailyNutritionService,
+        Validator validator
+    ) {
         this.foodEntryRepository = foodEntryRepository;
+        this.foodRepository = foodRepository;
+        this.foodDayRepository = foodDayRepository;
+        this.userRepository = userRepository;
+        this.dailyNutritionService = dailyNutritionService;
+        this.validator = validator;
     }
 
     /**
@@ -58,26 +97,117 @@ public class FoodEntryResource {
             throw new BadRequestAlertException("A new foodEntry cannot already have an ID", ENTITY_NAME, "idexists");
         }
         FoodEntry result = foodEntryRepository.save(foodEntry);
+        dailyNutritionService.add(result);
         return ResponseEntity
             .created(new URI("/api/food-entries/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /food-entries/batch} : Create many foodEntries in one transaction, optionally with their foodDay.
+     * <p>
+     * The entries are inserted with JDBC batching, and the foods and days they reference are loaded with one query each.
+     * Invalid items are reported in the response and skipped, the valid ones are still created.
+     *
+     * @param batch the foodEntries to create, and the foodDay of the entries which do not reference one, created for the current user if it has no ID.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the created foodEntries and the rejected items,
+     * or with status {@code 400 (Bad Request)} if the batch is empty, too large, or references a foodDay which does not exist.
+     */
+    @PostMapping("/food-entries/batch")
+    public ResponseEntity<FoodEntryBatchResultDTO> createFoodEntries(@Valid @RequestBody FoodEntryBatchDTO batch) {
+        log.debug("REST request to save a batch of FoodEntries : {}", batch);
+        FoodDay batchFoodDay = batch.getFoodDay();
+        if (batchFoodDay != null) {
+            if (batchFoodDay.getId() == null) {
+                String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+                batchFoodDay.setUser(userRepository.findOneByLogin(login).get());
+                batchFoodDay = foodDayRepository.save(batchFoodDay);
+            } else {
+                batchFoodDay =
+                    foodDayRepository
+                        .findById(batchFoodDay.getId())
+                        .orElseThrow(() -> new BadRequestAlertException("Entity not found", "foodDay", "idnotfound"));
+            }
+        }
+
+        Map<Long, Food> foods = foodRepository
+            .findAllById(referencedIds(batch.getFoodEntries(), FoodEntry::getFood, Food::getId))
+            .stream()
+            .collect(Collectors.toMap(Food::getId, Function.identity()));
+        Map<Long, FoodDay> foodDays = foodDayRepository
+            .findAllById(referencedIds(batch.getFoodEntries(), FoodEntry::getFoodDay, FoodDay::getId))
+            .stream()
+            .collect(Collectors.toMap(FoodDay::getId, Function.identity()));
+
+        List<FoodEntry> valid = new ArrayList<>();
+        List<FoodEntryBatchErrorDTO> errors = new ArrayList<>();
+        for (int i = 0; i < batch.getFoodEntries().size(); i++) {
+            FoodEntry foodEntry = batch.getFoodEntries().get(i);
+            if (foodEntry == null) {
+                errors.add(new FoodEntryBatchErrorDTO(i, "null", "A foodEntry is required"));
+                continue;
+            }
+            Set<ConstraintViolation<FoodEntry>> violations = validator.validate(foodEntry);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<FoodEntry> violation = violations.iterator().next();
+                errors.add(new FoodEntryBatchErrorDTO(i, "invalid", violation.getPropertyPath() + " " + violation.getMessage()));
+                continue;
+            }
+            if (foodEntry.getId() != null) {
+                errors.add(new FoodEntryBatchErrorDTO(i, "idexists", "A new foodEntry cannot already have an ID"));
+                continue;
+            }
+            Food food = foodEntry.getFood() == null ? null : foods.get(foodEntry.getFood().getId());
+            if (food == null) {
+                errors.add(new FoodEntryBatchErrorDTO(i, "foodnotfound", "The food does not exist"));
+                continue;
+            }
+            FoodDay foodDay = foodEntry.getFoodDay() == null ? batchFoodDay : foodDays.get(foodEntry.getFoodDay().getId());
+            if (foodDay == null) {
+                errors.add(new FoodEntryBatchErrorDTO(i, "fooddaynotfound", "The foodDay does not exist"));
+                continue;
+            }
+            valid.add(foodEntry.food(food).foodDay(foodDay));
+        }
+
+        List<FoodEntry> result = foodEntryRepository.saveAll(valid);
+        dailyNutritionService.addAll(result);
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createAlert(applicationName, "A batch of foodEntries is created", String.valueOf(result.size())))
+            .body(new FoodEntryBatchResultDTO(batchFoodDay, result, errors));
+    }
+
+    private static <T> Set<Long> referencedIds(List<FoodEntry> foodEntries, Function<FoodEntry, T> association, Function<T, Long> id) {
+        return foodEntries
+            .stream()
+            .filter(Objects::nonNull)
+            .map(association)
+            .filter(Objects::nonNull)
+            .map(id)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+
     /**
      * {@code PUT  /food-entries/:id} : Updates an existing foodEntry.
      *
      * @param id the id of the foodEntry to save.
      * @param foodEntry the foodEntry to update.
+     * @param ifMatch the tag of the foodEntry the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated foodEntry,
      * or with status {@code 400 (Bad Request)} if the foodEntry is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the foodEntry is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the foodEntry was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the foodEntry couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/food-entries/{id}")
     public ResponseEntity<FoodEntry> updateFoodEntry(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody FoodEntry foodEntry
+        @RequestBody FoodEntry foodEntry,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update FoodEntry : {}, {}", id, foodEntry);
         if (foodEntry.getId() == null) {
@@ -87,13 +217,20 @@ public class FoodEntryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!foodEntryRepository.existsById(id)) {
+        Optional<FoodEntry> existingFoodEntry = foodEntryRepository.findById(id);
+        if (existingFoodEntry.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        ETagUtil.checkIfMatch(ifMatch, entityTag(existingFoodEntry.get()), ENTITY_NAME);
+        ETagUtil.checkVersion(foodEntry.getVersion(), existingFoodEntry.get().getVersion(), FoodEntry.class, id);
+        foodEntry.setVersion(existingFoodEntry.get().getVersion());
 
-        FoodEntry result = foodEntryRepository.save(foodEntry);
+        dailyNutritionService.subtract(existingFoodEntry.get());
+        FoodEntry result = foodEntryRepository.saveAndFlush(foodEntry);
+        dailyNutritionService.add(result);
         return ResponseEntity
             .ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, foodEntry.getId().toString()))
             .body(result);
     }
@@ -103,16 +240,20 @@ public class FoodEntryResource {
      *
      * @param id the id of the foodEntry to save.
      * @param foodEntry the foodEntry to update.
+     * @param ifMatch the tag of the foodEntry the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated foodEntry,
      * or with status {@code 400 (Bad Request)} if the foodEntry is not valid,
      * or with status {@code 404 (Not Found)} if the foodEntry is not found,
+     * or with status {@code 409 (Conflict)} if the version of the foodEntry is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the foodEntry was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the foodEntry couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/food-entries/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<FoodEntry> partialUpdateFoodEntry(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody FoodEntry foodEntry
+        @RequestBody FoodEntry foodEntry,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update FoodEntry partially : {}, {}", id, foodEntry);
         if (foodEntry.getId() == null) {
@@ -130,6 +271,9 @@ public class FoodEntryResource {
             .findById(foodEntry.getId())
             .map(
                 existingFoodEntry -> {
+                    ETagUtil.checkIfMatch(ifMatch, entityTag(existingFoodEntry), ENTITY_NAME);
+                    ETagUtil.checkVersion(foodEntry.getVersion(), existingFoodEntry.getVersion(), FoodEntry.class, id);
+                    dailyNutritionService.subtract(existingFoodEntry);
                     if (foodEntry.getMealtype() != null) {
                         existingFoodEntry.setMealtype(foodEntry.getMealtype());
                     }
@@ -140,39 +284,76 @@ public class FoodEntryResource {
                     return existingFoodEntry;
                 }
             )
-            .map(foodEntryRepository::save);
+            .map(foodEntryRepository::saveAndFlush);
+        result.ifPresent(dailyNutritionService::add);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
+            FoodEntryResource::entityTag,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, foodEntry.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /food-entries} : get all the foodEntries.
+     * {@code GET  /food-entries} : get all the foodEntries of the current user.
+     * <p>
+     * With a {@code cursor} parameter, empty for the first page, the foodEntries are paginated by keyset instead of by
+     * page number: each page costs the same regardless of its depth and no total count is computed.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of foodEntries in body.
+     * @param cursor the cursor of the page, taken from the {@code Link} header of the previous page, for keyset pagination.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of foodEntries in body,
+     * or with status {@code 304 (Not Modified)} if the page did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/food-entries")
-    public ResponseEntity<List<FoodEntry>> getAllFoodEntries(Pageable pageable) {
-        log.debug("REST request to get a page of FoodEntries");
-        Page<FoodEntry> page = foodEntryRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<FoodEntry>> getAllFoodEntries(
+        Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor
+    ) {
+        if (cursor != null) {
+            return getAllFoodEntriesAfterCursor(pageable, cursor);
+        }
+        log.debug("REST request to get a page of FoodEntries of the current user");
+        Page<FoodEntry> page = foodEntryRepository.findByFoodDayUserIsCurrentUser(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        String entityTag = ETagUtil.entityTag(
+            Stream.concat(Stream.of(page.getTotalElements()), page.getContent().stream().flatMap(FoodEntryResource::versionsOf))
+        );
+        return ResponseEntity.ok().headers(headers).eTag(entityTag).body(page.getContent());
+    }
+
+    private ResponseEntity<List<FoodEntry>> getAllFoodEntriesAfterCursor(Pageable pageable, String cursor) {
+        log.debug("REST request to get a slice of FoodEntries after cursor {}", cursor);
+        Long after = KeysetPaginationUtil.decodeCursor(cursor, ENTITY_NAME);
+        Pageable keysetPageable = KeysetPaginationUtil.toKeysetPageable(pageable, ENTITY_NAME);
+        Slice<FoodEntry> slice = KeysetPaginationUtil.isAscending(keysetPageable)
+            ? foodEntryRepository.findByFoodDayUserIsCurrentUserAndIdGreaterThan(after == null ? Long.MIN_VALUE : after, keysetPageable)
+            : foodEntryRepository.findByFoodDayUserIsCurrentUserAndIdLessThan(after == null ? Long.MAX_VALUE : after, keysetPageable);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            FoodEntry::getId
+        );
+        String entityTag = ETagUtil.entityTag(
+            Stream.concat(Stream.of(slice.hasNext()), slice.getContent().stream().flatMap(FoodEntryResource::versionsOf))
+        );
+        return ResponseEntity.ok().headers(headers).eTag(entityTag).body(slice.getContent());
     }
 
     /**
      * {@code GET  /food-entries/:id} : get the "id" foodEntry.
      *
      * @param id the id of the foodEntry to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the foodEntry, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the foodEntry, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/food-entries/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<FoodEntry> getFoodEntry(@PathVariable Long id) {
         log.debug("REST request to get FoodEntry : {}", id);
         Optional<FoodEntry> foodEntry = foodEntryRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(foodEntry);
+        return ETagUtil.wrapOrNotFound(foodEntry, FoodEntryResource::entityTag);
     }
 
     /**
@@ -184,10 +365,35 @@ public class FoodEntryResource {
     @DeleteMapping("/food-entries/{id}")
     public ResponseEntity<Void> deleteFoodEntry(@PathVariable Long id) {
         log.debug("REST request to delete FoodEntry : {}", id);
+        foodEntryRepository.findById(id).ifPresent(dailyNutritionService::subtract);
         foodEntryRepository.deleteById(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * @return the ids and versions of the foodEntry, of its food, of its foodDay and of the user of the foodDay, which
+     * make up its representation.
+     */
+    private static Stream<Object> versionsOf(FoodEntry foodEntry) {
+        Food food = foodEntry.getFood();
+        FoodDay foodDay = foodEntry.getFoodDay();
+        User user = foodDay == null ? null : foodDay.getUser();
+        return Stream.of(
+            foodEntry.getId(),
+            foodEntry.getVersion(),
+            food == null ? null : food.getId(),
+            food == null ? null : food.getVersion(),
+            foodDay == null ? null : foodDay.getId(),
+            foodDay == null ? null : foodDay.getVersion(),
+            user == null ? null : user.getId(),
+            user == null ? null : user.getVersion()
+        );
+    }
+
+    private static String entityTag(FoodEntry foodEntry) {
+        return ETagUtil.entityTag(versionsOf(foodEntry));
+    }
 }
@@ -0,0 +1,85 @@
+package com.ava.foodlogger.web.rest;
+
+import com.ava.foodlogger.security.AuthoritiesConstants;
+import com.ava.foodlogger.service.FoodImportService;
+import com.ava.foodlogger.service.InvalidFoodImportException;
+import com.ava.foodlogger.service.dto.FoodImportReportDTO;
+import com.ava.foodlogger.service.importer.FoodImportFormat;
+import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller for the bulk import of {@link com.ava.foodlogger.domain.Food} databases.
+ * <p>
+ * The request body is read as it is imported, never buffered.
+ */
+@RestController
+@RequestMapping("/api")
+public class FoodImportResource {
+
+    private final Logger log = LoggerFactory.getLogger(FoodImportResource.class);
+
+    private static final String ENTITY_NAME = "food";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final FoodImportService foodImportService;
+
+    public FoodImportResource(FoodImportService foodImportService) {
+        this.foodImportService = foodImportService;
+    }
+
+    /**
+     * {@code POST  /admin/foods/import} : import foods from delimited text, in the layout of
+     * {@code config/liquibase/fake-data/food.csv}.
+     *
+     * @param body the food database.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the report of the import in body,
+     * or with status {@code 400 (Bad Request)} if the database is malformed.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/admin/foods/import", consumes = "text/csv")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<FoodImportReportDTO> importFoodsFromCsv(InputStream body) throws IOException {
+        log.debug("REST request to import Foods from CSV");
+        return importFoods(body, FoodImportFormat.CSV);
+    }
+
+    /**
+     * {@code POST  /admin/foods/import} : import foods from an array of foods, or from newline delimited JSON.
+     *
+     * @param body the food database.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the report of the import in body,
+     * or with status {@code 400 (Bad Request)} if the database is malformed.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/admin/foods/import", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<FoodImportReportDTO> importFoodsFromJson(InputStream body) throws IOException {
+        log.debug("REST request to import Foods from JSON");
+        return importFoods(body, FoodImportFormat.JSON);
+    }
+
+    private ResponseEntity<FoodImportReportDTO> importFoods(InputStream body, FoodImportFormat format) throws IOException {
+        FoodImportReportDTO report;
+        try {
+            report = foodImportService.importFoods(body, format);
+        } catch (InvalidFoodImportException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createAlert(applicationName, "Foods imported", String.valueOf(report.getImported())))
+            .body(report);
+    }
+}
@@ -2,12 +2,18 @@ package com.ava.foodlogger.web.rest;
 
 import com.ava.foodlogger.domain.Food;
 import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.service.DailyNutritionService;
+import com.ava.foodlogger.service.FoodSearchService;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
 import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import com.ava.foodlogger.web.rest.util.ETagUtil;
+import com.ava.foodlogger.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
@@ -15,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,7 +30,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.ava.foodlogger.domain.Food}.
@@ -37,13 +43,21 @@ public class FoodResource {
 
     private static final String ENTITY_NAME = "food";
 
+    private static final int MAX_SEARCH_SIZE = 50;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final FoodRepository foodRepository;
 
-    public FoodResource(FoodRepository foodRepository) {
+    private final DailyNutritionService dailyNutritionService;
+
+    private final FoodSearchService foodSearchService;
+
+    public FoodResource(FoodRepository foodRepository, DailyNutritionService dailyNutritionService, FoodSearchService foodSearchService) {
         this.foodRepository = foodRepository;
+        this.dailyNutritionService = dailyNutritionService;
+        this.foodSearchService = foodSearchService;
     }
 
     /**
@@ -60,6 +74,7 @@ public class FoodResource {
             throw new BadRequestAlertException("A new food cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Food result = foodRepository.save(food);
+        foodSearchService.index(result);
         return ResponseEntity
             .created(new URI("/api/foods/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -71,14 +86,20 @@ public class FoodResource {
      *
      * @param id the id of the food to save.
      * @param food the food to update.
+     * @param ifMatch the tag of the food the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated food,
      * or with status {@code 400 (Bad Request)} if the food is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the food is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the food was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the food couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/foods/{id}")
-    public ResponseEntity<Food> updateFood(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Food food)
-        throws URISyntaxException {
+    public ResponseEntity<Food> updateFood(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Food food,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Food : {}, {}", id, food);
         if (food.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -87,13 +108,21 @@ public class FoodResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!foodRepository.existsById(id)) {
+        Optional<Food> existingFood = foodRepository.findById(id);
+        if (existingFood.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        ETagUtil.checkIfMatch(ifMatch, entityTag(existingFood.get()), ENTITY_NAME);
+        ETagUtil.checkVersion(food.getVersion(), existingFood.get().getVersion(), Food.class, id);
+        food.setVersion(existingFood.get().getVersion());
 
-        Food result = foodRepository.save(food);
+        NutritionTotalsDTO previousMacros = dailyNutritionService.macrosOf(existingFood.get());
+        Food result = foodRepository.saveAndFlush(food);
+        dailyNutritionService.foodChanged(result, previousMacros);
+        foodSearchService.index(result);
         return ResponseEntity
             .ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, food.getId().toString()))
             .body(result);
     }
@@ -103,16 +132,20 @@ public class FoodResource {
      *
      * @param id the id of the food to save.
      * @param food the food to update.
+     * @param ifMatch the tag of the food the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated food,
      * or with status {@code 400 (Bad Request)} if the food is not valid,
      * or with status {@code 404 (Not Found)} if the food is not found,
+     * or with status {@code 409 (Conflict)} if the version of the food is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the food was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the food couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/foods/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<Food> partialUpdateFood(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Food food
+        @NotNull @RequestBody Food food,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Food partially : {}, {}", id, food);
         if (food.getId() == null) {
@@ -130,6 +163,9 @@ public class FoodResource {
             .findById(food.getId())
             .map(
                 existingFood -> {
+                    ETagUtil.checkIfMatch(ifMatch, entityTag(existingFood), ENTITY_NAME);
+                    ETagUtil.checkVersion(food.getVersion(), existingFood.getVersion(), Food.class, id);
+                    NutritionTotalsDTO previousMacros = dailyNutritionService.macrosOf(existingFood);
                     if (food.getName() != null) {
                         existingFood.setName(food.getName());
                     }
@@ -148,43 +184,95 @@ public class FoodResource {
                     if (food.getSodium() != null) {
                         existingFood.setSodium(food.getSodium());
                     }
+                    dailyNutritionService.foodChanged(existingFood, previousMacros);
 
                     return existingFood;
                 }
             )
-            .map(foodRepository::save);
+            .map(foodRepository::saveAndFlush);
+        result.ifPresent(foodSearchService::index);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
+            FoodResource::entityTag,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, food.getId().toString())
         );
     }
 
     /**
      * {@code GET  /foods} : get all the foods.
+     * <p>
+     * With a {@code cursor} parameter, empty for the first page, the foods are paginated by keyset instead of by
+     * page number: each page costs the same regardless of its depth and no total count is computed.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of foods in body.
+     * @param cursor the cursor of the page, taken from the {@code Link} header of the previous page, for keyset pagination.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of foods in body,
+     * or with status {@code 304 (Not Modified)} if the page did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/foods")
-    public ResponseEntity<List<Food>> getAllFoods(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Food>> getAllFoods(
+        Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor
+    ) {
+        if (cursor != null) {
+            return getAllFoodsAfterCursor(pageable, cursor);
+        }
         log.debug("REST request to get a page of Foods");
         Page<Food> page = foodRepository.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        String entityTag = ETagUtil.entityTag(
+            Stream.concat(Stream.of(page.getTotalElements()), page.getContent().stream().flatMap(FoodResource::versionsOf))
+        );
+        return ResponseEntity.ok().headers(headers).eTag(entityTag).body(page.getContent());
+    }
+
+    private ResponseEntity<List<Food>> getAllFoodsAfterCursor(Pageable pageable, String cursor) {
+        log.debug("REST request to get a slice of Foods after cursor {}", cursor);
+        Long after = KeysetPaginationUtil.decodeCursor(cursor, ENTITY_NAME);
+        Pageable keysetPageable = KeysetPaginationUtil.toKeysetPageable(pageable, ENTITY_NAME);
+        Slice<Food> slice = KeysetPaginationUtil.isAscending(keysetPageable)
+            ? foodRepository.findAllByIdGreaterThan(after == null ? Long.MIN_VALUE : after, keysetPageable)
+            : foodRepository.findAllByIdLessThan(after == null ? Long.MAX_VALUE : after, keysetPageable);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            Food::getId
+        );
+        String entityTag = ETagUtil.entityTag(
+            Stream.concat(Stream.of(slice.hasNext()), slice.getContent().stream().flatMap(FoodResource::versionsOf))
+        );
+        return ResponseEntity.ok().headers(headers).eTag(entityTag).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /foods/_search?q=:q} : search the foods whose name matches a query, for typeahead.
+     *
+     * @param q the text typed by the user.
+     * @param size the maximum number of results, at most {@value #MAX_SEARCH_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching foods in body, best match first.
+     */
+    @GetMapping("/foods/_search")
+    @Transactional(readOnly = true)
+    public List<Food> searchFoods(@RequestParam String q, @RequestParam(defaultValue = "10") int size) {
+        log.debug("REST request to search Foods for query {}", q);
+        return foodSearchService.search(q, Math.min(size, MAX_SEARCH_SIZE));
     }
 
     /**
      * {@code GET  /foods/:id} : get the "id" food.
      *
      * @param id the id of the food to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the food, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the food, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/foods/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Food> getFood(@PathVariable Long id) {
         log.debug("REST request to get Food : {}", id);
         Optional<Food> food = foodRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(food);
+        return ETagUtil.wrapOrNotFound(food, FoodResource::entityTag);
     }
 
     /**
@@ -197,9 +285,21 @@ public class FoodResource {
     public ResponseEntity<Void> deleteFood(@PathVariable Long id) {
         log.debug("REST request to delete Food : {}", id);
         foodRepository.deleteById(id);
+        foodSearchService.remove(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * @return the id and version of the food, which make up its representation.
+     */
+    private static Stream<Object> versionsOf(Food food) {
+        return Stream.of(food.getId(), food.getVersion());
+    }
+
+    private static String entityTag(Food food) {
+        return ETagUtil.entityTag(versionsOf(food));
+    }
 }
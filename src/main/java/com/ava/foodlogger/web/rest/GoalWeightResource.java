@@ -1,23 +1,27 @@
 package com.ava.foodlogger.web.rest;
 
 import com.ava.foodlogger.domain.GoalWeight;
+import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.GoalWeightRepository;
+import com.ava.foodlogger.service.EnergyTargetService;
 import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import com.ava.foodlogger.web.rest.util.ETagUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.ava.foodlogger.domain.GoalWeight}.
@@ -36,8 +40,11 @@ public class GoalWeightResource {
 
     private final GoalWeightRepository goalWeightRepository;
 
-    public GoalWeightResource(GoalWeightRepository goalWeightRepository) {
+    private final EnergyTargetService energyTargetService;
+
+    public GoalWeightResource(GoalWeightRepository goalWeightRepository, EnergyTargetService energyTargetService) {
         this.goalWeightRepository = goalWeightRepository;
+        this.energyTargetService = energyTargetService;
     }
 
     /**
@@ -54,6 +61,7 @@ public class GoalWeightResource {
             throw new BadRequestAlertException("A new goalWeight cannot already have an ID", ENTITY_NAME, "idexists");
         }
         GoalWeight result = goalWeightRepository.save(goalWeight);
+        energyTargetService.evict(result.getUser());
         return ResponseEntity
             .created(new URI("/api/goal-weights/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -65,15 +73,19 @@ public class GoalWeightResource {
      *
      * @param id the id of the goalWeight to save.
      * @param goalWeight the goalWeight to update.
+     * @param ifMatch the tag of the goalWeight the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated goalWeight,
      * or with status {@code 400 (Bad Request)} if the goalWeight is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the goalWeight is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the goalWeight was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the goalWeight couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/goal-weights/{id}")
     public ResponseEntity<GoalWeight> updateGoalWeight(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody GoalWeight goalWeight
+        @Valid @RequestBody GoalWeight goalWeight,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update GoalWeight : {}, {}", id, goalWeight);
         if (goalWeight.getId() == null) {
@@ -83,13 +95,21 @@ public class GoalWeightResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!goalWeightRepository.existsById(id)) {
+        Optional<GoalWeight> existingGoalWeight = goalWeightRepository.findById(id);
+        if (existingGoalWeight.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
-
-        GoalWeight result = goalWeightRepository.save(goalWeight);
+        ETagUtil.checkIfMatch(ifMatch, entityTag(existingGoalWeight.get()), ENTITY_NAME);
+        ETagUtil.checkVersion(goalWeight.getVersion(), existingGoalWeight.get().getVersion(), GoalWeight.class, id);
+        goalWeight.setVersion(existingGoalWeight.get().getVersion());
+
+        User previousUser = existingGoalWeight.get().getUser();
+        GoalWeight result = goalWeightRepository.saveAndFlush(goalWeight);
+        energyTargetService.evict(previousUser);
+        energyTargetService.evict(result.getUser());
         return ResponseEntity
             .ok()
+            .eTag(entityTag(result))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, goalWeight.getId().toString()))
             .body(result);
     }
@@ -99,16 +119,20 @@ public class GoalWeightResource {
      *
      * @param id the id of the goalWeight to save.
      * @param goalWeight the goalWeight to update.
+     * @param ifMatch the tag of the goalWeight the update is based on, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated goalWeight,
      * or with status {@code 400 (Bad Request)} if the goalWeight is not valid,
      * or with status {@code 404 (Not Found)} if the goalWeight is not found,
+     * or with status {@code 409 (Conflict)} if the version of the goalWeight is not the current one,
+     * or with status {@code 412 (Precondition Failed)} if the goalWeight was modified since the given tag,
      * or with status {@code 500 (Internal Server Error)} if the goalWeight couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/goal-weights/{id}", consumes = "application/merge-patch+json")
     public ResponseEntity<GoalWeight> partialUpdateGoalWeight(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody GoalWeight goalWeight
+        @NotNull @RequestBody GoalWeight goalWeight,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update GoalWeight partially : {}, {}", id, goalWeight);
         if (goalWeight.getId() == null) {
@@ -126,46 +150,58 @@ public class GoalWeightResource {
             .findById(goalWeight.getId())
             .map(
                 existingGoalWeight -> {
+                    ETagUtil.checkIfMatch(ifMatch, entityTag(existingGoalWeight), ENTITY_NAME);
+                    ETagUtil.checkVersion(goalWeight.getVersion(), existingGoalWeight.getVersion(), GoalWeight.class, id);
                     if (goalWeight.getWeight() != null) {
                         existingGoalWeight.setWeight(goalWeight.getWeight());
                     }
                     if (goalWeight.getCreatedDate() != null) {
                         existingGoalWeight.setCreatedDate(goalWeight.getCreatedDate());
                     }
+                    energyTargetService.evict(existingGoalWeight.getUser());
 
                     return existingGoalWeight;
                 }
             )
-            .map(goalWeightRepository::save);
+            .map(goalWeightRepository::saveAndFlush);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
+            GoalWeightResource::entityTag,
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, goalWeight.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /goal-weights} : get all the goalWeights.
+     * {@code GET  /goal-weights} : get all the goalWeights of the current user.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of goalWeights in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of goalWeights in body,
+     * or with status {@code 304 (Not Modified)} if none changed since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/goal-weights")
-    public List<GoalWeight> getAllGoalWeights() {
-        log.debug("REST request to get all GoalWeights");
-        return goalWeightRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<GoalWeight>> getAllGoalWeights() {
+        log.debug("REST request to get all GoalWeights of the current user");
+        List<GoalWeight> goalWeights = goalWeightRepository.findByUserIsCurrentUser();
+        return ResponseEntity
+            .ok()
+            .eTag(ETagUtil.entityTag(goalWeights.stream().flatMap(GoalWeightResource::versionsOf)))
+            .body(goalWeights);
     }
 
     /**
      * {@code GET  /goal-weights/:id} : get the "id" goalWeight.
      *
      * @param id the id of the goalWeight to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the goalWeight, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the goalWeight, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the tag of the {@code If-None-Match} header.
      */
     @GetMapping("/goal-weights/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<GoalWeight> getGoalWeight(@PathVariable Long id) {
         log.debug("REST request to get GoalWeight : {}", id);
         Optional<GoalWeight> goalWeight = goalWeightRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(goalWeight);
+        return ETagUtil.wrapOrNotFound(goalWeight, GoalWeightResource::entityTag);
     }
 
     /**
@@ -177,10 +213,28 @@ public class GoalWeightResource {
     @DeleteMapping("/goal-weights/{id}")
     public ResponseEntity<Void> deleteGoalWeight(@PathVariable Long id) {
         log.debug("REST request to delete GoalWeight : {}", id);
+        goalWeightRepository.findById(id).map(GoalWeight::getUser).ifPresent(energyTargetService::evict);
         goalWeightRepository.deleteById(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * @return the ids and versions of the goalWeight and of its user, which make up its representation.
+     */
+    private static Stream<Object> versionsOf(GoalWeight goalWeight) {
+        User user = goalWeight.getUser();
+        return Stream.of(
+            goalWeight.getId(),
+            goalWeight.getVersion(),
+            user == null ? null : user.getId(),
+            user == null ? null : user.getVersion()
+        );
+    }
+
+    private static String entityTag(GoalWeight goalWeight) {
+        return ETagUtil.entityTag(versionsOf(goalWeight));
+    }
 }
@@ -0,0 +1,130 @@
+package com.ava.foodlogger.web.rest.util;
+
+import com.ava.foodlogger.web.rest.errors.PreconditionFailedAlertException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for conditional requests, with entity tags derived from the {@code @Version} of the entities.
+ * <p>
+ * The tag of a representation is a digest of the ids and versions of every entity it contains, the nested ones
+ * included, so it changes whenever one of them is updated. A {@code GET} answered with a tag in its
+ * {@link org.springframework.http.ResponseEntity} is turned into a {@code 304 (Not Modified)} by Spring MVC when the
+ * {@code If-None-Match} header matches it, before the body is serialized. A {@code PUT} or {@code PATCH} checks its
+ * {@code If-Match} header with {@link #checkIfMatch(String, String, String)}.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private static final int DIGEST_LENGTH = 16;
+
+    private ETagUtil() {}
+
+    /**
+     * Builds the strong entity tag of a representation.
+     *
+     * @param values the ids and versions of the entities of the representation, in the order they are serialized.
+     * @return the quoted entity tag.
+     */
+    public static String entityTag(Object... values) {
+        return entityTag(Arrays.stream(values));
+    }
+
+    /**
+     * Builds the strong entity tag of a representation.
+     *
+     * @param values the ids and versions of the entities of the representation, in the order they are serialized.
+     * @return the quoted entity tag.
+     */
+    public static String entityTag(Stream<?> values) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        values.forEach(value -> digest.update((value + ",").getBytes(StandardCharsets.UTF_8)));
+        return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), DIGEST_LENGTH)) + '"';
+    }
+
+    /**
+     * Wraps the object to return in a {@link ResponseEntity} with its tag, the tagged counterpart of
+     * {@link tech.jhipster.web.util.ResponseUtil#wrapOrNotFound(Optional, HttpHeaders)}.
+     *
+     * @param <X> type of the response.
+     * @param maybeResponse the object to return, if found.
+     * @param entityTag the function building the tag of the object.
+     * @param header the headers to add, may be {@code null}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with the object in body.
+     * @throws ResponseStatusException with status {@code 404 (Not Found)} if the object is not found.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(
+        Optional<X> maybeResponse,
+        Function<? super X, String> entityTag,
+        HttpHeaders header
+    ) {
+        return maybeResponse
+            .map(response -> ResponseEntity.ok().headers(header).eTag(entityTag.apply(response)).body(response))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Wraps the object to return in a {@link ResponseEntity} with its tag.
+     *
+     * @param <X> type of the response.
+     * @param maybeResponse the object to return, if found.
+     * @param entityTag the function building the tag of the object.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with the object in body.
+     * @throws ResponseStatusException with status {@code 404 (Not Found)} if the object is not found.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse, Function<? super X, String> entityTag) {
+        return wrapOrNotFound(maybeResponse, entityTag, null);
+    }
+
+    /**
+     * Checks the {@code If-Match} header of an update against the current tag of the entity.
+     *
+     * @param ifMatch the {@code If-Match} header, if any.
+     * @param entityTag the current tag of the entity, built by {@link #entityTag(Object...)}.
+     * @param entityName the name of the entity, for error messages.
+     * @throws PreconditionFailedAlertException if the header matches neither the current tag nor {@code *}.
+     */
+    public static void checkIfMatch(String ifMatch, String entityTag, String entityName) {
+        if (ifMatch == null) {
+            return;
+        }
+        // Weak tags never match, If-Match uses the strong comparison
+        boolean matches = Arrays.stream(ifMatch.split(",")).map(String::trim).anyMatch(tag -> ANY.equals(tag) || tag.equals(entityTag));
+        if (!matches) {
+            throw new PreconditionFailedAlertException("The entity was modified", entityName, "preconditionfailed");
+        }
+    }
+
+    /**
+     * Checks the version sent with an update against the current version of the entity.
+     *
+     * @param version the version sent by the client, if any.
+     * @param currentVersion the current version of the entity.
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     * @throws ObjectOptimisticLockingFailureException if the versions differ, answered with a {@code 409 (Conflict)}.
+     */
+    public static void checkVersion(Integer version, Integer currentVersion, Class<?> entityClass, Object id) {
+        if (version != null && !Objects.equals(version, currentVersion)) {
+            throw new ObjectOptimisticLockingFailureException(entityClass, id);
+        }
+    }
+}
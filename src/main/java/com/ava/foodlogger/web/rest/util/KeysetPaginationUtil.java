@@ -0,0 +1,127 @@
+package com.ava.foodlogger.web.rest.util;
+
+import com.ava.foodlogger.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (cursor) pagination, the {@link Slice} counterpart of {@link tech.jhipster.web.util.PaginationUtil}.
+ * <p>
+ * A page is fetched with {@code where id > :cursor order by id limit :size}, so its cost does not depend on how deep
+ * the client has scrolled, and no {@code count(*)} is needed. The cursor is an opaque token encoding the id of the
+ * last element of the previous page; an empty cursor requests the first page.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    private static final String ID = "id";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Builds the request for a page of a keyset pagination.
+     *
+     * @param pageable the pagination information of the request, only its size and the direction of an {@code id} sort are used.
+     * @param entityName the name of the paginated entity, for error messages.
+     * @return the request for the first slice after the cursor.
+     * @throws BadRequestAlertException if the request is sorted on another property than {@code id}.
+     */
+    public static Pageable toKeysetPageable(Pageable pageable, String entityName) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!ID.equals(order.getProperty())) {
+                throw new BadRequestAlertException("Cursor pagination can only be sorted by id", entityName, "sortinvalid");
+            }
+        }
+        Sort.Order order = pageable.getSort().getOrderFor(ID);
+        return PageRequest.of(0, pageable.getPageSize(), order == null ? Sort.Direction.ASC : order.getDirection(), ID);
+    }
+
+    /**
+     * @param pageable the request built by {@link #toKeysetPageable(Pageable, String)}.
+     * @return whether the ids are ascending.
+     */
+    public static boolean isAscending(Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor(ID);
+        return order == null || order.isAscending();
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param cursor the cursor sent by the client, empty for the first page.
+     * @param entityName the name of the paginated entity, for error messages.
+     * @return the id after which the page starts, or {@code null} for the first page.
+     * @throws BadRequestAlertException if the cursor is not one produced by {@link #encodeCursor(Long)}.
+     */
+    public static Long decodeCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the bad request below, NumberFormatException included
+        }
+        throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+    }
+
+    /**
+     * @param id the id of the last element of a page.
+     * @return the cursor of the next page.
+     */
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} object fetched by cursor.
+     * <p>
+     * The {@code Link} header has the format of {@link tech.jhipster.web.util.PaginationUtil}, with a {@code first}
+     * link and, when there are more elements, a {@code next} link. There is no {@code X-Total-Count} header.
+     *
+     * @param uriBuilder The URI builder.
+     * @param slice The slice.
+     * @param idOf How to get the id of an element.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, Function<T, Long> idOf) {
+        HttpHeaders headers = new HttpHeaders();
+        StringBuilder link = new StringBuilder();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            link.append(prepareLink(uriBuilder, encodeCursor(idOf.apply(content.get(content.size() - 1))), slice.getSize(), "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, "", slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String cursor, int size, String relType) {
+        String uri = uriBuilder
+            .replaceQueryParam("page")
+            .replaceQueryParam(CURSOR_PARAM, cursor)
+            .replaceQueryParam("size", Integer.toString(size))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri, relType);
+    }
+}
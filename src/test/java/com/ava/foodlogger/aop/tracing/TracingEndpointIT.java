@@ -0,0 +1,51 @@
+package com.ava.foodlogger.aop.tracing;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link TracingEndpoint}, with every invocation sampled.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@TestPropertySource(
+    properties = {
+        "application.tracing.enabled=true",
+        "application.tracing.sample-rate=1",
+        "management.endpoints.web.base-path=/management",
+        "management.endpoints.web.exposure.include=tracing",
+    }
+)
+class TracingEndpointIT {
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getSlowestInvocations() throws Exception {
+        restMockMvc.perform(get("/api/foods")).andExpect(status().isOk());
+
+        restMockMvc
+            .perform(get("/management/tracing"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].joinPoint").value(hasItem("FoodResource#getAllFoods")))
+            .andExpect(jsonPath("$.[0].durationMillis").isNumber());
+    }
+
+    @Test
+    @WithMockUser
+    void getSlowestInvocationsIsAdminOnly() throws Exception {
+        restMockMvc.perform(get("/management/tracing")).andExpect(status().isForbidden());
+    }
+}
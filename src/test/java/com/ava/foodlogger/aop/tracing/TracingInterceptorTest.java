@@ -0,0 +1,123 @@
+package com.ava.foodlogger.aop.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Unit tests for {@link TracingInterceptor}.
+ */
+class TracingInterceptorTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private Greeter proxy(TracingInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory(new Greeter());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return (Greeter) proxyFactory.getProxy();
+    }
+
+    @Test
+    void recordsSampledInvocations() {
+        TracingInterceptor interceptor = new TracingInterceptor(meterRegistry, 1d, 2, 10, 5);
+        Greeter greeter = proxy(interceptor);
+
+        greeter.greet("World, this is long", List.of(1, 2, 3));
+        greeter.greet("you", List.of());
+        greeter.greet("me", List.of());
+
+        assertThat(meterRegistry.get("method.invocations").tag("class", "Greeter").tag("method", "greet").timer().count()).isEqualTo(3);
+        List<TracingInterceptor.TracedInvocation> slowest = interceptor.getSlowestInvocations();
+        assertThat(slowest).hasSize(2);
+        assertThat(slowest.get(0).getDurationNanos()).isGreaterThanOrEqualTo(slowest.get(1).getDurationNanos());
+        assertThat(slowest.get(0).getJoinPoint()).isEqualTo("Greeter#greet");
+        assertThat(interceptor.getSlowestInvocations())
+            .flatExtracting(TracingInterceptor.TracedInvocation::getArguments)
+            .allMatch(argument -> argument.length() <= 8);
+    }
+
+    private <T> T repositoryProxy(TracingInterceptor interceptor, Class<T> repositoryInterface, T repository) {
+        // Spring Data repositories are JDK proxies themselves, advised through their interface
+        ProxyFactory repositoryFactory = new ProxyFactory(repository);
+        repositoryFactory.setInterfaces(repositoryInterface);
+        ProxyFactory proxyFactory = new ProxyFactory(repositoryFactory.getProxy());
+        proxyFactory.setInterfaces(repositoryInterface);
+        proxyFactory.addAdvice(interceptor);
+        return repositoryInterface.cast(proxyFactory.getProxy());
+    }
+
+    @Test
+    void tagsInheritedMethodsWithTheRepositoryInterface() {
+        TracingInterceptor interceptor = new TracingInterceptor(meterRegistry, 1d, 10, 10, 100);
+
+        repositoryProxy(interceptor, GreetingRepository.class, id -> "Hello").findById("a");
+        repositoryProxy(interceptor, FarewellRepository.class, id -> "Bye").findById("b");
+        repositoryProxy(interceptor, FarewellRepository.class, id -> "Bye").findById("c");
+
+        assertThat(meterRegistry.get("method.invocations").tag("class", "GreetingRepository").tag("method", "findById").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("method.invocations").tag("class", "FarewellRepository").tag("method", "findById").timer().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.find("method.invocations").tag("class", "BaseRepository").timer()).isNull();
+        assertThat(interceptor.getSlowestInvocations())
+            .extracting(TracingInterceptor.TracedInvocation::getJoinPoint)
+            .containsOnly("GreetingRepository#findById", "FarewellRepository#findById");
+    }
+
+    @Test
+    void describesCollectionsBySize() {
+        TracingInterceptor interceptor = new TracingInterceptor(meterRegistry, 1d, 1, 1, 100);
+
+        proxy(interceptor).greet("World", List.of(1, 2, 3));
+
+        assertThat(interceptor.getSlowestInvocations().get(0).getArguments()).containsExactly("World", "ListN[3 elements]");
+    }
+
+    @Test
+    void keepsOnlyTheRecentInvocations() {
+        TracingInterceptor interceptor = new TracingInterceptor(meterRegistry, 1d, 10, 2, 100);
+        Greeter greeter = proxy(interceptor);
+
+        greeter.greet("a", List.of());
+        greeter.greet("b", List.of());
+        greeter.greet("c", List.of());
+
+        assertThat(interceptor.getSlowestInvocations()).hasSize(2);
+    }
+
+    @Test
+    void ignoresUnsampledInvocations() {
+        TracingInterceptor interceptor = new TracingInterceptor(meterRegistry, 0d, 10, 10, 100);
+
+        assertThat(proxy(interceptor).greet("World", List.of())).isEqualTo("Hello World");
+
+        assertThat(meterRegistry.find("method.invocations").timer()).isNull();
+        assertThat(interceptor.getSlowestInvocations()).isEmpty();
+    }
+
+    public static class Greeter {
+
+        public String greet(String name, List<Integer> numbers) {
+            return "Hello " + name;
+        }
+    }
+
+    public interface BaseRepository {
+        String findById(String id);
+    }
+
+    public interface GreetingRepository extends BaseRepository {}
+
+    public interface FarewellRepository extends BaseRepository {}
+}
@@ -0,0 +1,139 @@
+package com.ava.foodlogger.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ava.foodlogger.config.metrics.EhcacheCacheMeterBinderProvider;
+import com.ava.foodlogger.domain.Authority;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the per region settings of the {@link CacheConfiguration}, and for the export of the cache statistics.
+ * <p>
+ * The caches are created in a cache manager of their own: the default one is shared by every Spring test context.
+ */
+class CacheConfigurationTest {
+
+    private static final String FOOD_REGION = Food.class.getName();
+
+    private ApplicationProperties applicationProperties;
+
+    private EhcacheCachingProvider cachingProvider;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region food = new ApplicationProperties.Cache.Region();
+        food.setMaxEntries(50L);
+        food.setOffHeapSize(DataSize.ofMegabytes(1));
+        applicationProperties.getCache().getRegions().put(FOOD_REGION, food);
+        ApplicationProperties.Cache.Region usersByLogin = new ApplicationProperties.Cache.Region();
+        usersByLogin.setHeapSize(DataSize.ofKilobytes(64));
+        usersByLogin.setTimeToIdle(Duration.ofMinutes(5));
+        applicationProperties.getCache().getRegions().put(UserRepository.USERS_BY_LOGIN_CACHE, usersByLogin);
+
+        cachingProvider = new EhcacheCachingProvider();
+        cacheManager = cachingProvider.getCacheManager();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cachingProvider.close();
+    }
+
+    private void createCaches() {
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+    }
+
+    private CacheRuntimeConfiguration<?, ?> runtimeConfiguration(String cacheName) {
+        return cacheManager.getCache(cacheName).unwrap(org.ehcache.Cache.class).getRuntimeConfiguration();
+    }
+
+    @Test
+    void regionWithOffHeapTier() {
+        createCaches();
+
+        ResourcePools resourcePools = runtimeConfiguration(FOOD_REGION).getResourcePools();
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(50L);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(1024L * 1024L);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP).getUnit()).isEqualTo(MemoryUnit.B);
+    }
+
+    @Test
+    void regionSizedInBytesWithTimeToIdle() {
+        createCaches();
+
+        CacheRuntimeConfiguration<?, ?> configuration = runtimeConfiguration(UserRepository.USERS_BY_LOGIN_CACHE);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(64L * 1024L);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP)).isNull();
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(null, null)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void regionWithDefaultSettings() {
+        createCaches();
+
+        CacheRuntimeConfiguration<?, ?> configuration = runtimeConfiguration(Authority.class.getName());
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100L);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(null, null)).isEqualTo(Duration.ofHours(1));
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(null, null)).isNull();
+    }
+
+    @Test
+    void regionWithConflictingSettings() {
+        applicationProperties.getCache().getRegions().get(FOOD_REGION).setHeapSize(DataSize.ofKilobytes(64));
+
+        assertThatThrownBy(this::createCaches).isInstanceOf(IllegalStateException.class).hasMessageContaining(FOOD_REGION);
+    }
+
+    @Test
+    void unknownRegion() {
+        applicationProperties.getCache().getRegions().put("com.ava.foodlogger.domain.Unknown", new ApplicationProperties.Cache.Region());
+
+        assertThatThrownBy(this::createCaches).isInstanceOf(IllegalStateException.class).hasMessageContaining("Unknown");
+    }
+
+    @Test
+    void regionStatisticsAreExported() {
+        createCaches();
+        Cache<Object, Object> cache = cacheManager.getCache(FOOD_REGION);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new EhcacheCacheMeterBinderProvider().getMeterBinder(new JCacheCache(cache), Tags.empty()).bindTo(meterRegistry);
+
+        cache.put("AAAAAAAAAA", "BBBBBBBBBB");
+        cache.get("AAAAAAAAAA");
+        cache.get("CCCCCCCCCC");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", FOOD_REGION).tag("result", "hit").functionCounter().count()).isEqualTo(1d);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", FOOD_REGION).tag("result", "miss").functionCounter().count())
+            .isEqualTo(1d);
+        assertThat(meterRegistry.get("cache.puts").tag("cache", FOOD_REGION).functionCounter().count()).isEqualTo(1d);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", FOOD_REGION).functionCounter().count()).isZero();
+        assertThat(meterRegistry.get("cache.size").tag("cache", FOOD_REGION).gauge().value()).isEqualTo(1d);
+        assertThat(meterRegistry.get("cache.tier.size").tag("cache", FOOD_REGION).tag("tier", "OffHeap").gauge().value()).isEqualTo(1d);
+        assertThat(meterRegistry.get("cache.tier.occupied").tag("cache", FOOD_REGION).tag("tier", "OffHeap").gauge().value())
+            .isPositive();
+    }
+}
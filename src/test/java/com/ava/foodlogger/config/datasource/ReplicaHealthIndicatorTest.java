@@ -0,0 +1,96 @@
+package com.ava.foodlogger.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Unit tests for {@link ReplicaHealthIndicator}, against an embedded replica whose lag is read from a table.
+ */
+class ReplicaHealthIndicatorTest {
+
+    private JdbcDataSource primary;
+
+    private JdbcDataSource replica;
+
+    private MeterRegistry meterRegistry;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setup() {
+        primary = ReplicaRoutingDataSourceTest.embeddedDatabase("primary");
+        replica = ReplicaRoutingDataSourceTest.embeddedDatabase("replica");
+        new JdbcTemplate(replica).execute("create table replication (lag double)");
+        new JdbcTemplate(replica).update("insert into replication (lag) values (0.5)");
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("shutdown");
+        new JdbcTemplate(replica).execute("shutdown");
+    }
+
+    private ReplicaHealthIndicator healthIndicator(String lagQuery) {
+        return new ReplicaHealthIndicator(routingDataSource, lagQuery, Duration.ofSeconds(10), meterRegistry);
+    }
+
+    private void setLag(double lag) {
+        new JdbcTemplate(replica).update("update replication set lag = ?", lag);
+    }
+
+    @Test
+    void reportsTheLagOfTheReplica() {
+        ReplicaHealthIndicator healthIndicator = healthIndicator("select lag from replication");
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+
+        healthIndicator.check();
+
+        Health health = healthIndicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("routing", "replica").containsEntry("lag", 0.5).containsEntry("maxLag", 10.0);
+        assertThat(routingDataSource.isReplicaUsable()).isTrue();
+        assertThat(meterRegistry.get("datasource.replica.lag").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void routesTheReadsToThePrimaryWhileTheReplicaLags() {
+        ReplicaHealthIndicator healthIndicator = healthIndicator("select lag from replication");
+        setLag(30);
+
+        healthIndicator.check();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(healthIndicator.health().getDetails()).containsEntry("routing", "primary").containsEntry("lag", 30.0);
+        assertThat(routingDataSource.isReplicaUsable()).isFalse();
+
+        setLag(2);
+        healthIndicator.check();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(routingDataSource.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void routesTheReadsToThePrimaryWhenTheReplicaCannotBeChecked() {
+        ReplicaHealthIndicator healthIndicator = healthIndicator("select lag from missing_table");
+
+        healthIndicator.check();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+        assertThat(healthIndicator.health().getDetails()).containsEntry("routing", "primary").containsKey("error");
+        assertThat(routingDataSource.isReplicaUsable()).isFalse();
+        assertThat(meterRegistry.get("datasource.replica.lag").gauge().value()).isNaN();
+    }
+}
@@ -0,0 +1,195 @@
+package com.ava.foodlogger.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Unit tests for {@link ReplicaRoutingDataSource}, against two embedded databases which tell whether they are the
+ * primary or the replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcDataSource primary;
+
+    private JdbcDataSource replica;
+
+    private MeterRegistry meterRegistry;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    static JdbcDataSource embeddedDatabase(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setup() {
+        primary = embeddedDatabase("primary");
+        replica = embeddedDatabase("replica");
+        meterRegistry = new SimpleMeterRegistry();
+        setupRouting(replica, Duration.ofMinutes(1));
+    }
+
+    private void setupRouting(DataSource replica, Duration readYourWritesWindow) {
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, readYourWritesWindow, meterRegistry);
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routingDataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("shutdown");
+        new JdbcTemplate(replica).execute("shutdown");
+    }
+
+    private String readNode(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private void write() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+    }
+
+    private static void login(String login) {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(login, login));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("datasource.routing").tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void routesTheReadOnlyTransactionsToTheReplica() {
+        // The data source got a connection when created, for the defaults of the connections
+        double connectionsOfTheProxy = routed("primary", "write");
+
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+        assertThat(readNode(readWrite)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject("select name from node", String.class)).isEqualTo("primary");
+
+        assertThat(routed("replica", "read")).isEqualTo(1);
+        assertThat(routed("primary", "write")).isEqualTo(connectionsOfTheProxy + 2);
+    }
+
+    @Test
+    void routesTheReadsOfAUserToThePrimaryAfterTheirWrite() {
+        login("john");
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+
+        write();
+
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+        assertThat(routed("primary", "read-your-writes")).isEqualTo(1);
+        login("jane");
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void routesTheReadsOfAUserToThePrimaryAfterAnAnonymousWriteOfThem() {
+        readWrite.executeWithoutResult(
+            status -> {
+                jdbcTemplate.update("update node set name = name");
+                routingDataSource.recordWriteOf("john");
+            }
+        );
+
+        login("john");
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+        login("jane");
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void routesTheReadsOfEveryUserWrittenByATransaction() {
+        login("admin");
+        readWrite.executeWithoutResult(
+            status -> {
+                jdbcTemplate.update("update node set name = name");
+                routingDataSource.recordWriteOf("john");
+            }
+        );
+
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+        login("john");
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void routesTheReadsToTheReplicaAfterTheReadYourWritesWindow() {
+        setupRouting(replica, Duration.ZERO);
+        login("john");
+
+        write();
+
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void ignoresTheRolledBackWrites() {
+        login("john");
+
+        readWrite.executeWithoutResult(
+            status -> {
+                jdbcTemplate.update("update node set name = name");
+                status.setRollbackOnly();
+            }
+        );
+
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void routesTheReadsToThePrimaryWhileTheReplicaIsNotUsable() {
+        routingDataSource.setReplicaUsable(false);
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+
+        routingDataSource.setReplicaUsable(true);
+        assertThat(readNode(readOnly)).isEqualTo("replica");
+        assertThat(routed("primary", "fallback")).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhenTheReplicaGivesNoConnection() throws SQLException {
+        DataSource unavailableReplica = mock(DataSource.class);
+        when(unavailableReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        setupRouting(unavailableReplica, Duration.ofMinutes(1));
+
+        assertThat(readNode(readOnly)).isEqualTo("primary");
+        assertThat(routingDataSource.isReplicaUsable()).isFalse();
+        assertThat(routed("primary", "fallback")).isEqualTo(1);
+    }
+}
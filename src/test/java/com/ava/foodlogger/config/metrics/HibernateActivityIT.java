@@ -0,0 +1,112 @@
+package com.ava.foodlogger.config.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.web.rest.TestUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the per-endpoint Hibernate metrics recorded by {@link HibernateActivityInterceptor}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class HibernateActivityIT {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private static Food createFood() {
+        return new Food().name("AAAAAAAAAA").calories(1F).carbohydrates(1F).proteins(1F).fat(1F).sodium(1F);
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return meterRegistry.get("http.server.requests." + name).tag("method", method).tag("uri", uri).summary();
+    }
+
+    @Test
+    @Transactional
+    void recordsTheActivityOfEachEndpoint() throws Exception {
+        Food food = createFood();
+        em.persist(food);
+        em.flush();
+        em.clear();
+
+        long count = meterRegistry
+            .find("http.server.requests.jdbc.statements")
+            .tag("uri", "/api/foods/{id}")
+            .summaries()
+            .stream()
+            .mapToLong(DistributionSummary::count)
+            .sum();
+        restMockMvc.perform(get("/api/foods/{id}", food.getId())).andExpect(status().isOk());
+
+        DistributionSummary statements = summary("jdbc.statements", "GET", "/api/foods/{id}");
+        assertThat(statements.count()).isEqualTo(count + 1);
+        assertThat(statements.max()).isEqualTo(1.0);
+        assertThat(summary("hibernate.entities.loaded", "GET", "/api/foods/{id}").max()).isEqualTo(1.0);
+        assertThat(summary("hibernate.flushes", "GET", "/api/foods/{id}").max()).isZero();
+    }
+
+    @Test
+    void countsFlushesOfCommittedWrites() throws Exception {
+        String body = restMockMvc
+            .perform(post("/api/foods").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(createFood())))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        long id = new ObjectMapper().readTree(body).get("id").asLong();
+        restMockMvc.perform(delete("/api/foods/{id}", id)).andExpect(status().isNoContent());
+
+        assertThat(summary("hibernate.flushes", "POST", "/api/foods").totalAmount()).isPositive();
+        assertThat(summary("jdbc.statements", "POST", "/api/foods").totalAmount()).isPositive();
+        assertThat(summary("hibernate.flushes", "DELETE", "/api/foods/{id}").totalAmount()).isPositive();
+    }
+
+    @Test
+    void recordsTheActivityOfAsynchronousRequests() throws Exception {
+        long count = meterRegistry
+            .find("http.server.requests.jdbc.statements")
+            .tag("uri", "/api/dashboard")
+            .summaries()
+            .stream()
+            .mapToLong(DistributionSummary::count)
+            .sum();
+        MvcResult result = restMockMvc.perform(get("/api/dashboard")).andExpect(request().asyncStarted()).andReturn();
+
+        // The request thread is released without its activity, which is resumed by the asynchronous dispatch
+        assertThat(HibernateActivity.stop()).isNull();
+        restMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        DistributionSummary statements = summary("jdbc.statements", "GET", "/api/dashboard");
+        assertThat(statements.count()).isEqualTo(count + 1);
+        assertThat(HibernateActivity.stop()).isNull();
+    }
+
+    @Test
+    void doesNotCountOutsideOfRequests() {
+        assertThat(HibernateActivity.stop()).isNull();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ava.foodlogger.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ava.foodlogger.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class DailyNutritionTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(DailyNutrition.class);
+        DailyNutrition dailyNutrition1 = new DailyNutrition();
+        dailyNutrition1.setId(1L);
+        DailyNutrition dailyNutrition2 = new DailyNutrition();
+        dailyNutrition2.setId(dailyNutrition1.getId());
+        assertThat(dailyNutrition1).isEqualTo(dailyNutrition2);
+        dailyNutrition2.setId(2L);
+        assertThat(dailyNutrition1).isNotEqualTo(dailyNutrition2);
+        dailyNutrition1.setId(null);
+        assertThat(dailyNutrition1).isNotEqualTo(dailyNutrition2);
+    }
+}
@@ -0,0 +1,298 @@
+package com.ava.foodlogger.repository;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.enumeration.MealType;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import com.ava.foodlogger.web.rest.SqlStatementRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+
+/**
+ * Query plan regression test: runs every query method of the repositories against a large synthetic dataset, and
+ * explains the plans of the SQL statements they execute.
+ * <p>
+ * A statement fails the test when it scans a whole table or when its estimated cost is over its budget, see the
+ * {@code config/query-plans.yml} budgets. The plans are the ones of PostgreSQL, the production database, started by
+ * the {@code testcontainers} profile: the test is disabled without Docker. Each statement is explained as a generic
+ * plan, the one of a prepared statement whatever its parameters, with {@code EXPLAIN (FORMAT JSON)}.
+ * <p>
+ * The dataset is committed rather than rolled back, as the statistics of the optimizer are only computed on committed
+ * rows, and deleted after the test. The query methods run in transactions rolled back.
+ */
+@IntegrationTest
+@ActiveProfiles("testcontainers")
+@EnabledIf(value = "isDockerAvailable", disabledReason = "The query plans are explained by PostgreSQL, started with Docker")
+@WithMockUser
+class QueryPlanIT {
+
+    private static final String BUDGETS = "config/query-plans.yml";
+
+    private static final String PREPARED_NAME = "query_plan";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Properties budgets;
+
+    private SyntheticDataset dataset;
+
+    static boolean isDockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @BeforeEach
+    public void init() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource(BUDGETS));
+        budgets = yaml.getObject();
+        dataset =
+            new SyntheticDataset(
+                jdbcTemplate,
+                intBudget("dataset.users"),
+                intBudget("dataset.foods"),
+                intBudget("dataset.days-per-user"),
+                intBudget("dataset.entries-per-day")
+            );
+        // Analyzed in the transaction, as the connections do not auto-commit and the statistics are rolled back otherwise
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+            status -> {
+                dataset.seed();
+                jdbcTemplate.execute("analyze");
+            }
+        );
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+            status -> {
+                dataset.delete();
+                jdbcTemplate.execute("analyze");
+            }
+        );
+    }
+
+    @Test
+    void queryPlansAreWithinBudgets() {
+        TransactionTemplate rolledBack = new TransactionTemplate(transactionManager);
+        Set<String> scannableTables = new LinkedHashSet<>();
+        budgets
+            .stringPropertyNames()
+            .stream()
+            .filter(name -> name.startsWith("scannable-tables["))
+            .forEach(name -> scannableTables.add(budgets.getProperty(name)));
+
+        Map<String, List<String>> violations = new LinkedHashMap<>();
+        int methods = 0;
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : information.getQueryMethods()) {
+                String name = information.getRepositoryInterface().getSimpleName() + '.' + method.getName();
+                methods++;
+                List<String> statements = SqlStatementRecorder.record(
+                    () ->
+                        rolledBack.executeWithoutResult(
+                            status -> {
+                                status.setRollbackOnly();
+                                invoke(repository, method);
+                            }
+                        )
+                );
+                if (statements.isEmpty()) {
+                    violations.computeIfAbsent(name, key -> new ArrayList<>()).add("executed no SQL statement");
+                }
+                double maxCost = Double.parseDouble(budgets.getProperty("method-max-costs." + name, budgets.getProperty("max-cost")));
+                boolean mayScan = budgets.containsKey("scanning-methods." + name);
+                for (String sql : new LinkedHashSet<>(statements)) {
+                    JsonNode plan = rolledBack.execute(
+                        status -> {
+                            status.setRollbackOnly();
+                            return explain(sql);
+                        }
+                    );
+                    List<String> problems = new ArrayList<>();
+                    for (JsonNode scan : seqScans(plan, new ArrayList<>())) {
+                        String table = scan.path("Relation Name").asText();
+                        if (!mayScan && !scannableTables.contains(table)) {
+                            problems.add("scans " + table);
+                        }
+                    }
+                    double cost = plan.path("Total Cost").asDouble();
+                    if (cost > maxCost) {
+                        problems.add("costs " + Math.round(cost) + ", over its budget of " + Math.round(maxCost));
+                    }
+                    for (String problem : problems) {
+                        violations.computeIfAbsent(name, key -> new ArrayList<>()).add(problem + ": " + sql + " " + plan);
+                    }
+                }
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            StringBuilder message = new StringBuilder()
+                .append(violations.size())
+                .append(" of ")
+                .append(methods)
+                .append(" repository query methods are over their query plan budgets, see ")
+                .append(BUDGETS)
+                .append(':');
+            violations.forEach(
+                (name, problems) ->
+                    problems.forEach(problem -> message.append(System.lineSeparator()).append(name).append(' ').append(problem))
+            );
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    /**
+     * Explains the generic plan of a statement, without running it: the plan PostgreSQL uses for a prepared statement
+     * whatever the values of its parameters, which are all {@code null}.
+     *
+     * @return the root node of the plan.
+     */
+    private JsonNode explain(String sql) {
+        jdbcTemplate.execute("set local plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("prepare " + PREPARED_NAME + " as " + numbered(sql));
+        try {
+            int parameters = jdbcTemplate.queryForObject(
+                "select cardinality(parameter_types) from pg_prepared_statements where name = ?",
+                Integer.class,
+                PREPARED_NAME
+            );
+            String values = parameters == 0
+                ? ""
+                : IntStream.range(0, parameters).mapToObj(i -> "null").collect(Collectors.joining(", ", "(", ")"));
+            String json = jdbcTemplate.queryForObject("explain (format json) execute " + PREPARED_NAME + values, String.class);
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            jdbcTemplate.execute("deallocate " + PREPARED_NAME);
+        }
+    }
+
+    /**
+     * @return the statement with its JDBC {@code ?} parameters numbered as PostgreSQL {@code $1}, {@code $2}...
+     */
+    private static String numbered(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        boolean quoted = false;
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * @return the sequential scans of a plan and of its sub-plans, added to {@code scans}.
+     */
+    private static List<JsonNode> seqScans(JsonNode plan, List<JsonNode> scans) {
+        if ("Seq Scan".equals(plan.path("Node Type").asText())) {
+            scans.add(plan);
+        }
+        plan.path("Plans").forEach(child -> seqScans(child, scans));
+        return scans;
+    }
+
+    private int intBudget(String name) {
+        return Integer.parseInt(budgets.getProperty(name));
+    }
+
+    /**
+     * Invokes a query method with arguments matching no row, and consumes its result.
+     */
+    private static void invoke(Object repository, Method method) {
+        Object[] args = Stream.of(method.getParameterTypes()).map(QueryPlanIT::argument).toArray();
+        try {
+            Object result = method.invoke(repository, args);
+            if (result instanceof Stream) {
+                try (Stream<?> stream = (Stream<?>) result) {
+                    stream.count();
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new AssertionError(method + " failed", e.getCause());
+        }
+    }
+
+    private static Object argument(Class<?> type) {
+        if (type == Long.class) {
+            return -1L;
+        } else if (type == String.class) {
+            return "none";
+        } else if (type == LocalDate.class) {
+            return LocalDate.now();
+        } else if (type == Instant.class) {
+            return Instant.now();
+        } else if (type == Collection.class) {
+            return List.of(-1L);
+        } else if (type == Pageable.class) {
+            // Sorted by id, as the pages of the REST API by default
+            return PageRequest.of(0, 20, Sort.by("id"));
+        } else if (type == NutritionTotalsDTO.class) {
+            return new NutritionTotalsDTO(MealType.Lunch, 1L, 1D, 1D, 1D, 1D, 1D);
+        }
+        throw new IllegalArgumentException("No argument of type " + type.getName() + ", add one to QueryPlanIT");
+    }
+}
@@ -0,0 +1,244 @@
+package com.ava.foodlogger.repository;
+
+import com.ava.foodlogger.domain.enumeration.MealType;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * A synthetic dataset of many users, each with a profile, weights, food days and their entries, the daily nutrition
+ * read model and archived days, and of the foods they log.
+ * <p>
+ * The rows are inserted with batched JDBC statements, with ids far above the ones of the sequence so that they do not
+ * collide with the entities of the tests, and are deleted by {@link #delete()}.
+ */
+class SyntheticDataset {
+
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int CURRENT_WEIGHTS_PER_USER = 10;
+
+    private static final int GOAL_WEIGHTS_PER_USER = 2;
+
+    private static final int ARCHIVED_DAYS_PER_USER = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int users;
+
+    private final int foods;
+
+    private final int daysPerUser;
+
+    private final int entriesPerDay;
+
+    private final Random random = new Random(42);
+
+    private final LocalDate today = LocalDate.now();
+
+    private long nextId = FIRST_ID;
+
+    SyntheticDataset(JdbcTemplate jdbcTemplate, int users, int foods, int daysPerUser, int entriesPerDay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.foods = foods;
+        this.daysPerUser = daysPerUser;
+        this.entriesPerDay = entriesPerDay;
+    }
+
+    /**
+     * Inserts the dataset.
+     *
+     * @return the number of inserted rows.
+     */
+    long seed() {
+        Timestamp createdDate = Timestamp.from(Instant.now().minus(30, ChronoUnit.DAYS));
+        long firstUserId = nextId;
+        long rows = insert(
+            "insert into jhi_user (id, login, password_hash, email, activated, lang_key, activation_key, reset_key, created_by," +
+            " created_date, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+            users,
+            id -> {
+                long n = id - firstUserId;
+                boolean activated = n % 10 != 0;
+                return new Object[] {
+                    id,
+                    "synthetic-" + n,
+                    "$2a$10$VEjxo0jq2YG9Rbk2HmX9S.k1uZBGYUHdUcid3g/vfiEl7lwWgOH/K",
+                    "synthetic-" + n + "@localhost",
+                    activated,
+                    "en",
+                    activated ? null : key(),
+                    n % 20 == 1 ? key() : null,
+                    "system",
+                    createdDate,
+                };
+            }
+        );
+        rows +=
+            insert(
+                "insert into jhi_user_authority (user_id, authority_name) values (?, 'ROLE_USER')",
+                users,
+                i -> new Object[] { firstUserId + i }
+            );
+
+        long firstFoodId = nextId;
+        rows +=
+            insert(
+                "insert into food (id, name, calories, carbohydrates, proteins, fat, sodium, version) values (?, ?, ?, ?, ?, ?, ?, 0)",
+                foods,
+                id -> new Object[] { id, "food " + (id - firstFoodId), amount(500), amount(80), amount(40), amount(30), amount(2) }
+            );
+
+        rows +=
+            insert(
+                "insert into app_user (id, created_date, height, workouts_per_week, minutes_per_workout, date_of_birth, activity_level," +
+                " user_id, version) values (?, ?, ?, 3, 45, ?, 'Active', ?, 0)",
+                users,
+                id -> new Object[] { id, today, 150 + amount(50), today.minusYears(20 + random.nextInt(40)), firstUserId + id % users }
+            );
+        rows += insertWeights("current_weight", CURRENT_WEIGHTS_PER_USER, firstUserId);
+        rows += insertWeights("goal_weight", GOAL_WEIGHTS_PER_USER, firstUserId);
+
+        long firstFoodDayId = nextId;
+        rows +=
+            insert(
+                "insert into food_day (id, created_date, user_id, version) values (?, ?, ?, 0)",
+                users * daysPerUser,
+                id -> {
+                    long n = id - firstFoodDayId;
+                    return new Object[] { id, today.minusDays(n % daysPerUser), firstUserId + n / daysPerUser };
+                }
+            );
+        MealType[] mealtypes = MealType.values();
+        long firstFoodEntryId = nextId;
+        rows +=
+            insert(
+                "insert into food_entry (id, mealtype, created_date, food_id, food_day_id, version) values (?, ?, ?, ?, ?, 0)",
+                users * daysPerUser * entriesPerDay,
+                id -> {
+                    long n = id - firstFoodEntryId;
+                    return new Object[] {
+                        id,
+                        mealtypes[(int) (n % mealtypes.length)].name(),
+                        today,
+                        firstFoodId + random.nextInt(foods),
+                        firstFoodDayId + n / entriesPerDay,
+                    };
+                }
+            );
+        long firstDailyNutritionId = nextId;
+        rows +=
+            insert(
+                "insert into daily_nutrition (id, nutrition_date, mealtype, meal_key, entry_count, calories, carbohydrates, proteins," +
+                " fat, sodium, user_id) values (?, ?, ?, ?, 1, ?, ?, ?, ?, ?, ?)",
+                users * daysPerUser * mealtypes.length,
+                id -> {
+                    long n = id - firstDailyNutritionId;
+                    long day = n / mealtypes.length;
+                    String mealtype = mealtypes[(int) (n % mealtypes.length)].name();
+                    return new Object[] {
+                        id,
+                        today.minusDays(day % daysPerUser),
+                        mealtype,
+                        mealtype,
+                        amount(1000),
+                        amount(100),
+                        amount(60),
+                        amount(50),
+                        amount(3),
+                        firstUserId + day / daysPerUser,
+                    };
+                }
+            );
+
+        long firstArchivedDayId = nextId;
+        rows +=
+            insert(
+                "insert into food_day_archive (id, version, created_date, entry_count, entries, archived_date, user_id)" +
+                " values (?, 0, ?, 0, '[]', ?, ?)",
+                users * ARCHIVED_DAYS_PER_USER,
+                id -> {
+                    long n = id - firstArchivedDayId;
+                    return new Object[] {
+                        id,
+                        today.minusDays(365 + n % ARCHIVED_DAYS_PER_USER),
+                        createdDate,
+                        firstUserId + n / ARCHIVED_DAYS_PER_USER,
+                    };
+                }
+            );
+        return rows;
+    }
+
+    /**
+     * Deletes the dataset.
+     */
+    void delete() {
+        jdbcTemplate.update("delete from food_entry where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from food_day where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from daily_nutrition where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from food_day_archive where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from current_weight where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from goal_weight where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from app_user where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from food where id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from jhi_user_authority where user_id >= ?", FIRST_ID);
+        jdbcTemplate.update("delete from jhi_user where id >= ?", FIRST_ID);
+    }
+
+    private long insertWeights(String table, int perUser, long firstUserId) {
+        long firstId = nextId;
+        return insert(
+            "insert into " + table + " (id, weight, created_date, user_id, version) values (?, ?, ?, ?, 0)",
+            users * perUser,
+            id -> {
+                long n = id - firstId;
+                return new Object[] { id, 50 + amount(60), today.minusDays(7 * (n % perUser)), firstUserId + n / perUser };
+            }
+        );
+    }
+
+    /**
+     * Inserts rows with consecutive ids, or for the tables without an id with consecutive indexes from 0.
+     */
+    private long insert(String sql, int count, Function<Long, Object[]> row) {
+        boolean withId = sql.contains("(id,");
+        long first = withId ? nextId : 0;
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long i = first; i < first + count; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        if (withId) {
+            nextId += count;
+        }
+        return count;
+    }
+
+    private float amount(int max) {
+        return random.nextInt(max * 10) / 10f;
+    }
+
+    private String key() {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            key.append((char) ('a' + random.nextInt(26)));
+        }
+        return key.toString();
+    }
+}
@@ -7,15 +7,22 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.test.util.ReflectionTestUtils;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -83,6 +90,60 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testVerifiedTokenIsCached() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tokenProvider.bindTo(meterRegistry);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getCredentials()).hasToString(token);
+        assertThat(tokenProvider.getAuthentication(token).getName()).isEqualTo("anonymous");
+        assertThat(meterRegistry.get("security.jwt.cache").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.jwt.cache").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("security.jwt.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testCachedTokenBuildsANewAuthenticationPerCall() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Authentication authentication = tokenProvider.getAuthentication(token);
+        ((CredentialsContainer) authentication).eraseCredentials();
+        ((AbstractAuthenticationToken) authentication).setDetails("request");
+
+        Authentication cached = tokenProvider.getAuthentication(token);
+
+        assertThat(cached).isNotSameAs(authentication);
+        assertThat(cached.getPrincipal()).isNotSameAs(authentication.getPrincipal());
+        assertThat(cached.getCredentials()).hasToString(token);
+        assertThat(((User) cached.getPrincipal()).getPassword()).isEmpty();
+        assertThat(cached.getDetails()).isNull();
+        assertThat(cached.getAuthorities()).isEqualTo(authentication.getAuthorities());
+    }
+
+    @Test
+    void testCachedTokenExpires() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+
+        Clock later = Clock.offset(Clock.systemUTC(), Duration.ofMillis(2 * ONE_MINUTE));
+        ReflectionTestUtils.setField(tokenProvider, "clock", later);
+
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void testAuthoritiesAreInterned() {
+        Authentication authentication = tokenProvider.getAuthentication(tokenProvider.createToken(createAuthentication(), false));
+        Authentication rememberMe = tokenProvider.getAuthentication(tokenProvider.createToken(createAuthentication(), true));
+
+        assertThat(rememberMe).isNotSameAs(authentication);
+        assertThat(rememberMe.getAuthorities().iterator().next()).isSameAs(authentication.getAuthorities().iterator().next());
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
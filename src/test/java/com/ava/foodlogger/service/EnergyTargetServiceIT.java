@@ -0,0 +1,111 @@
+package com.ava.foodlogger.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.AppUser;
+import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.GoalWeight;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.domain.enumeration.ActivityLevel;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.service.dto.EnergyTargetsDTO;
+import java.time.LocalDate;
+import java.util.Objects;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link EnergyTargetService}.
+ */
+@IntegrationTest
+@Transactional
+class EnergyTargetServiceIT {
+
+    @Autowired
+    private EnergyTargetService energyTargetService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager em;
+
+    private User user;
+
+    private AppUser appUser;
+
+    @BeforeEach
+    public void init() {
+        Objects.requireNonNull(cacheManager.getCache(EnergyTargetService.ENERGY_TARGETS_BY_USER_ID_CACHE)).clear();
+        user = userRepository.findOneByLogin("user").get();
+        appUser =
+            new AppUser()
+                .height(180F)
+                .dateOfBirth(LocalDate.now().minusYears(30))
+                .activityLevel(ActivityLevel.Active)
+                .workoutsPerWeek(3)
+                .minutesPerWorkout(60)
+                .user(user);
+        em.persist(appUser);
+        em.persist(new CurrentWeight().weight(90F).createdDate(LocalDate.now().minusDays(10)).user(user));
+        em.persist(new CurrentWeight().weight(80F).createdDate(LocalDate.now()).user(user));
+        em.persist(new GoalWeight().weight(70F).createdDate(LocalDate.now()).user(user));
+        em.flush();
+    }
+
+    @Test
+    void computesTheTargetsFromTheProfileAndTheLatestWeights() {
+        EnergyTargetsDTO targets = energyTargetService.findByUserId(user.getId()).get();
+
+        assertThat(targets.getWeight()).isEqualTo(80F);
+        assertThat(targets.getGoalWeight()).isEqualTo(70F);
+        // 10 * 80 + 6.25 * 180 - 5 * 30 - 78
+        assertThat(targets.getBmr()).isCloseTo(1697, within(0.01));
+        // 1697 * 1.55 for the activity level, plus 180 minutes a week at 6 METs
+        assertThat(targets.getTdee()).isCloseTo(2846.35, within(0.01));
+        assertThat(targets.getCalories()).isCloseTo(2346.35, within(0.01));
+        assertThat(targets.getProteins()).isCloseTo(128, within(0.01));
+        assertThat(4 * targets.getProteins() + 4 * targets.getCarbohydrates() + 9 * targets.getFat())
+            .isCloseTo(targets.getCalories(), within(0.01));
+    }
+
+    @Test
+    void maintainsTheWeightWithoutAGoal() {
+        em.createQuery("delete from GoalWeight goalWeight where goalWeight.user = :user").setParameter("user", user).executeUpdate();
+
+        EnergyTargetsDTO targets = energyTargetService.findByUserId(user.getId()).get();
+
+        assertThat(targets.getGoalWeight()).isNull();
+        assertThat(targets.getCalories()).isEqualTo(targets.getTdee());
+    }
+
+    @Test
+    void hasNoTargetsWithoutADateOfBirth() {
+        appUser.setDateOfBirth(null);
+        em.flush();
+
+        assertThat(energyTargetService.findByUserId(user.getId())).isEmpty();
+    }
+
+    @Test
+    void cachesTheTargetsUntilTheyAreEvicted() {
+        double calories = energyTargetService.findByUserId(user.getId()).get().getCalories();
+        appUser.setActivityLevel(ActivityLevel.Sedentary);
+        em.flush();
+
+        assertThat(energyTargetService.findByUserId(user.getId()).get().getCalories()).isEqualTo(calories);
+
+        energyTargetService.evict(user);
+
+        assertThat(energyTargetService.findByUserId(user.getId()).get().getCalories()).isLessThan(calories);
+    }
+}
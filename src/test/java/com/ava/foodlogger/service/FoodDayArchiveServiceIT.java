@@ -0,0 +1,178 @@
+package com.ava.foodlogger.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodDayArchive;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.domain.enumeration.MealType;
+import com.ava.foodlogger.repository.FoodDayArchiveRepository;
+import com.ava.foodlogger.repository.FoodDayRepository;
+import com.ava.foodlogger.repository.FoodEntryRepository;
+import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.service.dto.FoodDaySummaryDTO;
+import com.ava.foodlogger.service.dto.FoodDayViewDTO;
+import com.ava.foodlogger.service.dto.FoodDayViewEntryDTO;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Integration tests for {@link FoodDayArchiveService}.
+ */
+@IntegrationTest
+@WithMockUser
+@Transactional
+class FoodDayArchiveServiceIT {
+
+    @Autowired
+    private FoodDayArchiveService foodDayArchiveService;
+
+    @Autowired
+    private FoodDayArchiveRepository foodDayArchiveRepository;
+
+    @Autowired
+    private FoodDayRepository foodDayRepository;
+
+    @Autowired
+    private FoodEntryRepository foodEntryRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DailyNutritionService dailyNutritionService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Food food;
+
+    private FoodDay oldFoodDay;
+
+    private FoodDay recentFoodDay;
+
+    private List<FoodEntry> oldFoodEntries;
+
+    @BeforeEach
+    public void init() {
+        User user = userRepository.findOneByLogin("user").get();
+        food = new Food().name("apple").calories(100F).carbohydrates(20F).proteins(10F).fat(5F).sodium(1F);
+        em.persist(food);
+        oldFoodDay = new FoodDay().createdDate(LocalDate.now().minusYears(1)).user(user);
+        em.persist(oldFoodDay);
+        recentFoodDay = new FoodDay().createdDate(LocalDate.now()).user(user);
+        em.persist(recentFoodDay);
+        oldFoodEntries = List.of(
+            new FoodEntry().mealtype(MealType.Snack).foodDay(oldFoodDay).food(food),
+            new FoodEntry().mealtype(MealType.Lunch).foodDay(oldFoodDay).food(food),
+            new FoodEntry().mealtype(MealType.Lunch).foodDay(oldFoodDay)
+        );
+        oldFoodEntries.forEach(em::persist);
+        FoodEntry recentFoodEntry = new FoodEntry().mealtype(MealType.Lunch).foodDay(recentFoodDay).food(food);
+        em.persist(recentFoodEntry);
+        em.flush();
+        dailyNutritionService.addAll(List.of(oldFoodEntries.get(0), oldFoodEntries.get(1), recentFoodEntry));
+    }
+
+    private void archive() {
+        assertThat(foodDayArchiveService.archiveOldFoodDays()).isGreaterThanOrEqualTo(1);
+        // The days and entries were deleted in bulk, behind the persistence context
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void archivesTheDaysOlderThanTheHorizon() {
+        archive();
+
+        assertThat(foodDayRepository.findById(oldFoodDay.getId())).isEmpty();
+        assertThat(foodEntryRepository.findAllById(oldFoodEntries.stream().map(FoodEntry::getId).collect(Collectors.toList())))
+            .isEmpty();
+        assertThat(foodDayRepository.findById(recentFoodDay.getId())).isPresent();
+        assertThat(foodDayArchiveRepository.findById(recentFoodDay.getId())).isEmpty();
+
+        FoodDayArchive archive = foodDayArchiveRepository.findById(oldFoodDay.getId()).get();
+        assertThat(archive.getCreatedDate()).isEqualTo(oldFoodDay.getCreatedDate());
+        assertThat(archive.getUser().getLogin()).isEqualTo("user");
+        assertThat(archive.getEntryCount()).isEqualTo(3);
+        assertThat(archive.getArchivedDate()).isNotNull();
+    }
+
+    @Test
+    void readsTheArchivedDays() {
+        archive();
+
+        FoodDay foodDay = foodDayArchiveService.findOne(oldFoodDay.getId()).get();
+        assertThat(foodDay.getCreatedDate()).isEqualTo(oldFoodDay.getCreatedDate());
+        assertThat(foodDay.getVersion()).isEqualTo(oldFoodDay.getVersion());
+        assertThat(foodDayArchiveService.findOne(recentFoodDay.getId())).isEmpty();
+
+        FoodDayViewDTO view = foodDayArchiveService.findView(oldFoodDay.getId()).get();
+        assertThat(view.getFoodDayId()).isEqualTo(oldFoodDay.getId());
+        assertThat(view.getEntries())
+            .extracting(FoodDayViewEntryDTO::getMealtype)
+            .containsExactly(MealType.Lunch, MealType.Lunch, MealType.Snack);
+        assertThat(view.getEntries()).extracting(FoodDayViewEntryDTO::getFoodName).containsExactly("apple", null, "apple");
+        assertThat(view.getEntries()).extracting(FoodDayViewEntryDTO::getFoodDayId).containsOnlyNulls();
+
+        FoodDaySummaryDTO summary = foodDayArchiveService.findSummary(oldFoodDay.getId()).get();
+        assertThat(summary.getMeals()).extracting(NutritionTotalsDTO::getMealtype).containsExactly(MealType.Lunch, MealType.Snack);
+        assertThat(summary.getTotal().getEntryCount()).isEqualTo(2);
+        assertThat(summary.getTotal().getCalories()).isEqualTo(200.0);
+        assertThat(summary.getTotal().getProteins()).isEqualTo(20.0);
+    }
+
+    @Test
+    void movesTheNewestArchivedDateForwardAfterTheCommit() {
+        Object target = AopTestUtils.getTargetObject(foodDayArchiveService);
+        ReflectionTestUtils.setField(target, "newestArchivedDate", LocalDate.MIN);
+
+        archive();
+        assertThat(ReflectionTestUtils.getField(target, "newestArchivedDate")).isEqualTo(LocalDate.MIN);
+        // The chunks are committed with the transaction of the test, which is rolled back
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertThat(ReflectionTestUtils.getField(target, "newestArchivedDate")).isEqualTo(oldFoodDay.getCreatedDate());
+        ReflectionTestUtils.setField(target, "newestArchivedDate", null);
+    }
+
+    @Test
+    void keepsTheDailyNutritionOfTheArchivedDays() {
+        archive();
+
+        assertThat(dailyNutritionService.check()).isEmpty();
+        dailyNutritionService.refresh(oldFoodDay.getUser().getId(), oldFoodDay.getCreatedDate());
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    void keepsTheMacrosOfTheFoodsWhenTheDayWasArchived() {
+        archive();
+
+        Food changedFood = foodRepository.findById(food.getId()).get();
+        NutritionTotalsDTO previous = dailyNutritionService.macrosOf(changedFood);
+        foodRepository.saveAndFlush(changedFood.calories(150F));
+        dailyNutritionService.foodChanged(changedFood, previous);
+
+        assertThat(foodDayArchiveService.findSummary(oldFoodDay.getId()).get().getTotal().getCalories()).isEqualTo(200.0);
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+}
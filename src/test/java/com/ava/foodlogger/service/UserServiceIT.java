@@ -6,13 +6,18 @@ import static org.mockito.Mockito.when;
 import com.ava.foodlogger.IntegrationTest;
 import com.ava.foodlogger.config.Constants;
 import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.repository.AuthorityRepository;
 import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.security.AuthoritiesConstants;
 import com.ava.foodlogger.service.dto.AdminUserDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import javax.sql.DataSource;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +27,7 @@ import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -47,9 +53,15 @@ class UserServiceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DataSource dataSource;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -182,4 +194,23 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreDeletedWithTheirAuthorities() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        user.setAuthorities(new HashSet<>(authorityRepository.findAllById(Set.of(AuthoritiesConstants.USER))));
+        User dbUser = userRepository.saveAndFlush(user);
+        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        userRepository.saveAndFlush(user);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String countAuthorities = "select count(*) from jhi_user_authority where user_id = ?";
+        assertThat(jdbcTemplate.queryForObject(countAuthorities, Long.class, dbUser.getId())).isEqualTo(1);
+        userService.removeNotActivatedUsers();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from jhi_user where id = ?", Long.class, dbUser.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject(countAuthorities, Long.class, dbUser.getId())).isZero();
+    }
 }
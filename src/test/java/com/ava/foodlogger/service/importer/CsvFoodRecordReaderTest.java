@@ -0,0 +1,78 @@
+package com.ava.foodlogger.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ava.foodlogger.service.InvalidFoodImportException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CsvFoodRecordReader}.
+ */
+class CsvFoodRecordReaderTest {
+
+    private static List<FoodRecord> read(String csv) throws IOException {
+        List<FoodRecord> records = new ArrayList<>();
+        try (CsvFoodRecordReader reader = new CsvFoodRecordReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            for (FoodRecord record = reader.next(); record != null; record = reader.next()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void readsTheColumnsByName() throws IOException {
+        List<FoodRecord> records = read("sodium,fat,proteins,carbohydrates,calories,name,source\n5,4,3,2,1,Oats,USDA");
+
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getLine()).isEqualTo(2L);
+        assertThat(records.get(0).getFood().getName()).isEqualTo("Oats");
+        assertThat(records.get(0).getFood().getCalories()).isEqualTo(1F);
+        assertThat(records.get(0).getFood().getSodium()).isEqualTo(5F);
+    }
+
+    @Test
+    void readsQuotedFieldsOverSeveralLines() throws IOException {
+        List<FoodRecord> records = read(
+            "\uFEFFname\tcalories\tcarbohydrates\tproteins\tfat\tsodium\r\n" +
+            "\"Soup,\tthe \"\"best\"\"\nof all\"\t1\t1\t1\t1\t1\r\n" +
+            "\r\n" +
+            "Bread\t2\t2\t2\t2\t2\r\n"
+        );
+
+        assertThat(records).extracting(FoodRecord::getLine).containsExactly(2L, 5L);
+        assertThat(records.get(0).getFood().getName()).isEqualTo("Soup,\tthe \"best\"\nof all");
+        assertThat(records.get(1).getFood().getCalories()).isEqualTo(2F);
+    }
+
+    @Test
+    void reportsUnparsableRows() throws IOException {
+        List<FoodRecord> records = read("name;calories;carbohydrates;proteins;fat;sodium\nOats;1;1;1\nBread;x;1;1;1;1\n");
+
+        assertThat(records.get(0).getError()).isNull();
+        assertThat(records.get(0).getFood().getFat()).isNull();
+        assertThat(records.get(1).getFood()).isNull();
+        assertThat(records.get(1).getError()).isEqualTo("calories: 'x' is not a number");
+    }
+
+    @Test
+    void rejectsAMissingColumn() {
+        assertThatThrownBy(() -> read("name;calories;carbohydrates;proteins;fat\n"))
+            .isInstanceOf(InvalidFoodImportException.class)
+            .hasMessageContaining("'sodium'");
+        assertThatThrownBy(() -> read("")).isInstanceOf(InvalidFoodImportException.class);
+    }
+
+    @Test
+    void rejectsAnUnclosedQuote() {
+        assertThatThrownBy(() -> read("name;calories;carbohydrates;proteins;fat;sodium\n\"Oats;1;1;1;1;1\n"))
+            .isInstanceOf(InvalidFoodImportException.class)
+            .hasMessageContaining("line 2");
+    }
+}
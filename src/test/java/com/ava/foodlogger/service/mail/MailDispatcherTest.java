@@ -0,0 +1,207 @@
+package com.ava.foodlogger.service.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ava.foodlogger.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BooleanSupplier;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for {@link MailDispatcher}, against an {@link SmtpServerStub}.
+ */
+class MailDispatcherTest {
+
+    private SmtpServerStub smtpServer;
+
+    private JavaMailSenderImpl javaMailSender;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void setup() throws IOException {
+        smtpServer = new SmtpServerStub();
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost(smtpServer.getHost());
+        javaMailSender.setPort(smtpServer.getPort());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().setInitialBackoff(Duration.ofMillis(10));
+        applicationProperties.getMail().setEnqueueTimeout(Duration.ofMillis(10));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (mailDispatcher != null) {
+            mailDispatcher.stop();
+        }
+        smtpServer.close();
+    }
+
+    private MailDispatcher createMailDispatcher() {
+        mailDispatcher = new MailDispatcher(javaMailSender, applicationProperties, meterRegistry);
+        return mailDispatcher;
+    }
+
+    private MimeMessage message(String subject) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message);
+        helper.setFrom("test@localhost");
+        helper.setTo("john.doe@example.com");
+        helper.setSubject(subject);
+        helper.setText("testContent");
+        return message;
+    }
+
+    private double messages(String outcome) {
+        return meterRegistry.get("mail.messages").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("time waited for the condition").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void sendsABurstOverOneConnection() throws Exception {
+        createMailDispatcher();
+        for (int i = 0; i < 20; i++) {
+            assertThat(mailDispatcher.dispatch(message("burst " + i))).isTrue();
+        }
+        mailDispatcher.start();
+
+        await(() -> smtpServer.getMessages().size() == 20);
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        assertThat(smtpServer.getMessages().get(19)).contains("Subject: burst 19");
+        await(() -> messages("sent") == 20);
+        assertThat(meterRegistry.get("mail.send").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mail.delivery").timer().count()).isEqualTo(20);
+    }
+
+    @Test
+    void sendsBatchesOfLimitedSize() throws Exception {
+        applicationProperties.getMail().setBatchSize(8);
+        createMailDispatcher();
+        for (int i = 0; i < 20; i++) {
+            mailDispatcher.dispatch(message("burst " + i));
+        }
+        mailDispatcher.start();
+
+        await(() -> messages("sent") == 20);
+        assertThat(smtpServer.getConnections()).isEqualTo(3);
+        assertThat(meterRegistry.get("mail.send").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesTransientFailures() throws Exception {
+        smtpServer.replyToNextRecipients("451 4.3.0 Try again later", 2);
+        createMailDispatcher().start();
+
+        mailDispatcher.dispatch(message("retried"));
+
+        await(() -> messages("sent") == 1);
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        assertThat(messages("retried")).isEqualTo(2);
+        assertThat(messages("failed")).isZero();
+    }
+
+    @Test
+    void dropsMessagesAfterTheLastAttempt() throws Exception {
+        applicationProperties.getMail().setMaxAttempts(3);
+        smtpServer.replyToNextRecipients("451 4.3.0 Try again later", 10);
+        createMailDispatcher().start();
+
+        mailDispatcher.dispatch(message("dropped"));
+
+        await(() -> messages("failed") == 1);
+        assertThat(smtpServer.getMessages()).isEmpty();
+        assertThat(messages("retried")).isEqualTo(2);
+    }
+
+    @Test
+    void dropsPermanentFailuresAlone() throws Exception {
+        smtpServer.replyToNextRecipients("550 5.1.1 No such user", 1);
+        createMailDispatcher();
+        mailDispatcher.dispatch(message("rejected"));
+        mailDispatcher.dispatch(message("accepted"));
+        mailDispatcher.start();
+
+        await(() -> messages("sent") + messages("failed") == 2);
+        assertThat(messages("failed")).isEqualTo(1);
+        assertThat(messages("retried")).isZero();
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        assertThat(smtpServer.getMessages().get(0)).contains("Subject: accepted");
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesWhenTheServerIsDown() throws Exception {
+        smtpServer.close();
+        applicationProperties.getMail().setMaxAttempts(2);
+        createMailDispatcher().start();
+
+        mailDispatcher.dispatch(message("unsent"));
+
+        await(() -> messages("failed") == 1);
+        assertThat(messages("retried")).isEqualTo(1);
+    }
+
+    @Test
+    void dropsMessagesWhenTheRetriesAreStopped() throws Exception {
+        smtpServer.replyToNextRecipients("451 4.3.0 Try again later", 1);
+        createMailDispatcher().start();
+        // As when stop() shuts the retries down while a worker is handling a failure
+        ((ScheduledExecutorService) ReflectionTestUtils.getField(mailDispatcher, "retryScheduler")).shutdownNow();
+
+        mailDispatcher.dispatch(message("unsent"));
+
+        await(() -> messages("failed") == 1);
+        assertThat(messages("retried")).isZero();
+        assertThat(mailDispatcher.dispatch(message("sent"))).isTrue();
+        await(() -> messages("sent") == 1);
+    }
+
+    @Test
+    void rejectsMessagesWhenTheQueueIsFull() throws Exception {
+        applicationProperties.getMail().setQueueCapacity(2);
+        createMailDispatcher();
+
+        assertThat(mailDispatcher.dispatch(message("first"))).isTrue();
+        assertThat(mailDispatcher.dispatch(message("second"))).isTrue();
+        assertThat(mailDispatcher.dispatch(message("third"))).isFalse();
+
+        assertThat(meterRegistry.get("mail.queue.size").gauge().value()).isEqualTo(2);
+        assertThat(messages("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void sendsTheQueuedMessagesOnStop() throws Exception {
+        createMailDispatcher();
+        for (int i = 0; i < 5; i++) {
+            mailDispatcher.dispatch(message("queued " + i));
+        }
+        mailDispatcher.start();
+        mailDispatcher.stop();
+
+        assertThat(smtpServer.getMessages()).hasSize(5);
+        assertThat(mailDispatcher.dispatch(message("late"))).isFalse();
+    }
+}
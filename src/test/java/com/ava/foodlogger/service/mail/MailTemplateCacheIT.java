@@ -0,0 +1,100 @@
+package com.ava.foodlogger.service.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.User;
+import java.util.Locale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailTemplateCache}, against the templates rendered by the {@link SpringTemplateEngine}.
+ */
+@IntegrationTest
+class MailTemplateCacheIT {
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    private MailTemplateCache mailTemplateCache;
+
+    @BeforeEach
+    public void setup() {
+        mailTemplateCache = new MailTemplateCache(templateEngine, messageSource, jHipsterProperties, new ThymeleafProperties());
+    }
+
+    private String process(String templateName, User user) {
+        Context context = new Context(Locale.ENGLISH);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setLangKey("en");
+        user.setActivationKey("12345678901234567890");
+        user.setResetKey("09876543210987654321");
+        return user;
+    }
+
+    @Test
+    void rendersTheEmailsLikeTheTemplateEngine() {
+        for (String templateName : new String[] { "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail" }) {
+            User john = user("john");
+            User jane = user("o'brien&<co>");
+            jane.setResetKey("abcdefghijabcdefghij");
+
+            assertThat(mailTemplateCache.getContent(templateName, john, Locale.ENGLISH)).isEqualTo(process(templateName, john));
+            assertThat(mailTemplateCache.getContent(templateName, jane, Locale.ENGLISH))
+                .isEqualTo(process(templateName, jane))
+                .contains("Dear o&#39;brien&amp;&lt;co&gt;");
+            assertThat(mailTemplateCache.isCached(templateName, Locale.ENGLISH)).isTrue();
+        }
+    }
+
+    @Test
+    void rendersTheUsersWithMissingFields() {
+        User user = user("john");
+        user.setResetKey(null);
+        mailTemplateCache.getContent("mail/creationEmail", user("jane"), Locale.ENGLISH);
+
+        assertThat(mailTemplateCache.getContent("mail/creationEmail", user, Locale.ENGLISH))
+            .isEqualTo(process("mail/creationEmail", user));
+    }
+
+    @Test
+    void rendersTheTemplatesUsingOtherPropertiesOfTheUser() {
+        User john = user("john");
+        john.setId(1L);
+        User jane = user("jane");
+        jane.setId(2L);
+
+        assertThat(mailTemplateCache.getContent("mail/testUserIdEmail", john, Locale.ENGLISH))
+            .isEqualToNormalizingNewlines("<html>john, 1</html>\n");
+        assertThat(mailTemplateCache.getContent("mail/testUserIdEmail", jane, Locale.ENGLISH))
+            .isEqualToNormalizingNewlines("<html>jane, 2</html>\n");
+        assertThat(mailTemplateCache.isCached("mail/testUserIdEmail", Locale.ENGLISH)).isFalse();
+    }
+
+    @Test
+    void resolvesTheSubjects() {
+        assertThat(mailTemplateCache.getSubject("email.test.title", Locale.ENGLISH)).isEqualTo("test title");
+        assertThat(mailTemplateCache.getSubject("email.test.title", Locale.ENGLISH)).isEqualTo("test title");
+    }
+}
@@ -0,0 +1,132 @@
+package com.ava.foodlogger.service.mail;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process SMTP server for the tests, on a free port of the loopback address.
+ * <p>
+ * It accepts every command and keeps the data of the messages, unless told to reply otherwise to the next recipients.
+ */
+class SmtpServerStub implements Closeable {
+
+    private final ServerSocket serverSocket;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    private final Queue<String> recipientReplies = new ConcurrentLinkedQueue<>();
+
+    SmtpServerStub() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::accept);
+    }
+
+    String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the number of connections accepted.
+     */
+    int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * @return the data of the messages received.
+     */
+    List<String> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Replies to the next {@code RCPT} commands with {@code reply} instead of accepting the recipient.
+     */
+    void replyToNextRecipients(String reply, int times) {
+        for (int i = 0; i < times; i++) {
+            recipientReplies.add(reply);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                executor.execute(() -> converse(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void converse(Socket socket) {
+        try (
+            socket;
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)
+        ) {
+            reply(out, "220 localhost SMTP stub");
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "RCPT":
+                        String recipientReply = recipientReplies.poll();
+                        reply(out, recipientReply != null ? recipientReply : "250 OK");
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        for (line = in.readLine(); line != null && !line.equals("."); line = in.readLine()) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // The client went away
+        }
+    }
+
+    private static void reply(Writer out, String reply) throws IOException {
+        out.write(reply + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ava.foodlogger.service.maintenance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link MaintenanceJobRunner}, with a job over ids held in memory.
+ */
+@IntegrationTest
+class MaintenanceJobRunnerIT {
+
+    private static final String JOB_NAME = "testJob";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private MaintenanceJobRunner maintenanceJobRunner;
+
+    private TestJob job;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMaintenance().setChunkSize(2);
+        maintenanceJobRunner = new MaintenanceJobRunner(dataSource, transactionManager, meterRegistry, applicationProperties);
+        job = new TestJob(LongStream.rangeClosed(1, 5).boxed().collect(Collectors.toList()));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("delete from maintenance_job where job_name = ?", JOB_NAME);
+    }
+
+    private List<Long> checkpoint() {
+        return jdbcTemplate.queryForList("select last_id from maintenance_job where job_name = ?", Long.class, JOB_NAME);
+    }
+
+    @Test
+    void runsTheJobInChunks() {
+        assertThat(maintenanceJobRunner.run(job)).isEqualTo(5);
+
+        assertThat(job.processed).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(job.committed).isEqualTo(job.processed);
+        assertThat(checkpoint()).isEmpty();
+        assertThat(meterRegistry.get("maintenance.job.rows").tag("job", JOB_NAME).counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("maintenance.job.chunks").tag("job", JOB_NAME).counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("maintenance.job.duration").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() {
+        job.failingId = 3L;
+
+        assertThatThrownBy(() -> maintenanceJobRunner.run(job)).isInstanceOf(IllegalStateException.class);
+        assertThat(job.committed).containsExactly(List.of(1L, 2L));
+        assertThat(checkpoint()).containsExactly(2L);
+        assertThat(meterRegistry.get("maintenance.job.duration").tag("outcome", "failure").timer().count()).isEqualTo(1);
+
+        job.failingId = null;
+        assertThat(maintenanceJobRunner.run(job)).isEqualTo(3);
+        assertThat(job.committed).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(checkpoint()).isEmpty();
+    }
+
+    private static class TestJob implements MaintenanceJob<Long> {
+
+        private final List<Long> ids;
+
+        private final List<List<Long>> processed = new ArrayList<>();
+
+        private final List<List<Long>> committed = new ArrayList<>();
+
+        private Long failingId;
+
+        TestJob(List<Long> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public String getName() {
+            return JOB_NAME;
+        }
+
+        @Override
+        public List<Long> findChunk(long afterId, int size) {
+            return ids.stream().filter(id -> id > afterId).limit(size).collect(Collectors.toList());
+        }
+
+        @Override
+        public long getId(Long id) {
+            return id;
+        }
+
+        @Override
+        public int process(List<Long> chunk) {
+            if (chunk.contains(failingId)) {
+                throw new IllegalStateException("Failed to process " + failingId);
+            }
+            processed.add(chunk);
+            return chunk.size();
+        }
+
+        @Override
+        public void afterCommit(List<Long> chunk) {
+            committed.add(chunk);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ava.foodlogger.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link FoodSearchIndex}.
+ */
+class FoodSearchIndexTest {
+
+    private FoodSearchIndex index;
+
+    @BeforeEach
+    public void init() {
+        index = new FoodSearchIndex();
+        index.put(1L, "Chicken breast, grilled");
+        index.put(2L, "Chickpeas");
+        index.put(3L, "Crème brûlée");
+        index.put(4L, "Fried chicken");
+        index.put(5L, "Brown rice");
+    }
+
+    @Test
+    void searchRanksNamesStartingWithTheQueryFirst() {
+        assertThat(index.search("chick", 10)).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    void searchMatchesEveryTokenByPrefix() {
+        assertThat(index.search("gri chi", 10)).containsExactly(1L);
+        assertThat(index.search("rice br", 10)).containsExactly(5L);
+    }
+
+    @Test
+    void searchIgnoresCaseAndAccents() {
+        assertThat(index.search("CREME BRU", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void searchToleratesTypos() {
+        assertThat(index.search("chikcen", 10)).contains(1L, 4L).doesNotContain(5L);
+        assertThat(index.search("brwon rice", 10)).startsWith(5L);
+    }
+
+    @Test
+    void searchHonoursTheLimit() {
+        assertThat(index.search("chick", 2)).containsExactly(2L, 1L);
+        assertThat(index.search("chick", 0)).isEmpty();
+    }
+
+    @Test
+    void searchWithoutTokensReturnsNothing() {
+        assertThat(index.search(" ,. ", 10)).isEmpty();
+        assertThat(index.search(null, 10)).isEmpty();
+    }
+
+    @Test
+    void putReplacesTheName() {
+        index.put(2L, "Hummus");
+
+        assertThat(index.search("chickp", 10)).doesNotContain(2L);
+        assertThat(index.search("humm", 10)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void removeDropsTheFood() {
+        index.remove(1L);
+        index.remove(42L);
+
+        assertThat(index.search("chick", 10)).containsExactly(2L, 4L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
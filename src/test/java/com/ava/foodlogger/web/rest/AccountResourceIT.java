@@ -7,6 +7,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.ava.foodlogger.IntegrationTest;
 import com.ava.foodlogger.config.Constants;
+import com.ava.foodlogger.domain.AppUser;
+import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.domain.GoalWeight;
 import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.AuthorityRepository;
 import com.ava.foodlogger.repository.UserRepository;
@@ -17,12 +23,21 @@ import com.ava.foodlogger.service.dto.PasswordChangeDTO;
 import com.ava.foodlogger.service.dto.UserDTO;
 import com.ava.foodlogger.web.rest.vm.KeyAndPasswordVM;
 import com.ava.foodlogger.web.rest.vm.ManagedUserVM;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -51,6 +66,9 @@ class AccountResourceIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager em;
+
     @Autowired
     private MockMvc restAccountMockMvc;
 
@@ -108,6 +126,158 @@ class AccountResourceIT {
             .andExpect(jsonPath("$.authorities").value(AuthoritiesConstants.ADMIN));
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("account-not-modified")
+    void testGetAccountNotModified() throws Exception {
+        User user = new User();
+        user.setLogin("account-not-modified");
+        user.setEmail("account-not-modified@example.com");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+
+        String eTag = restAccountMockMvc
+            .perform(get("/api/account").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restAccountMockMvc
+            .perform(get("/api/account").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        AdminUserDTO userDTO = new AdminUserDTO(user);
+        userDTO.setFirstName("firstname");
+        userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
+        restAccountMockMvc
+            .perform(post("/api/account").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(userDTO)))
+            .andExpect(status().isOk());
+
+        restAccountMockMvc
+            .perform(get("/api/account").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.firstName").value("firstname"));
+    }
+
+    private User createExportedHistory() {
+        User user = new User();
+        user.setLogin("account-export");
+        user.setEmail("account-export@example.com");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        em.persist(user);
+        User otherUser = UserResourceIT.createEntity(em);
+        em.persist(otherUser);
+        em.persist(AppUserResourceIT.createEntity(em).user(user));
+        em.persist(CurrentWeightResourceIT.createEntity(em).user(user));
+        em.persist(GoalWeightResourceIT.createEntity(em).user(user));
+        Food oats = FoodResourceIT.createEntity(em).name("Exported oats");
+        Food milk = FoodResourceIT.createEntity(em).name("Exported milk");
+        Food notExported = FoodResourceIT.createEntity(em).name("Not exported");
+        em.persist(oats);
+        em.persist(milk);
+        em.persist(notExported);
+        for (int i = 0; i < 2; i++) {
+            FoodDay foodDay = FoodDayResourceIT.createEntity(em).user(user);
+            em.persist(foodDay);
+            em.persist(FoodEntryResourceIT.createEntity(em).foodDay(foodDay).food(oats));
+            em.persist(FoodEntryResourceIT.createEntity(em).foodDay(foodDay).food(milk));
+        }
+        FoodDay otherFoodDay = FoodDayResourceIT.createEntity(em).user(otherUser);
+        em.persist(otherFoodDay);
+        em.persist(FoodEntryResourceIT.createEntity(em).foodDay(otherFoodDay).food(notExported));
+        em.flush();
+        em.clear();
+        return user;
+    }
+
+    private static List<JsonNode> readLines(byte[] export) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : new String(export, StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("account-export")
+    void testExportAccount() throws Exception {
+        createExportedHistory();
+
+        byte[] export = restAccountMockMvc
+            .perform(get("/api/account/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        List<JsonNode> lines = readLines(export);
+        assertThat(lines)
+            .extracting(line -> line.get("type").asText())
+            .containsExactly(
+                "user",
+                "appUser",
+                "currentWeight",
+                "goalWeight",
+                "food",
+                "food",
+                "foodDay",
+                "foodDay",
+                "foodEntry",
+                "foodEntry",
+                "foodEntry",
+                "foodEntry"
+            );
+        assertThat(lines.get(0).get("login").asText()).isEqualTo("account-export");
+        assertThat(lines.subList(4, 6)).extracting(line -> line.get("name").asText()).containsExactly("Exported oats", "Exported milk");
+        Set<Long> foodIds = lines.subList(4, 6).stream().map(line -> line.get("id").asLong()).collect(Collectors.toSet());
+        Set<Long> foodDayIds = lines.subList(6, 8).stream().map(line -> line.get("id").asLong()).collect(Collectors.toSet());
+        for (JsonNode foodEntry : lines.subList(8, 12)) {
+            assertThat(foodIds).contains(foodEntry.get("foodId").asLong());
+            assertThat(foodDayIds).contains(foodEntry.get("foodDayId").asLong());
+        }
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("account-export")
+    void testExportAccountGzipped() throws Exception {
+        createExportedHistory();
+
+        byte[] export = restAccountMockMvc
+            .perform(get("/api/account/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(export))) {
+            assertThat(readLines(input.readAllBytes())).hasSize(12);
+        }
+    }
+
+    @Test
+    @WithMockUser("admin")
+    void testExportAccountInARepeatableReadTransaction() throws Exception {
+        // Outside of a test transaction, the export opens its own REPEATABLE READ one
+        byte[] export = restAccountMockMvc
+            .perform(get("/api/account/export"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        assertThat(readLines(export).get(0).get("login").asText()).isEqualTo("admin");
+    }
+
     @Test
     void testGetUnknownAccount() throws Exception {
         restAccountMockMvc
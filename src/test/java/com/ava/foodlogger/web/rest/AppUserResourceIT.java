@@ -9,6 +9,7 @@ import com.ava.foodlogger.IntegrationTest;
 import com.ava.foodlogger.domain.AppUser;
 import com.ava.foodlogger.domain.enumeration.ActivityLevel;
 import com.ava.foodlogger.repository.AppUserRepository;
+import com.ava.foodlogger.repository.UserRepository;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
@@ -63,6 +64,9 @@ class AppUserResourceIT {
     @Autowired
     private AppUserRepository appUserRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -173,7 +177,7 @@ class AppUserResourceIT {
     @Transactional
     void getAllAppUsers() throws Exception {
         // Initialize the database
-        appUserRepository.saveAndFlush(appUser);
+        appUserRepository.saveAndFlush(appUser.user(userRepository.findOneByLogin("user").get()));
 
         // Get all the appUserList
         restAppUserMockMvc
@@ -2,15 +2,21 @@ package com.ava.foodlogger.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.AppUser;
 import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.User;
 import com.ava.foodlogger.repository.CurrentWeightRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.service.EnergyTargetService;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
@@ -18,6 +24,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -46,6 +53,15 @@ class CurrentWeightResourceIT {
     @Autowired
     private CurrentWeightRepository currentWeightRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EnergyTargetService energyTargetService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -137,7 +153,7 @@ class CurrentWeightResourceIT {
     @Transactional
     void getAllCurrentWeights() throws Exception {
         // Initialize the database
-        currentWeightRepository.saveAndFlush(currentWeight);
+        currentWeightRepository.saveAndFlush(currentWeight.user(userRepository.findOneByLogin("user").get()));
 
         // Get all the currentWeightList
         restCurrentWeightMockMvc
@@ -149,6 +165,18 @@ class CurrentWeightResourceIT {
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllCurrentWeightsOfTheCurrentUserOnly() throws Exception {
+        // Initialize the database
+        currentWeightRepository.saveAndFlush(currentWeight.user(userRepository.findOneByLogin("admin").get()));
+
+        restCurrentWeightMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(currentWeight.getId().intValue()))));
+    }
+
     @Test
     @Transactional
     void getCurrentWeight() throws Exception {
@@ -288,6 +316,31 @@ class CurrentWeightResourceIT {
         assertThat(testCurrentWeight.getCreatedDate()).isEqualTo(UPDATED_CREATED_DATE);
     }
 
+    @Test
+    @Transactional
+    void partialUpdateCurrentWeightEvictsTheEnergyTargets() throws Exception {
+        // Initialize the database, and cache the targets of the user
+        Objects.requireNonNull(cacheManager.getCache(EnergyTargetService.ENERGY_TARGETS_BY_USER_ID_CACHE)).clear();
+        User user = userRepository.findOneByLogin("user").get();
+        em.persist(new AppUser().height(180F).dateOfBirth(LocalDate.now().minusYears(30)).user(user));
+        currentWeightRepository.saveAndFlush(currentWeight.weight(90F).user(user));
+        assertThat(energyTargetService.findByUserId(user.getId()).get().getWeight()).isEqualTo(90F);
+
+        // Update the weight using partial update
+        CurrentWeight partialUpdatedCurrentWeight = new CurrentWeight().weight(80F);
+        partialUpdatedCurrentWeight.setId(currentWeight.getId());
+
+        restCurrentWeightMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCurrentWeight.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCurrentWeight))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(energyTargetService.findByUserId(user.getId()).get().getWeight()).isEqualTo(80F);
+    }
+
     @Test
     @Transactional
     void fullUpdateCurrentWeightWithPatch() throws Exception {
@@ -0,0 +1,293 @@
+package com.ava.foodlogger.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.DailyNutrition;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.domain.enumeration.MealType;
+import com.ava.foodlogger.repository.DailyNutritionRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.security.AuthoritiesConstants;
+import com.ava.foodlogger.service.DailyNutritionService;
+import com.ava.foodlogger.service.dto.DailyNutritionDTO;
+import com.ava.foodlogger.service.dto.NutritionTotalsDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Integration tests for the {@link DailyNutritionResource} REST controller, and for the maintenance of the
+ * {@link DailyNutrition} read model by the entity resources.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class DailyNutritionResourceIT {
+
+    private static final LocalDate DEFAULT_DATE = LocalDate.ofEpochDay(0L);
+
+    private static final String ENTITY_API_URL = "/api/daily-nutritions";
+
+    @Autowired
+    private DailyNutritionRepository dailyNutritionRepository;
+
+    @Autowired
+    private DailyNutritionService dailyNutritionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restDailyNutritionMockMvc;
+
+    private FoodDay foodDay;
+
+    private Food food;
+
+    @BeforeEach
+    public void initTest() {
+        foodDay = FoodDayResourceIT.createEntity(em).createdDate(DEFAULT_DATE).user(userRepository.findOneByLogin("user").get());
+        food = FoodResourceIT.createEntity(em).calories(100F).proteins(10F);
+    }
+
+    private FoodEntry createFoodEntry(MealType mealtype) throws Exception {
+        FoodEntry foodEntry = FoodEntryResourceIT.createEntity(em).mealtype(mealtype).foodDay(foodDay).food(food);
+        String body = restDailyNutritionMockMvc
+            .perform(
+                post("/api/food-entries").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(foodEntry))
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return foodEntry.id(new ObjectMapper().readTree(body).get("id").asLong());
+    }
+
+    private List<DailyNutritionDTO> findDailyNutritions() {
+        // Read through a projection, the rows are maintained with bulk updates which bypass the persistence context
+        return dailyNutritionRepository.findAllByUserIdIn(List.of(foodDay.getUser().getId()));
+    }
+
+    @Test
+    @Transactional
+    void getDailyNutritionsAfterCreatingFoodEntries() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        createFoodEntry(MealType.Lunch);
+        createFoodEntry(MealType.Lunch);
+        createFoodEntry(MealType.Snack);
+
+        restDailyNutritionMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", DEFAULT_DATE, DEFAULT_DATE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].nutritionDate").value(DEFAULT_DATE.toString()))
+            .andExpect(jsonPath("$[0].mealtype").value(MealType.Lunch.toString()))
+            .andExpect(jsonPath("$[0].entryCount").value(2))
+            .andExpect(jsonPath("$[0].calories").value(200.0))
+            .andExpect(jsonPath("$[1].mealtype").value(MealType.Snack.toString()))
+            .andExpect(jsonPath("$[1].proteins").value(10.0));
+
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void getDailyNutritionsOutsideOfRange() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        createFoodEntry(MealType.Dinner);
+
+        restDailyNutritionMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", DEFAULT_DATE.plusDays(1), DEFAULT_DATE.plusDays(7)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getDailyNutritionsWithInvalidRange() throws Exception {
+        restDailyNutritionMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", DEFAULT_DATE.plusDays(1), DEFAULT_DATE))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void updateFoodEntryMovesItsContribution() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        FoodEntry foodEntry = createFoodEntry(MealType.Lunch);
+
+        restDailyNutritionMockMvc
+            .perform(
+                put("/api/food-entries/{id}", foodEntry.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(foodEntry.mealtype(MealType.Dinner)))
+            )
+            .andExpect(status().isOk());
+
+        List<DailyNutritionDTO> dailyNutritions = findDailyNutritions();
+        assertThat(dailyNutritions).hasSize(1);
+        assertThat(dailyNutritions.get(0).getMealtype()).isEqualTo(MealType.Dinner);
+        assertThat(dailyNutritions.get(0).getEntryCount()).isEqualTo(1L);
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void deleteFoodEntryRemovesItsContribution() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        FoodEntry foodEntry = createFoodEntry(MealType.Lunch);
+
+        restDailyNutritionMockMvc.perform(delete("/api/food-entries/{id}", foodEntry.getId())).andExpect(status().isNoContent());
+
+        assertThat(findDailyNutritions()).isEmpty();
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void createFoodEntriesWithoutMealtypeShareOneRow() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        createFoodEntry(null);
+        createFoodEntry(null);
+
+        List<DailyNutritionDTO> dailyNutritions = findDailyNutritions();
+        assertThat(dailyNutritions).hasSize(1);
+        assertThat(dailyNutritions.get(0).getMealtype()).isNull();
+        assertThat(dailyNutritions.get(0).getEntryCount()).isEqualTo(2L);
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void upsertAddsToTheExistingRow() {
+        em.persist(foodDay);
+        Long userId = foodDay.getUser().getId();
+        dailyNutritionRepository.upsert(userId, DEFAULT_DATE, new NutritionTotalsDTO(null, 1L, 100D, 0D, 10D, 0D, 0D));
+        dailyNutritionRepository.upsert(userId, DEFAULT_DATE, new NutritionTotalsDTO(null, 2L, 200D, 0D, 20D, 0D, 0D));
+        dailyNutritionRepository.upsert(userId, DEFAULT_DATE, new NutritionTotalsDTO(MealType.Lunch, 1L, 50D, 0D, 5D, 0D, 0D));
+
+        List<DailyNutritionDTO> dailyNutritions = findDailyNutritions();
+        assertThat(dailyNutritions).hasSize(2);
+        DailyNutritionDTO withoutMealtype = dailyNutritions.stream().filter(day -> day.getMealtype() == null).findFirst().get();
+        assertThat(withoutMealtype.getEntryCount()).isEqualTo(3L);
+        assertThat(withoutMealtype.getCalories()).isEqualTo(300.0);
+        assertThat(withoutMealtype.getProteins()).isEqualTo(30.0);
+    }
+
+    @Test
+    @Transactional
+    void deleteFoodEntryWithoutRowRefreshesTheDay() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        FoodEntry foodEntry = createFoodEntry(MealType.Lunch);
+        createFoodEntry(MealType.Lunch);
+        dailyNutritionRepository.deleteByUserIdAndNutritionDate(foodDay.getUser().getId(), DEFAULT_DATE);
+
+        restDailyNutritionMockMvc.perform(delete("/api/food-entries/{id}", foodEntry.getId())).andExpect(status().isNoContent());
+        // The day is recomputed before the commit of the transaction, which the test rolls back
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        List<DailyNutritionDTO> dailyNutritions = findDailyNutritions();
+        assertThat(dailyNutritions).hasSize(1);
+        assertThat(dailyNutritions.get(0).getEntryCount()).isEqualTo(1L);
+        assertThat(dailyNutritions.get(0).getCalories()).isEqualTo(100.0);
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void patchFoodMacrosUpdatesDailyNutrition() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        createFoodEntry(MealType.Lunch);
+        createFoodEntry(MealType.Lunch);
+
+        Food partialUpdatedFood = new Food().id(food.getId()).calories(150F);
+        restDailyNutritionMockMvc
+            .perform(
+                patch("/api/foods/{id}", food.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedFood))
+            )
+            .andExpect(status().isOk());
+
+        List<DailyNutritionDTO> dailyNutritions = findDailyNutritions();
+        assertThat(dailyNutritions).hasSize(1);
+        assertThat(dailyNutritions.get(0).getCalories()).isEqualTo(300.0);
+        assertThat(dailyNutritions.get(0).getProteins()).isEqualTo(20.0);
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void patchFoodDayDateMovesDailyNutrition() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        createFoodEntry(MealType.Lunch);
+
+        FoodDay partialUpdatedFoodDay = new FoodDay().id(foodDay.getId()).createdDate(DEFAULT_DATE.plusDays(1));
+        restDailyNutritionMockMvc
+            .perform(
+                patch("/api/food-days/{id}", foodDay.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedFoodDay))
+            )
+            .andExpect(status().isOk());
+
+        List<DailyNutritionDTO> dailyNutritions = findDailyNutritions();
+        assertThat(dailyNutritions).hasSize(1);
+        assertThat(dailyNutritions.get(0).getNutritionDate()).isEqualTo(DEFAULT_DATE.plusDays(1));
+        assertThat(dailyNutritionService.check()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void checkDailyNutritionsReportsDrift() throws Exception {
+        em.persist(foodDay);
+        em.persist(food);
+        createFoodEntry(MealType.Lunch);
+
+        DailyNutrition dailyNutrition = dailyNutritionRepository.findAll().get(0);
+        dailyNutrition.setCalories(dailyNutrition.getCalories() + 1);
+        dailyNutritionRepository.saveAndFlush(dailyNutrition);
+
+        restDailyNutritionMockMvc
+            .perform(get("/api/admin/daily-nutritions/check"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].expected.calories").value(100.0))
+            .andExpect(jsonPath("$[0].actual.calories").value(101.0));
+    }
+
+    @Test
+    @Transactional
+    void checkDailyNutritionsIsAdminOnly() throws Exception {
+        restDailyNutritionMockMvc.perform(get("/api/admin/daily-nutritions/check")).andExpect(status().isForbidden());
+        restDailyNutritionMockMvc.perform(post("/api/admin/daily-nutritions/rebuild")).andExpect(status().isForbidden());
+    }
+}
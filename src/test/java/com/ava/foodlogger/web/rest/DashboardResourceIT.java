@@ -0,0 +1,203 @@
+package com.ava.foodlogger.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.AppUser;
+import com.ava.foodlogger.domain.CurrentWeight;
+import com.ava.foodlogger.domain.DailyNutrition;
+import com.ava.foodlogger.domain.GoalWeight;
+import com.ava.foodlogger.domain.User;
+import com.ava.foodlogger.domain.enumeration.ActivityLevel;
+import com.ava.foodlogger.domain.enumeration.MealType;
+import com.ava.foodlogger.repository.AppUserRepository;
+import com.ava.foodlogger.repository.CurrentWeightRepository;
+import com.ava.foodlogger.repository.DailyNutritionRepository;
+import com.ava.foodlogger.repository.GoalWeightRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.service.DashboardService;
+import com.ava.foodlogger.service.EnergyTargetService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link DashboardResource} REST controller.
+ * <p>
+ * The data is committed rather than rolled back, as the sub-queries of the dashboard run in transactions of their own.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class DashboardResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/dashboard";
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private CurrentWeightRepository currentWeightRepository;
+
+    @Autowired
+    private GoalWeightRepository goalWeightRepository;
+
+    @Autowired
+    private DailyNutritionRepository dailyNutritionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc restDashboardMockMvc;
+
+    private AppUser appUser;
+
+    private List<CurrentWeight> currentWeights;
+
+    private GoalWeight goalWeight;
+
+    private List<DailyNutrition> dailyNutritions;
+
+    @BeforeEach
+    public void init() {
+        User user = userRepository.findOneByLogin("user").get();
+        appUser =
+            appUserRepository.save(
+                new AppUser()
+                    .height(180F)
+                    .dateOfBirth(TODAY.minusYears(30))
+                    .activityLevel(ActivityLevel.Active)
+                    .workoutsPerWeek(3)
+                    .minutesPerWorkout(60)
+                    .user(user)
+            );
+        currentWeights =
+            currentWeightRepository.saveAll(
+                List.of(
+                    new CurrentWeight().weight(90F).createdDate(TODAY.minusDays(10)).user(user),
+                    new CurrentWeight().weight(80F).createdDate(TODAY).user(user)
+                )
+            );
+        goalWeight = goalWeightRepository.save(new GoalWeight().weight(70F).createdDate(TODAY).user(user));
+        dailyNutritions =
+            dailyNutritionRepository.saveAll(
+                List.of(
+                    createDailyNutrition(user, TODAY, MealType.Lunch, 300D),
+                    createDailyNutrition(user, TODAY, MealType.Snack, 500D),
+                    createDailyNutrition(user, TODAY.minusDays(2), MealType.Dinner, 700D),
+                    createDailyNutrition(user, TODAY.minusDays(DashboardService.TREND_DAYS), MealType.Dinner, 900D)
+                )
+            );
+        clearEnergyTargets();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        dailyNutritionRepository.deleteAll(dailyNutritions);
+        goalWeightRepository.delete(goalWeight);
+        currentWeightRepository.deleteAll(currentWeights);
+        appUserRepository.delete(appUser);
+        clearEnergyTargets();
+    }
+
+    private void clearEnergyTargets() {
+        Objects.requireNonNull(cacheManager.getCache(EnergyTargetService.ENERGY_TARGETS_BY_USER_ID_CACHE)).clear();
+    }
+
+    private static DailyNutrition createDailyNutrition(User user, LocalDate date, MealType mealtype, Double calories) {
+        return new DailyNutrition()
+            .nutritionDate(date)
+            .mealtype(mealtype)
+            .entryCount(1L)
+            .calories(calories)
+            .carbohydrates(10D)
+            .proteins(20D)
+            .fat(5D)
+            .sodium(1D)
+            .user(user);
+    }
+
+    private MvcResult getDashboard() throws Exception {
+        return restDashboardMockMvc.perform(get(ENTITY_API_URL)).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private DistributionSummary recordedStatements() {
+        return meterRegistry.get("http.server.requests.jdbc.statements").tag("method", "GET").tag("uri", ENTITY_API_URL).summary();
+    }
+
+    @Test
+    void getDashboardOfTheCurrentUser() throws Exception {
+        restDashboardMockMvc
+            .perform(asyncDispatch(getDashboard()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.date").value(TODAY.toString()))
+            .andExpect(jsonPath("$.today.entryCount").value(2))
+            .andExpect(jsonPath("$.today.calories").value(800.0))
+            .andExpect(jsonPath("$.today.proteins").value(40.0))
+            .andExpect(jsonPath("$.meals.length()").value(2))
+            .andExpect(jsonPath("$.meals[0].mealtype").value(MealType.Lunch.toString()))
+            .andExpect(jsonPath("$.meals[1].mealtype").value(MealType.Snack.toString()))
+            .andExpect(jsonPath("$.trend", hasSize(DashboardService.TREND_DAYS)))
+            .andExpect(jsonPath("$.trend[0].nutritionDate").value(TODAY.minusDays(DashboardService.TREND_DAYS - 1L).toString()))
+            .andExpect(jsonPath("$.trend[0].calories").value(0.0))
+            .andExpect(jsonPath("$.trend[4].calories").value(700.0))
+            .andExpect(jsonPath("$.trend[6].calories").value(800.0))
+            .andExpect(jsonPath("$.currentWeight.weight").value(80.0))
+            .andExpect(jsonPath("$.goalWeight.weight").value(70.0))
+            .andExpect(jsonPath("$.profile.id").value(appUser.getId().intValue()))
+            .andExpect(jsonPath("$.profile.height").value(180.0))
+            .andExpect(jsonPath("$.targets.bmr").value(1697.0));
+    }
+
+    @Test
+    @WithMockUser("admin")
+    void getDashboardWithoutData() throws Exception {
+        restDashboardMockMvc
+            .perform(asyncDispatch(getDashboard()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.today.entryCount").value(0))
+            .andExpect(jsonPath("$.meals").isEmpty())
+            .andExpect(jsonPath("$.trend", hasSize(DashboardService.TREND_DAYS)))
+            .andExpect(jsonPath("$.currentWeight").doesNotExist())
+            .andExpect(jsonPath("$.goalWeight").doesNotExist())
+            .andExpect(jsonPath("$.profile").doesNotExist())
+            .andExpect(jsonPath("$.targets").doesNotExist());
+    }
+
+    @Test
+    void getDashboardRecordsTheStatementsOfItsSubQueries() throws Exception {
+        restDashboardMockMvc.perform(asyncDispatch(getDashboard())).andExpect(status().isOk());
+        double before = recordedStatements().totalAmount();
+
+        restDashboardMockMvc.perform(asyncDispatch(getDashboard())).andExpect(status().isOk());
+
+        // The sub-queries run on the threads of the executor, and still count into the activity of the request: at least
+        // a statement for each of the four not cached, the targets being cached by the first request.
+        assertThat(recordedStatements().totalAmount() - before).isGreaterThanOrEqualTo(4.0);
+    }
+}
@@ -2,18 +2,27 @@ package com.ava.foodlogger.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.Food;
 import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.domain.enumeration.MealType;
 import com.ava.foodlogger.repository.FoodDayRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.service.FoodDayArchiveService;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +52,12 @@ class FoodDayResourceIT {
     @Autowired
     private FoodDayRepository foodDayRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FoodDayArchiveService foodDayArchiveService;
+
     @Autowired
     private EntityManager em;
 
@@ -116,17 +131,110 @@ class FoodDayResourceIT {
     @Transactional
     void getAllFoodDays() throws Exception {
         // Initialize the database
+        foodDay.setUser(userRepository.findOneByLogin("user").get());
         foodDayRepository.saveAndFlush(foodDay);
 
         // Get all the foodDayList
         restFoodDayMockMvc
-            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", DEFAULT_CREATED_DATE, DEFAULT_CREATED_DATE.plusDays(1)))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(foodDay.getId().intValue())))
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    // The days, then their user
+    @QueryBudget(max = 2)
+    void getAllFoodDaysWithinQueryBudget() throws Exception {
+        // Initialize the database with recent days holding entries, and start from an empty persistence context
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        for (int i = 0; i < 3; i++) {
+            FoodDay day = createEntity(em).createdDate(LocalDate.now().minusDays(i)).user(userRepository.findOneByLogin("user").get());
+            em.persist(day);
+            em.persist(FoodEntryResourceIT.createEntity(em).food(food).foodDay(day));
+        }
+        em.flush();
+        em.clear();
+
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", LocalDate.now().minusDays(2), LocalDate.now()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    @Transactional
+    @QueryBudget(max = 1)
+    void getFoodDayViewWithinQueryBudget() throws Exception {
+        // Initialize the database
+        foodDayRepository.saveAndFlush(foodDay);
+        em.clear();
+
+        restFoodDayMockMvc.perform(get(ENTITY_API_URL_ID + "/view", foodDay.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void getAllFoodDaysDefaultsToTheLastDays() throws Exception {
+        // Initialize the database
+        foodDay.setUser(userRepository.findOneByLogin("user").get());
+        foodDayRepository.saveAndFlush(foodDay);
+        FoodDay recentFoodDay = foodDayRepository.saveAndFlush(
+            createEntity(em).createdDate(LocalDate.now().minusDays(3)).user(foodDay.getUser())
+        );
+        FoodDay otherUserFoodDay = foodDayRepository.saveAndFlush(
+            createEntity(em).createdDate(LocalDate.now()).user(userRepository.findOneByLogin("admin").get())
+        );
+
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(recentFoodDay.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(foodDay.getId().intValue()))))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(otherUserFoodDay.getId().intValue()))));
+
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "?days=3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(recentFoodDay.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void getAllFoodDaysOfMonth() throws Exception {
+        // Initialize the database
+        foodDay.setUser(userRepository.findOneByLogin("user").get());
+        foodDayRepository.saveAndFlush(foodDay);
+        FoodDay lastDayOfMonth = foodDayRepository.saveAndFlush(
+            createEntity(em).createdDate(DEFAULT_CREATED_DATE.withDayOfMonth(31)).user(foodDay.getUser())
+        );
+        FoodDay nextMonth = foodDayRepository.saveAndFlush(createEntity(em).createdDate(DEFAULT_CREATED_DATE.plusMonths(1)).user(foodDay.getUser()));
+
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "?month={month}", YearMonth.from(DEFAULT_CREATED_DATE)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(lastDayOfMonth.getId().intValue()))
+            .andExpect(jsonPath("$[1].id").value(foodDay.getId().intValue()))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(nextMonth.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void getAllFoodDaysWithInvalidRange() throws Exception {
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", DEFAULT_CREATED_DATE.plusDays(1), DEFAULT_CREATED_DATE))
+            .andExpect(status().isBadRequest());
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", DEFAULT_CREATED_DATE, DEFAULT_CREATED_DATE.plusYears(2)))
+            .andExpect(status().isBadRequest());
+        restFoodDayMockMvc.perform(get(ENTITY_API_URL + "?days=7&month=1970-01")).andExpect(status().isBadRequest());
+        restFoodDayMockMvc.perform(get(ENTITY_API_URL + "?days=0")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getFoodDay() throws Exception {
@@ -149,6 +257,167 @@ class FoodDayResourceIT {
         restFoodDayMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getFoodDaySummary() throws Exception {
+        // Initialize the database
+        foodDayRepository.saveAndFlush(foodDay);
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        em.persist(FoodEntryResourceIT.createEntity(em).mealtype(MealType.Lunch).food(food).foodDay(foodDay));
+        em.persist(FoodEntryResourceIT.createEntity(em).mealtype(MealType.Lunch).food(food).foodDay(foodDay));
+        em.persist(FoodEntryResourceIT.createEntity(em).mealtype(MealType.Snack).food(food).foodDay(foodDay));
+        em.flush();
+
+        // Get the summary of the foodDay
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/summary", foodDay.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.foodDayId").value(foodDay.getId().intValue()))
+            .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()))
+            .andExpect(jsonPath("$.meals.length()").value(2))
+            .andExpect(jsonPath("$.meals[?(@.mealtype == 'Lunch')].calories").value(hasItem(2.0 * food.getCalories())))
+            .andExpect(jsonPath("$.meals[?(@.mealtype == 'Snack')].sodium").value(hasItem(1.0 * food.getSodium())))
+            .andExpect(jsonPath("$.total.calories").value(3.0 * food.getCalories()))
+            .andExpect(jsonPath("$.total.proteins").value(3.0 * food.getProteins()));
+    }
+
+    @Test
+    @Transactional
+    void getFoodDaySummaryByDate() throws Exception {
+        // Initialize the database
+        foodDay.setUser(userRepository.findOneByLogin("user").get());
+        foodDayRepository.saveAndFlush(foodDay);
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        em.persist(FoodEntryResourceIT.createEntity(em).mealtype(MealType.Dinner).food(food).foodDay(foodDay));
+        em.flush();
+
+        // Get the summary of the current user's day
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "/summary?date={date}", DEFAULT_CREATED_DATE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()))
+            .andExpect(jsonPath("$.meals.length()").value(1))
+            .andExpect(jsonPath("$.meals[0].mealtype").value(MealType.Dinner.toString()))
+            .andExpect(jsonPath("$.total.fat").value(1.0 * food.getFat()));
+    }
+
+    @Test
+    @Transactional
+    void getFoodDayView() throws Exception {
+        // Initialize the database
+        foodDayRepository.saveAndFlush(foodDay);
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        FoodEntry lunch = FoodEntryResourceIT.createEntity(em).mealtype(MealType.Lunch).food(food).foodDay(foodDay);
+        FoodEntry snack = FoodEntryResourceIT.createEntity(em).mealtype(MealType.Snack).food(food).foodDay(foodDay);
+        em.persist(lunch);
+        em.persist(snack);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            // Get the view of the foodDay
+            restFoodDayMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/view", foodDay.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.foodDayId").value(foodDay.getId().intValue()))
+                .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()))
+                .andExpect(jsonPath("$.entries.length()").value(2))
+                .andExpect(jsonPath("$.entries[0].id").value(lunch.getId().intValue()))
+                .andExpect(jsonPath("$.entries[0].mealtype").value(MealType.Lunch.toString()))
+                .andExpect(jsonPath("$.entries[0].foodId").value(food.getId().intValue()))
+                .andExpect(jsonPath("$.entries[0].foodName").value(food.getName()))
+                .andExpect(jsonPath("$.entries[0].calories").value(food.getCalories().doubleValue()))
+                .andExpect(jsonPath("$.entries[1].id").value(snack.getId().intValue()))
+                .andExpect(jsonPath("$.entries[1].sodium").value(food.getSodium().doubleValue()))
+                .andExpect(jsonPath("$.entries[0].foodDayId").doesNotExist());
+
+            // The whole view is read with one statement, without loading any entity
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+            assertThat(statistics.getCollectionFetchCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getEmptyFoodDayView() throws Exception {
+        // Initialize the database
+        foodDayRepository.saveAndFlush(foodDay);
+
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/view", foodDay.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.foodDayId").value(foodDay.getId().intValue()))
+            .andExpect(jsonPath("$.entries.length()").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingFoodDayView() throws Exception {
+        restFoodDayMockMvc.perform(get(ENTITY_API_URL_ID + "/view", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingFoodDaySummary() throws Exception {
+        // Get the summary of the foodDay
+        restFoodDayMockMvc.perform(get(ENTITY_API_URL_ID + "/summary", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getArchivedFoodDay() throws Exception {
+        // Initialize the database, and archive the foodDay
+        foodDay.setUser(userRepository.findOneByLogin("user").get());
+        foodDayRepository.saveAndFlush(foodDay);
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        em.persist(FoodEntryResourceIT.createEntity(em).mealtype(MealType.Dinner).food(food).foodDay(foodDay));
+        em.flush();
+        foodDayArchiveService.archiveOldFoodDays();
+        em.flush();
+        em.clear();
+        assertThat(foodDayRepository.findById(foodDay.getId())).isEmpty();
+
+        // Get the foodDay, its view and its summary from the archive
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL_ID, foodDay.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(foodDay.getId().intValue()))
+            .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()));
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/view", foodDay.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.foodDayId").value(foodDay.getId().intValue()))
+            .andExpect(jsonPath("$.entries.length()").value(1))
+            .andExpect(jsonPath("$.entries[0].foodName").value(food.getName()))
+            .andExpect(jsonPath("$.entries[0].calories").value(food.getCalories().doubleValue()));
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/summary", foodDay.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.meals[0].mealtype").value(MealType.Dinner.toString()))
+            .andExpect(jsonPath("$.total.fat").value(1.0 * food.getFat()));
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "/summary?date={date}", DEFAULT_CREATED_DATE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.meals.length()").value(1))
+            .andExpect(jsonPath("$.total.entryCount").value(1));
+        restFoodDayMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", DEFAULT_CREATED_DATE, DEFAULT_CREATED_DATE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(foodDay.getId().intValue())));
+    }
+
     @Test
     @Transactional
     void putNewFoodDay() throws Exception {
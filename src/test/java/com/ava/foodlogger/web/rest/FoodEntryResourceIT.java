@@ -1,24 +1,35 @@
 package com.ava.foodlogger.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
 import com.ava.foodlogger.domain.FoodEntry;
 import com.ava.foodlogger.domain.enumeration.MealType;
 import com.ava.foodlogger.repository.FoodEntryRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.service.dto.FoodEntryBatchDTO;
+import com.ava.foodlogger.web.rest.util.KeysetPaginationUtil;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -47,6 +58,9 @@ class FoodEntryResourceIT {
     @Autowired
     private FoodEntryRepository foodEntryRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -82,6 +96,15 @@ class FoodEntryResourceIT {
         foodEntry = createEntity(em);
     }
 
+    /**
+     * Persists a food day of a user, as the foodEntries are listed per user through their food days.
+     */
+    private FoodDay createFoodDay(String login) {
+        FoodDay foodDay = FoodDayResourceIT.createEntity(em).user(userRepository.findOneByLogin(login).get());
+        em.persist(foodDay);
+        return foodDay;
+    }
+
     @Test
     @Transactional
     void createFoodEntry() throws Exception {
@@ -99,6 +122,96 @@ class FoodEntryResourceIT {
         assertThat(testFoodEntry.getCreatedDate()).isEqualTo(DEFAULT_CREATED_DATE);
     }
 
+    @Test
+    @Transactional
+    void getAllFoodEntriesByCursor() throws Exception {
+        // Initialize the database
+        FoodDay foodDay = createFoodDay("user");
+        FoodEntry first = foodEntryRepository.saveAndFlush(createEntity(em).foodDay(foodDay));
+        foodEntryRepository.saveAndFlush(createEntity(em).foodDay(createFoodDay("admin")));
+        FoodEntry second = foodEntryRepository.saveAndFlush(createEntity(em).foodDay(foodDay));
+
+        restFoodEntryMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", KeysetPaginationUtil.encodeCursor(first.getId() - 1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(first.getId().intValue()))
+            .andExpect(header().string("Link", containsString(KeysetPaginationUtil.encodeCursor(first.getId()))));
+
+        restFoodEntryMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", KeysetPaginationUtil.encodeCursor(first.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(second.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void createFoodEntriesInBatch() throws Exception {
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        FoodDay foodDay = FoodDayResourceIT.createEntity(em);
+        List<FoodEntry> foodEntries = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            foodEntries.add(createEntity(em).mealtype(i % 2 == 0 ? MealType.Lunch : MealType.Dinner).food(new Food().id(food.getId())));
+        }
+        foodEntries.add(createEntity(em).id(1L).food(new Food().id(food.getId())));
+        foodEntries.add(createEntity(em).food(new Food().id(Long.MAX_VALUE)));
+        em.flush();
+        int databaseSizeBeforeCreate = foodEntryRepository.findAll().size();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            restFoodEntryMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(new FoodEntryBatchDTO(foodDay, foodEntries)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.foodDay.id").isNumber())
+                .andExpect(jsonPath("$.foodEntries.length()").value(60))
+                .andExpect(jsonPath("$.errors.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(60))
+                .andExpect(jsonPath("$.errors[0].errorKey").value("idexists"))
+                .andExpect(jsonPath("$.errors[1].index").value(61))
+                .andExpect(jsonPath("$.errors[1].errorKey").value("foodnotfound"));
+            em.flush();
+
+            // 1 select of the foods, at most 2 sequence calls for 61 ids, 1 insert of the day, 3 batches of 25 entries,
+            // and an update and an upsert per daily nutrition row: far fewer round trips than one per entry. The daily
+            // nutrition rows are upserted with native statements, so only the day and its entries are entity inserts.
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(12L);
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(61L);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        assertThat(foodEntryRepository.findAll()).hasSize(databaseSizeBeforeCreate + 60);
+        assertThat(foodEntryRepository.findAll().get(databaseSizeBeforeCreate).getFoodDay().getUser().getLogin()).isEqualTo("user");
+    }
+
+    @Test
+    @Transactional
+    void createFoodEntriesInBatchWithNonExistingFoodDay() throws Exception {
+        FoodEntryBatchDTO batch = new FoodEntryBatchDTO(new FoodDay().id(Long.MAX_VALUE), List.of(createEntity(em)));
+
+        restFoodEntryMockMvc
+            .perform(post(ENTITY_API_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batch)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void createEmptyFoodEntriesBatch() throws Exception {
+        FoodEntryBatchDTO batch = new FoodEntryBatchDTO(null, List.of());
+
+        restFoodEntryMockMvc
+            .perform(post(ENTITY_API_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batch)))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void createFoodEntryWithExistingId() throws Exception {
@@ -121,7 +234,7 @@ class FoodEntryResourceIT {
     @Transactional
     void getAllFoodEntries() throws Exception {
         // Initialize the database
-        foodEntryRepository.saveAndFlush(foodEntry);
+        foodEntryRepository.saveAndFlush(foodEntry.foodDay(createFoodDay("user")));
 
         // Get all the foodEntryList
         restFoodEntryMockMvc
@@ -133,6 +246,18 @@ class FoodEntryResourceIT {
             .andExpect(jsonPath("$.[*].createdDate").value(hasItem(DEFAULT_CREATED_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllFoodEntriesOfTheCurrentUserOnly() throws Exception {
+        // Initialize the database
+        foodEntryRepository.saveAndFlush(foodEntry.foodDay(createFoodDay("admin")));
+
+        restFoodEntryMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(foodEntry.getId().intValue()))));
+    }
+
     @Test
     @Transactional
     void getFoodEntry() throws Exception {
@@ -149,6 +274,68 @@ class FoodEntryResourceIT {
             .andExpect(jsonPath("$.createdDate").value(DEFAULT_CREATED_DATE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getFoodEntryModifiedByAnUpdateOfItsFood() throws Exception {
+        // Initialize the database
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        foodEntryRepository.saveAndFlush(foodEntry.food(food));
+
+        String eTag = restFoodEntryMockMvc
+            .perform(get(ENTITY_API_URL_ID, foodEntry.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        restFoodEntryMockMvc
+            .perform(get(ENTITY_API_URL_ID, foodEntry.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // The food is serialized within the foodEntry, so its update changes the representation of the foodEntry
+        food.setName("BBBBBBBBBB");
+        em.flush();
+
+        restFoodEntryMockMvc
+            .perform(get(ENTITY_API_URL_ID, foodEntry.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.food.name").value("BBBBBBBBBB"));
+    }
+
+    @Test
+    @Transactional
+    // The page, with the foods, food days and users fetched in the same select, and its count
+    @QueryBudget(max = 2)
+    void getAllFoodEntriesWithinQueryBudget() throws Exception {
+        // Initialize the database with entries of distinct foods and days, and start from an empty persistence context
+        for (int i = 0; i < 3; i++) {
+            Food food = FoodResourceIT.createEntity(em);
+            em.persist(food);
+            FoodDay foodDay = FoodDayResourceIT.createEntity(em).user(userRepository.findOneByLogin("user").get());
+            em.persist(foodDay);
+            em.persist(createEntity(em).food(food).foodDay(foodDay));
+        }
+        em.flush();
+        em.clear();
+
+        restFoodEntryMockMvc.perform(get(ENTITY_API_URL + "?sort=id,desc&size=3")).andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    @QueryBudget(max = 1)
+    void getFoodEntryWithinQueryBudget() throws Exception {
+        // Initialize the database
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+        FoodDay foodDay = FoodDayResourceIT.createEntity(em).user(userRepository.findOneByLogin("user").get());
+        em.persist(foodDay);
+        foodEntryRepository.saveAndFlush(foodEntry.food(food).foodDay(foodDay));
+        em.clear();
+
+        restFoodEntryMockMvc.perform(get(ENTITY_API_URL_ID, foodEntry.getId())).andExpect(status().isOk());
+    }
+
     @Test
     @Transactional
     void getNonExistingFoodEntry() throws Exception {
@@ -0,0 +1,216 @@
+package com.ava.foodlogger.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.ava.foodlogger.IntegrationTest;
+import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.security.AuthoritiesConstants;
+import com.ava.foodlogger.service.FoodSearchService;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Integration tests for the {@link FoodImportResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class FoodImportResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/admin/foods/import";
+
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private FoodSearchService foodSearchService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restFoodImportMockMvc;
+
+    @BeforeEach
+    public void initTest() {
+        em.persist(FoodResourceIT.createEntity(em).name("Existing food"));
+        em.flush();
+    }
+
+    private Map<String, Food> foodsByName() {
+        em.clear();
+        return foodRepository.findAll().stream().collect(Collectors.toMap(Food::getName, Function.identity(), (first, second) -> first));
+    }
+
+    @Test
+    @Transactional
+    void importFoodsFromCsv() throws Exception {
+        int databaseSizeBeforeImport = foodRepository.findAll().size();
+        String csv =
+            "id;name;calories;carbohydrates;proteins;fat;sodium\n" +
+            "1;Imported oats;389;66.3;16.9;6.9;2\n" +
+            "2;\"Imported \"\"quoted\"\"; food\";100;1;2;3;4\n" +
+            "3;Existing food;1;1;1;1;1\n" +
+            "4;Imported oats;1;1;1;1;1\n" +
+            "5;A;1;1;1;1;1\n" +
+            "6;Imported broth;lots;1;1;1;1\n" +
+            "\n" +
+            "7;Imported tea;1;;1;1;1\n";
+
+        restFoodImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(TEXT_CSV).content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(7))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.duplicates").value(2))
+            .andExpect(jsonPath("$.rejected").value(3))
+            .andExpect(jsonPath("$.errors[*].line").value(contains(6, 7, 9)))
+            .andExpect(jsonPath("$.errors[0].message").value(startsWith("name: size must be between 2")))
+            .andExpect(jsonPath("$.errors[1].message").value("calories: 'lots' is not a number"))
+            .andExpect(jsonPath("$.errors[2].message").value("carbohydrates: must not be null"));
+
+        Map<String, Food> foods = foodsByName();
+        assertThat(foods).hasSize(databaseSizeBeforeImport + 2);
+        Food oats = foods.get("Imported oats");
+        assertThat(oats.getVersion()).isZero();
+        assertThat(oats.getCalories()).isEqualTo(389F);
+        assertThat(oats.getCarbohydrates()).isEqualTo(66.3F);
+        assertThat(foods.get("Imported \"quoted\"; food").getSodium()).isEqualTo(4F);
+        // The foods are indexed after the commit of the transaction, which the test rolls back
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(foodSearchService.search("imported quo", 10)).extracting(Food::getName).containsExactly("Imported \"quoted\"; food");
+    }
+
+    @Test
+    @Transactional
+    void importFoodsFromJson() throws Exception {
+        int databaseSizeBeforeImport = foodRepository.findAll().size();
+        String json =
+            "[\n" +
+            "  {\"id\": 1, \"name\": \"Imported rice\", \"calories\": 130, \"carbohydrates\": 28.2, \"proteins\": 2.7, \"fat\": 0.3, " +
+            "\"sodium\": 1, \"source\": \"ignored\"},\n" +
+            "  {\"name\": \"Imported lentils\", \"calories\": \"lots\", \"carbohydrates\": 1, \"proteins\": 1, \"fat\": 1, \"sodium\": 1},\n" +
+            "  {\"name\": \"Existing food\", \"calories\": 1, \"carbohydrates\": 1, \"proteins\": 1, \"fat\": 1, \"sodium\": 1}\n" +
+            "]";
+
+        restFoodImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(3))
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.duplicates").value(1))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(3))
+            .andExpect(jsonPath("$.errors[0].message").value(startsWith("calories: ")));
+
+        Map<String, Food> foods = foodsByName();
+        assertThat(foods).hasSize(databaseSizeBeforeImport + 1);
+        assertThat(foods.get("Imported rice").getCarbohydrates()).isEqualTo(28.2F);
+    }
+
+    @Test
+    @Transactional
+    void importFoodsRejectsNonDecimalNumbers() throws Exception {
+        int databaseSizeBeforeImport = foodRepository.findAll().size();
+        String csv =
+            "name;calories;carbohydrates;proteins;fat;sodium\n" +
+            "Imported nan;NaN;1;1;1;1\n" +
+            "Imported infinity;1;-Infinity;1;1;1\n" +
+            "Imported suffix;1;1;1f;1;1\n" +
+            "Imported hex;1;1;1;0x1p3;1\n" +
+            "Imported overflow;1;1;1;1;1e99\n" +
+            "Imported pear;+57;.15;3E-1;0.1;1\n";
+
+        restFoodImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(TEXT_CSV).content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.rejected").value(5))
+            .andExpect(jsonPath("$.errors[*].line").value(contains(2, 3, 4, 5, 6)))
+            .andExpect(jsonPath("$.errors[0].message").value("calories: 'NaN' is not a number"))
+            .andExpect(jsonPath("$.errors[1].message").value("carbohydrates: '-Infinity' is not a number"))
+            .andExpect(jsonPath("$.errors[2].message").value("proteins: '1f' is not a number"))
+            .andExpect(jsonPath("$.errors[3].message").value("fat: '0x1p3' is not a number"))
+            .andExpect(jsonPath("$.errors[4].message").value("sodium: '1e99' is not a number"));
+
+        String json =
+            "{\"name\": \"Imported lentils\", \"calories\": \"NaN\", \"carbohydrates\": 1, \"proteins\": 1, \"fat\": 1, " +
+            "\"sodium\": 1}\n" +
+            "{\"name\": \"Imported beans\", \"calories\": 1, \"carbohydrates\": 1, \"proteins\": 1, \"fat\": 1, \"sodium\": 1e99}\n";
+
+        restFoodImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(json))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(0))
+            .andExpect(jsonPath("$.rejected").value(2))
+            .andExpect(jsonPath("$.errors[0].message").value("calories: must be a finite number"))
+            .andExpect(jsonPath("$.errors[1].message").value("sodium: must be a finite number"));
+
+        Map<String, Food> foods = foodsByName();
+        assertThat(foods).hasSize(databaseSizeBeforeImport + 1);
+        assertThat(foods.get("Imported pear").getProteins()).isEqualTo(0.3F);
+    }
+
+    @Test
+    @Transactional
+    void importFoodsAssignsIdsAfterTheSequence() throws Exception {
+        String csv = "name,calories,carbohydrates,proteins,fat,sodium\r\nImported apple,52,14,0.3,0.2,1\r\n";
+
+        restFoodImportMockMvc.perform(post(ENTITY_API_URL).contentType(TEXT_CSV).content(csv)).andExpect(status().isOk());
+        Food food = FoodResourceIT.createEntity(em);
+        em.persist(food);
+
+        List<Long> ids = List.of(foodsByName().get("Imported apple").getId(), food.getId());
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @Transactional
+    void importFoodsWithMissingColumn() throws Exception {
+        int databaseSizeBeforeImport = foodRepository.findAll().size();
+
+        restFoodImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(TEXT_CSV).content("name;calories\nImported pear;57\n"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.importinvalid"))
+            .andExpect(jsonPath("$.title").value(containsString("'carbohydrates'")));
+
+        assertThat(foodRepository.findAll()).hasSize(databaseSizeBeforeImport);
+    }
+
+    @Test
+    @Transactional
+    void importFoodsWithMalformedJson() throws Exception {
+        restFoodImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content("[{\"name\": \"Imported pear\","))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.importinvalid"));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    void importFoodsAsUserIsForbidden() throws Exception {
+        restFoodImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType(TEXT_CSV).content("name;calories;carbohydrates;proteins;fat;sodium\n"))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -1,21 +1,34 @@
 package com.ava.foodlogger.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.ava.foodlogger.IntegrationTest;
 import com.ava.foodlogger.domain.Food;
+import com.ava.foodlogger.domain.FoodDay;
+import com.ava.foodlogger.domain.FoodEntry;
+import com.ava.foodlogger.repository.FoodDayRepository;
+import com.ava.foodlogger.repository.FoodEntryRepository;
 import com.ava.foodlogger.repository.FoodRepository;
+import com.ava.foodlogger.repository.UserRepository;
+import com.ava.foodlogger.web.rest.util.KeysetPaginationUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -56,6 +69,15 @@ class FoodResourceIT {
     @Autowired
     private FoodRepository foodRepository;
 
+    @Autowired
+    private FoodDayRepository foodDayRepository;
+
+    @Autowired
+    private FoodEntryRepository foodEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -246,6 +268,8 @@ class FoodResourceIT {
 
     @Test
     @Transactional
+    // The page and its count
+    @QueryBudget(max = 2)
     void getAllFoods() throws Exception {
         // Initialize the database
         foodRepository.saveAndFlush(food);
@@ -264,6 +288,109 @@ class FoodResourceIT {
             .andExpect(jsonPath("$.[*].sodium").value(hasItem(DEFAULT_SODIUM.doubleValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllFoodsByCursor() throws Exception {
+        // Initialize the database
+        Food first = foodRepository.saveAndFlush(createEntity(em));
+        Food second = foodRepository.saveAndFlush(createEntity(em));
+        Food third = foodRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice, starting right before the foods of this test
+        String link = restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=2&sort=id,asc", KeysetPaginationUtil.encodeCursor(first.getId() - 1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$[1].id").value(second.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("rel=\"first\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader("Link");
+
+        // Follow the next link
+        Matcher next = Pattern.compile("<([^>]*)>; rel=\"next\"").matcher(link);
+        assertThat(next.find()).isTrue();
+        restFoodMockMvc
+            .perform(get(new URI(next.group(1))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(third.getId().intValue()));
+
+        // Scroll backwards
+        restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=2&sort=id,desc", KeysetPaginationUtil.encodeCursor(third.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(second.getId().intValue()))
+            .andExpect(jsonPath("$[1].id").value(first.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllFoodsByInvalidCursor() throws Exception {
+        restFoodMockMvc.perform(get(ENTITY_API_URL + "?cursor=notacursor")).andExpect(status().isBadRequest());
+        restFoodMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=name,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchFoods() throws Exception {
+        // Not transactional: the index is changed once the transactions of the resource commit
+        food.setName("Grilled salmon fillet");
+        restFoodMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(food)))
+            .andExpect(status().isCreated());
+        Food createdFood = foodRepository.findAll().get(foodRepository.findAll().size() - 1);
+
+        restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q={q}", "salm fil"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(createdFood.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem("Grilled salmon fillet")));
+
+        // Typos are tolerated
+        restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q={q}", "grileld salmon"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(createdFood.getId().intValue())));
+
+        restFoodMockMvc.perform(delete(ENTITY_API_URL_ID, createdFood.getId())).andExpect(status().isNoContent());
+
+        restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q={q}", "salm fil"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(createdFood.getId().intValue()))));
+    }
+
+    @Test
+    void deleteReferencedFoodKeepsItSearchable() throws Exception {
+        food.setName("Smoked mackerel pate");
+        String body = restFoodMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(food)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Food createdFood = foodRepository.findById(new ObjectMapper().readTree(body).get("id").asLong()).get();
+        FoodDay foodDay = foodDayRepository.save(FoodDayResourceIT.createEntity(em).user(userRepository.findOneByLogin("user").get()));
+        FoodEntry foodEntry = foodEntryRepository.save(FoodEntryResourceIT.createEntity(em).foodDay(foodDay).food(createdFood));
+        try {
+            // The food is still referenced by an entry, so the commit of its deletion fails
+            restFoodMockMvc.perform(delete(ENTITY_API_URL_ID, createdFood.getId())).andExpect(status().is5xxServerError());
+
+            assertThat(foodRepository.findById(createdFood.getId())).isPresent();
+            restFoodMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q={q}", "smoked mackerel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(createdFood.getId().intValue())));
+        } finally {
+            foodEntryRepository.delete(foodEntry);
+            foodDayRepository.delete(foodDay);
+        }
+        restFoodMockMvc.perform(delete(ENTITY_API_URL_ID, createdFood.getId())).andExpect(status().isNoContent());
+    }
+
     @Test
     @Transactional
     void getFood() throws Exception {
@@ -291,6 +418,111 @@ class FoodResourceIT {
         restFoodMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getFoodNotModified() throws Exception {
+        // Initialize the database
+        foodRepository.saveAndFlush(food);
+
+        String eTag = restFoodMockMvc
+            .perform(get(ENTITY_API_URL_ID, food.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(0))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"");
+
+        restFoodMockMvc
+            .perform(get(ENTITY_API_URL_ID, food.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getAllFoodsModifiedByAnUpdate() throws Exception {
+        // Initialize the database
+        foodRepository.saveAndFlush(food);
+
+        String eTag = restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        food.setName(UPDATED_NAME);
+        foodRepository.saveAndFlush(food);
+
+        restFoodMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)));
+    }
+
+    @Test
+    @Transactional
+    void putFoodWithIfMatch() throws Exception {
+        // Initialize the database
+        foodRepository.saveAndFlush(food);
+
+        String eTag = restFoodMockMvc.perform(get(ENTITY_API_URL_ID, food.getId())).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Food updatedFood = foodRepository.findById(food.getId()).get();
+        em.detach(updatedFood);
+        updatedFood.name(UPDATED_NAME);
+
+        String updatedETag = restFoodMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, food.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedFood))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(1))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        // The second update is based on the representation which was just replaced
+        restFoodMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, food.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedFood.name(DEFAULT_NAME)))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(foodRepository.findById(food.getId()).get().getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void patchFoodWithStaleVersion() throws Exception {
+        // Initialize the database
+        foodRepository.saveAndFlush(food);
+
+        Food partialUpdatedFood = new Food().id(food.getId()).version(food.getVersion() + 1).name(UPDATED_NAME);
+
+        restFoodMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, food.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedFood))
+            )
+            .andExpect(status().isConflict());
+
+        assertThat(foodRepository.findById(food.getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void putNewFood() throws Exception {
@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.ava.foodlogger.IntegrationTest;
 import com.ava.foodlogger.domain.GoalWeight;
 import com.ava.foodlogger.repository.GoalWeightRepository;
+import com.ava.foodlogger.repository.UserRepository;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
@@ -46,6 +47,9 @@ class GoalWeightResourceIT {
     @Autowired
     private GoalWeightRepository goalWeightRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -137,7 +141,7 @@ class GoalWeightResourceIT {
     @Transactional
     void getAllGoalWeights() throws Exception {
         // Initialize the database
-        goalWeightRepository.saveAndFlush(goalWeight);
+        goalWeightRepository.saveAndFlush(goalWeight.user(userRepository.findOneByLogin("user").get()));
 
         // Get all the goalWeightList
         restGoalWeightMockMvc
@@ -0,0 +1,23 @@
+package com.ava.foodlogger.web.rest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Limits the number of SQL statements each MockMvc request of a test may execute.
+ * <p>
+ * A request exceeding the budget fails with the list of its statements, identical statements being grouped so that
+ * N+1 selects stand out. On a class, the budget applies to every test method which does not declare its own.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    /**
+     * @return the maximum number of SQL statements per request.
+     */
+    int max();
+}
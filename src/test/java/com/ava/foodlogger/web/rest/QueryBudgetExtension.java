@@ -0,0 +1,27 @@
+package com.ava.foodlogger.web.rest;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * JUnit extension enforcing the {@link QueryBudget} of the current test on the requests recorded by
+ * {@link SqlStatementRecorder}.
+ */
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        QueryBudget budget = AnnotationSupport
+            .findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+            .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class))
+            .orElseThrow();
+        SqlStatementRecorder.setBudget(budget.max());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SqlStatementRecorder.setBudget(null);
+    }
+}
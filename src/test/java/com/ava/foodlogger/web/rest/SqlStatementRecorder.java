@@ -0,0 +1,121 @@
+package com.ava.foodlogger.web.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records the SQL statements executed by each MockMvc request, and fails the requests exceeding the
+ * {@link QueryBudget} of the current test. The statements of other actions can be recorded with {@link #record}.
+ * <p>
+ * Hibernate calls this class as {@code hibernate.session_factory.statement_inspector}, see the test
+ * {@code application.yml}, and requests are delimited by a filter added to MockMvc.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<Integer> BUDGET = new ThreadLocal<>();
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    static void setBudget(Integer max) {
+        if (max == null) {
+            BUDGET.remove();
+        } else {
+            BUDGET.set(max);
+        }
+    }
+
+    /**
+     * Records the SQL statements executed by an action of the current thread, outside of a MockMvc request.
+     *
+     * @param action the action.
+     * @return the statements, in order.
+     */
+    public static List<String> record(Runnable action) {
+        List<String> previous = STATEMENTS.get();
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                STATEMENTS.remove();
+            } else {
+                STATEMENTS.set(previous);
+            }
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    private static void checkBudget(HttpServletRequest request, int max, List<String> statements) {
+        if (statements.size() <= max) {
+            return;
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        statements.forEach(sql -> counts.merge(sql, 1, Integer::sum));
+        StringBuilder message = new StringBuilder()
+            .append(request.getMethod())
+            .append(' ')
+            .append(request.getRequestURI())
+            .append(" executed ")
+            .append(statements.size())
+            .append(" SQL statements, over its budget of ")
+            .append(max)
+            .append(':');
+        counts.forEach((sql, count) -> message.append(System.lineSeparator()).append(count).append(" x ").append(sql));
+        throw new AssertionError(message.toString());
+    }
+
+    /**
+     * Adds the filter delimiting requests to MockMvc.
+     */
+    @Configuration
+    public static class MockMvcConfiguration {
+
+        @Bean
+        public MockMvcBuilderCustomizer sqlStatementRecorderCustomizer() {
+            return builder -> builder.addFilters(new RecordingFilter());
+        }
+    }
+
+    private static class RecordingFilter implements Filter {
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+            Integer max = BUDGET.get();
+            if (max == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            List<String> statements = new ArrayList<>();
+            STATEMENTS.set(statements);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                STATEMENTS.remove();
+            }
+            checkBudget((HttpServletRequest) request, max, statements);
+        }
+    }
+}